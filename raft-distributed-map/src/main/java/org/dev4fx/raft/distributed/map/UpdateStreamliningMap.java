@@ -38,6 +38,7 @@ public class UpdateStreamliningMap<K extends Serializable,V extends Serializable
     private final int mapId;
     private final ConcurrentMap<K, V> map;
     private final Queue<? super Command<K,V>> commandQueue;
+    private final Runnable commandSignal;
 
     private SetWrapper<K> keySet;
     private SetWrapper<Entry<K, V>> entrySet;
@@ -46,9 +47,21 @@ public class UpdateStreamliningMap<K extends Serializable,V extends Serializable
     public UpdateStreamliningMap(final int mapId,
                                  final ConcurrentMap<K, V> map,
                                  final Queue<? super Command<K,V>> commandQueue) {
+        this(mapId, map, commandQueue, () -> {});
+    }
+
+    /**
+     * Creates a map invoking the given command signal after each command submission, for instance to wake up
+     * the process polling the command queue through {@code IdleStrategy.reset()}.
+     */
+    public UpdateStreamliningMap(final int mapId,
+                                 final ConcurrentMap<K, V> map,
+                                 final Queue<? super Command<K,V>> commandQueue,
+                                 final Runnable commandSignal) {
         this.mapId = mapId;
         this.map = Objects.requireNonNull(map);
         this.commandQueue = Objects.requireNonNull(commandQueue);
+        this.commandSignal = Objects.requireNonNull(commandSignal);
     }
 
     public int mapId() {
@@ -150,6 +163,7 @@ public class UpdateStreamliningMap<K extends Serializable,V extends Serializable
     public Future<V> nonBlockingPut(final K key, final V value) {
         final FutureResult<V> futureResult = new FutureResult<>();
         commandQueue.add(new PutCommand<>(mapId, key, value, futureResult));
+        commandSignal.run();
         return futureResult.get();
     }
 
@@ -157,6 +171,7 @@ public class UpdateStreamliningMap<K extends Serializable,V extends Serializable
     public Future<V> nonBlockingRemove(final K key) {
         final FutureResult<V> futureResult = new FutureResult<>();
         commandQueue.add(new RemoveCommand<>(mapId, key, futureResult));
+        commandSignal.run();
         return futureResult.get();
     }
 
@@ -164,6 +179,7 @@ public class UpdateStreamliningMap<K extends Serializable,V extends Serializable
     public Future<Void> nonBlockingPutAll(final Map<? extends K, ? extends V> fromMap) {
         final FutureResult<Void> futureResult = new FutureResult<>();
         commandQueue.add(new PutAllCommand<>(mapId, fromMap, futureResult));
+        commandSignal.run();
         return futureResult.get();
     }
 
@@ -171,6 +187,7 @@ public class UpdateStreamliningMap<K extends Serializable,V extends Serializable
     public Future<Void> nonBlockingClear() {
         final FutureResult<Void> futureResult = new FutureResult<>();
         commandQueue.add(new ClearCommand<>(mapId, futureResult));
+        commandSignal.run();
         return futureResult.get();
     }
 
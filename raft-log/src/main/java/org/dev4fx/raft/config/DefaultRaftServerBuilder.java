@@ -29,21 +29,47 @@ import org.agrona.IoUtil;
 import org.agrona.concurrent.BackoffIdleStrategy;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.dev4fx.raft.mmap.api.FileSizeEnsurer;
+import org.dev4fx.raft.counters.CountingPublisher;
+import org.dev4fx.raft.counters.MappedServerCounters;
+import org.dev4fx.raft.counters.ServerCounters;
+import org.dev4fx.raft.journal.EventJournal;
+import org.dev4fx.raft.journal.JournalingMessageHandler;
+import org.dev4fx.raft.journal.JournalingPublisher;
+import org.dev4fx.raft.latency.EntryLatencyRecorder;
+import org.dev4fx.raft.latency.HistogramEntryLatencyRecorder;
+import org.dev4fx.raft.latency.LatencyHistogramReporter;
+import org.dev4fx.raft.log.api.DurabilityPolicy;
+import org.dev4fx.raft.log.api.LogDurability;
 import org.dev4fx.raft.log.api.PersistentState;
+import org.dev4fx.raft.log.impl.AsyncLogDurability;
 import org.dev4fx.raft.log.impl.DefaultPersistentState;
+import org.dev4fx.raft.log.impl.DurablePublisher;
+import org.dev4fx.raft.log.impl.LogFlusher;
+import org.dev4fx.raft.log.impl.SyncLogDurability;
+import org.dev4fx.raft.mmap.impl.FileChannelRegionCache;
 import org.dev4fx.raft.mmap.impl.MappedFile;
 import org.dev4fx.raft.mmap.api.RegionFactory;
 import org.dev4fx.raft.mmap.impl.RegionRingAccessor;
+import org.dev4fx.raft.mmap.impl.WholeFileRegionAccessor;
+import org.dev4fx.raft.mmap.api.RegionAccessor;
 import org.dev4fx.raft.mmap.api.RegionRingFactory;
+import org.dev4fx.raft.process.AdaptiveIdleStrategy;
+import org.dev4fx.raft.process.CpuAffinity;
+import org.dev4fx.raft.process.DutyCycleProfiler;
 import org.dev4fx.raft.process.IdleStrategy;
+import org.dev4fx.raft.process.MutableProcessStepChain;
 import org.dev4fx.raft.process.Process;
+import org.dev4fx.raft.process.ProcessScheduler;
 import org.dev4fx.raft.process.ProcessStep;
 import org.dev4fx.raft.process.Service;
 import org.dev4fx.raft.sbe.*;
 import org.dev4fx.raft.state.*;
+import org.dev4fx.raft.timer.CachedClock;
 import org.dev4fx.raft.timer.Clock;
 import org.dev4fx.raft.timer.DefaultTimer;
+import org.dev4fx.raft.timer.ScheduledStepQueue;
 import org.dev4fx.raft.timer.Timer;
+import org.dev4fx.raft.timer.TimerWheel;
 import org.dev4fx.raft.transport.LoggingPublisher;
 import org.dev4fx.raft.transport.Poller;
 import org.dev4fx.raft.transport.PollerFactory;
@@ -55,9 +81,11 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.*;
 import java.util.stream.IntStream;
 
@@ -71,6 +99,12 @@ public class DefaultRaftServerBuilder implements RaftServerBuilder {
     private static final RegionRingFactory DEFAULT_REGION_RING_FACTORY = RegionRingFactory.forSync(RegionFactory.SYNC);
     private static final IntFunction<? extends StateMachine> DEFAULT_STATE_MACHINE_FACTORY = serverId -> new LoggingStateMachine(serverId, new StringBuilder());
     private static final long MAX_FILE_SIZE = 64 * 16 * 1024 * 1024;
+    private static final int WHOLE_FILE_MAPPING_CHUNK_SIZE = 64 * 1024 * 1024;
+    private static final int DEFAULT_JOURNAL_CAPACITY = 16 * 1024 * 1024;
+    private static final int LATENCY_TRACKED_ENTRIES = 64 * 1024;
+    private static final long LATENCY_HIGHEST_TRACKABLE_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long LOG_FLUSHER_MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+    private static final long LOG_FLUSHER_MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
 
     private final PollerFactory commandPollerFactory;
     private final IntFunction<? extends PollerFactory> serverToPollerFactory;
@@ -79,9 +113,9 @@ public class DefaultRaftServerBuilder implements RaftServerBuilder {
     private IntFunction<? extends StateMachine> stateMachineFactory;
     private IntConsumer onLeaderTransitionHandler = serverId -> {};
     private IntConsumer onFollowerTransitionHandler = serverId -> {};
-    private int minElectionTimeoutMillis = 1100;
-    private int maxElectionTimeoutMillis = 1500;
-    private int heartbeatTimeoutMillis = 1000;
+    private long minElectionTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(1100);
+    private long maxElectionTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(1500);
+    private long heartbeatTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(1000);
     private int maxMessagesPollable = 1;
     private int maxCommandsPollable = 1;
     private int maxPromotionBatchSize = 1;
@@ -94,6 +128,8 @@ public class DefaultRaftServerBuilder implements RaftServerBuilder {
     private int payloadRegionSize = DEFAULT_REGION_SIZE;
     private int encoderBufferSize = 8024;
     private Clock clock = Clock.DEFAULT;
+    private long timerWheelTickResolutionNanos = 0;
+    private int timerWheelTicksPerWheel = 0;
     private IntFunction<? extends IdleStrategy> idleStrategyFactory;
     private BiConsumer<? super String, ? super Exception> exceptionHandler;
     private long gracefulShutdownTimeout = 10;
@@ -101,6 +137,18 @@ public class DefaultRaftServerBuilder implements RaftServerBuilder {
     private IntFunction<? extends ProcessStep> applicationProcessStepFactory;
     private boolean logInMessages = false;
     private boolean logOutMessages = false;
+    private boolean journalMessages = false;
+    private int journalCapacity = DEFAULT_JOURNAL_CAPACITY;
+    private boolean counters = false;
+    private long latencyReportIntervalNanos = 0;
+    private long dutyCycleStallThresholdNanos = 0;
+    private ProcessScheduler processScheduler;
+    private IntFunction<String> serverToCpuSet;
+    private ObjIntConsumer<? super ScheduledStepQueue> scheduledStepsHandler;
+    private DurabilityPolicy durabilityPolicy = DurabilityPolicy.NONE;
+    private long periodicFlushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(10);
+    private boolean wholeFileMapping = false;
+    private boolean fileChannelIo = false;
 
     public DefaultRaftServerBuilder(final Aeron aeron,
                                     final String commandChannel,
@@ -150,19 +198,38 @@ public class DefaultRaftServerBuilder implements RaftServerBuilder {
 
     @Override
     public RaftServerBuilder minElectionTimeoutMillis(final int minElectionTimeoutMillis) {
-        this.minElectionTimeoutMillis = minElectionTimeoutMillis;
+        this.minElectionTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(minElectionTimeoutMillis);
         return this;
     }
 
     @Override
     public RaftServerBuilder maxElectionTimeoutMillis(final int maxElectionTimeoutMillis) {
-        this.maxElectionTimeoutMillis = maxElectionTimeoutMillis;
+        this.maxElectionTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(maxElectionTimeoutMillis);
         return this;
     }
 
     @Override
     public RaftServerBuilder heartbeatTimeoutMillis(final int heartbeatTimeoutMillis) {
-        this.heartbeatTimeoutMillis = heartbeatTimeoutMillis;
+        this.heartbeatTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatTimeoutMillis);
+        return this;
+    }
+
+    @Override
+    public RaftServerBuilder electionTimeout(final long minElectionTimeout, final long maxElectionTimeout, final TimeUnit timeUnit) {
+        if (minElectionTimeout <= 0 || maxElectionTimeout < minElectionTimeout) {
+            throw new IllegalArgumentException("Invalid election timeout range [" + minElectionTimeout + ".." + maxElectionTimeout + "]");
+        }
+        this.minElectionTimeoutNanos = timeUnit.toNanos(minElectionTimeout);
+        this.maxElectionTimeoutNanos = timeUnit.toNanos(maxElectionTimeout);
+        return this;
+    }
+
+    @Override
+    public RaftServerBuilder heartbeatTimeout(final long heartbeatTimeout, final TimeUnit timeUnit) {
+        if (heartbeatTimeout <= 0) {
+            throw new IllegalArgumentException("Invalid heartbeat timeout " + heartbeatTimeout);
+        }
+        this.heartbeatTimeoutNanos = timeUnit.toNanos(heartbeatTimeout);
         return this;
     }
 
@@ -238,6 +305,20 @@ public class DefaultRaftServerBuilder implements RaftServerBuilder {
         return this;
     }
 
+    @Override
+    public RaftServerBuilder timerWheel(final long tickResolution, final TimeUnit timeUnit, final int ticksPerWheel) {
+        final long tickResolutionNanos = timeUnit.toNanos(tickResolution);
+        if (tickResolutionNanos <= 0 || tickResolutionNanos > TimerWheel.MAX_TICK_RESOLUTION_NANOS) {
+            throw new IllegalArgumentException("Invalid tick resolution " + tickResolutionNanos + " nanoseconds");
+        }
+        if (!BitUtil.isPowerOfTwo(ticksPerWheel)) {
+            throw new IllegalArgumentException("Ticks per wheel must be a power of two but was " + ticksPerWheel);
+        }
+        this.timerWheelTickResolutionNanos = tickResolutionNanos;
+        this.timerWheelTicksPerWheel = ticksPerWheel;
+        return this;
+    }
+
     @Override
     public RaftServerBuilder idleStrategyFactory(final IntFunction<? extends IdleStrategy> idleStrategyFactory) {
         this.idleStrategyFactory = Objects.requireNonNull(idleStrategyFactory);
@@ -275,6 +356,81 @@ public class DefaultRaftServerBuilder implements RaftServerBuilder {
         return this;
     }
 
+    @Override
+    public RaftServerBuilder journalMessages(final boolean journalMessages) {
+        this.journalMessages = journalMessages;
+        return this;
+    }
+
+    @Override
+    public RaftServerBuilder journalCapacity(final int journalCapacity) {
+        this.journalCapacity = journalCapacity;
+        return this;
+    }
+
+    @Override
+    public RaftServerBuilder counters(final boolean counters) {
+        this.counters = counters;
+        return this;
+    }
+
+    @Override
+    public RaftServerBuilder latencyHistograms(final long reportInterval, final TimeUnit timeUnit) {
+        this.latencyReportIntervalNanos = timeUnit.toNanos(reportInterval);
+        return this;
+    }
+
+    @Override
+    public RaftServerBuilder profileDutyCycle(final long stallThreshold, final TimeUnit timeUnit) {
+        this.dutyCycleStallThresholdNanos = timeUnit.toNanos(stallThreshold);
+        return this;
+    }
+
+    @Override
+    public RaftServerBuilder processScheduler(final ProcessScheduler processScheduler) {
+        this.processScheduler = Objects.requireNonNull(processScheduler);
+        return this;
+    }
+
+    @Override
+    public RaftServerBuilder cpuAffinity(final IntFunction<String> serverToCpuSet) {
+        this.serverToCpuSet = Objects.requireNonNull(serverToCpuSet);
+        return this;
+    }
+
+    @Override
+    public RaftServerBuilder scheduledStepsHandler(final ObjIntConsumer<? super ScheduledStepQueue> scheduledStepsHandler) {
+        this.scheduledStepsHandler = Objects.requireNonNull(scheduledStepsHandler);
+        return this;
+    }
+
+    @Override
+    public RaftServerBuilder durabilityPolicy(final DurabilityPolicy durabilityPolicy) {
+        this.durabilityPolicy = Objects.requireNonNull(durabilityPolicy);
+        return this;
+    }
+
+    @Override
+    public RaftServerBuilder periodicFlushInterval(final long flushInterval, final TimeUnit timeUnit) {
+        if (flushInterval <= 0) {
+            throw new IllegalArgumentException("Invalid periodic flush interval " + flushInterval);
+        }
+        this.periodicFlushIntervalNanos = timeUnit.toNanos(flushInterval);
+        return this;
+    }
+
+    @Override
+    public RaftServerBuilder wholeFileMapping(final boolean wholeFileMapping) {
+        this.wholeFileMapping = wholeFileMapping;
+        return this;
+    }
+
+    @Override
+    public RaftServerBuilder fileChannelIo(final boolean fileChannelIo) {
+        this.fileChannelIo = fileChannelIo;
+        return this;
+    }
+
     @Override
     public Service.Start build(final String logDirectory, final int serverId, final int clusterSize) throws IOException {
         Objects.requireNonNull(logDirectory);
@@ -282,6 +438,17 @@ public class DefaultRaftServerBuilder implements RaftServerBuilder {
         if (serverId < 0 || serverId >= clusterSize) {
             throw new IllegalArgumentException("Invalid serverId. Must be value [0..clusterSize)");
         }
+        if (serverToCpuSet != null && processScheduler != null) {
+            throw new IllegalArgumentException("CPU affinity cannot be applied to a process run by a process scheduler");
+        }
+        if (serverToCpuSet != null && !CpuAffinity.isSupported()) {
+            throw new IllegalStateException("CPU affinity requires /proc/thread-self and taskset which are not available");
+        }
+        if (wholeFileMapping && fileChannelIo) {
+            throw new IllegalArgumentException("Whole file mapping cannot be combined with file channel io");
+        }
+        final String processName = "Server" + serverId;
+        final CpuAffinity cpuAffinity = serverToCpuSet != null ? CpuAffinity.of(serverToCpuSet.apply(serverId)) : null;
         final Logger outLogger = LoggerFactory.getLogger("OUT");
         final Logger inLogger = LoggerFactory.getLogger("IN");
         final MessageHeaderEncoder messageHeaderEncoder = new MessageHeaderEncoder();
@@ -301,8 +468,20 @@ public class DefaultRaftServerBuilder implements RaftServerBuilder {
         final ByteBuffer encoderByteBuffer = ByteBuffer.allocateDirect(encoderBufferSize);
         final UnsafeBuffer encoderBuffer = new UnsafeBuffer(encoderByteBuffer);
 
+        final File directoryFile = new File(logDirectory);
+        IoUtil.ensureDirectoryExists(directoryFile, "raft log directory");
+
+        final EventJournal eventJournal = journalMessages
+                ? new EventJournal(new File(logDirectory, "journal" + serverId), journalCapacity, clock)
+                : null;
+
+        final MappedServerCounters mappedServerCounters = counters
+                ? new MappedServerCounters(new File(logDirectory, "counters" + serverId), serverId, clusterSize)
+                : null;
+        final ServerCounters serverCounters = mappedServerCounters != null ? mappedServerCounters : ServerCounters.NO_OP;
+
         final Publisher publisher = applyLoggingIfRequired(
-                serverToPublisherFactory.apply(serverId),
+                applyJournalIfRequired(applyCountersIfRequired(serverToPublisherFactory.apply(serverId), mappedServerCounters), eventJournal),
                 outLogger,
                 messageHeaderDecoder,
                 voteRequestDecoder,
@@ -313,8 +492,6 @@ public class DefaultRaftServerBuilder implements RaftServerBuilder {
 
         final int regionSizeGranularity = (int) MappedFile.REGION_SIZE_GRANULARITY;
 
-        final File directoryFile = new File(logDirectory);
-        IoUtil.ensureDirectoryExists(directoryFile, "raft log directory");
         final File headerFile = new File(logDirectory, "logHeader" + serverId);
         final File indexFile = new File(logDirectory, "logIndex" + serverId);
         final File payloadFile = new File(logDirectory, "logPayload" + serverId);
@@ -334,62 +511,103 @@ public class DefaultRaftServerBuilder implements RaftServerBuilder {
                 payloadRegionSize, (file, mode) -> {});
 
 
-        final RegionRingAccessor headerRegionRingAccessor = new RegionRingAccessor(
-                regionRingFactory.create(
-                        regionRingSize,
-                        headerRegionSize,
-                        headerMappedFile::getFileChannel,
-                        FileSizeEnsurer.forWritableFile(headerMappedFile::getFileLength, headerMappedFile::setFileLength, MAX_FILE_SIZE),
-                        headerMappedFile.getMode().getMapMode()),
-                headerRegionSize,
-                0,
-                headerMappedFile::close);
-
-        final RegionRingAccessor indexRegionRingAccessor = new RegionRingAccessor(
-                regionRingFactory.create(
-                        regionRingSize,
-                        indexRegionSize,
-                        indexMappedFile::getFileChannel,
-                        FileSizeEnsurer.forWritableFile(indexMappedFile::getFileLength, indexMappedFile::setFileLength, MAX_FILE_SIZE),
-                        indexMappedFile.getMode().getMapMode()),
-                indexRegionSize,
-                indexRegionsToMapAhead,
-                indexMappedFile::close);
-
-        final RegionRingAccessor payloadRegionRingAccessor = new RegionRingAccessor(
-                regionRingFactory.create(
-                        regionRingSize,
-                        payloadRegionSize,
-                        payloadMappedFile::getFileChannel,
-                        FileSizeEnsurer.forWritableFile(payloadMappedFile::getFileLength, payloadMappedFile::setFileLength, MAX_FILE_SIZE),
-                        indexMappedFile.getMode().getMapMode()),
-                payloadRegionSize,
-                payloadRegionsToMapAhead,
-                payloadMappedFile::close);
+        final FileChannelRegionCache headerRegionCache = newRegionCache(headerMappedFile, headerRegionSize);
+        final FileChannelRegionCache indexRegionCache = newRegionCache(indexMappedFile, indexRegionSize);
+        final FileChannelRegionCache payloadRegionCache = newRegionCache(payloadMappedFile, payloadRegionSize);
+
+        final RegionAccessor headerRegionAccessor = newRegionAccessor(headerMappedFile, headerRegionSize, 0, headerRegionSize,
+                headerRegionSize, headerRegionCache);
+        final RegionAccessor indexRegionAccessor = newRegionAccessor(indexMappedFile, indexRegionSize, indexRegionsToMapAhead,
+                Integer.max(indexRegionSize, WHOLE_FILE_MAPPING_CHUNK_SIZE), MAX_FILE_SIZE, indexRegionCache);
+        final RegionAccessor payloadRegionAccessor = newRegionAccessor(payloadMappedFile, payloadRegionSize, payloadRegionsToMapAhead,
+                Integer.max(payloadRegionSize, WHOLE_FILE_MAPPING_CHUNK_SIZE), MAX_FILE_SIZE, payloadRegionCache);
 
         regionRingFactory.onComplete();
 
-        final Supplier<Timer> heartbeatTimerFactory = () -> new DefaultTimer(clock, heartbeatTimeoutMillis, heartbeatTimeoutMillis);
+        final CachedClock cachedClock = new CachedClock(clock);
+        final TimerWheel timerWheel = timerWheelTickResolutionNanos > 0
+                ? new TimerWheel(cachedClock, timerWheelTickResolutionNanos, TimeUnit.NANOSECONDS, timerWheelTicksPerWheel)
+                : null;
+        final ScheduledStepQueue scheduledStepQueue = new ScheduledStepQueue(cachedClock);
+        final Supplier<Timer> heartbeatTimerFactory = () -> newTimer(cachedClock, timerWheel, heartbeatTimeoutNanos, heartbeatTimeoutNanos);
+
+        final HistogramEntryLatencyRecorder histogramEntryLatencyRecorder = latencyReportIntervalNanos > 0
+                ? new HistogramEntryLatencyRecorder(clock, clusterSize, LATENCY_TRACKED_ENTRIES, LATENCY_HIGHEST_TRACKABLE_NANOS)
+                : null;
+        final EntryLatencyRecorder entryLatencyRecorder = histogramEntryLatencyRecorder != null
+                ? histogramEntryLatencyRecorder : EntryLatencyRecorder.NO_OP;
+
+        final PersistentState persistentState = new DefaultPersistentState(indexRegionAccessor, payloadRegionAccessor, headerRegionAccessor);
+
+        final Runnable logWriteBack = fileChannelIo
+                ? () -> {
+                    headerRegionCache.writeBack();
+                    indexRegionCache.writeBack();
+                    payloadRegionCache.writeBack();
+                }
+                : () -> {};
+        final LogFlusher logFlusher = new LogFlusher(logWriteBack, Arrays.asList(
+                headerMappedFile::getFileChannel, indexMappedFile::getFileChannel, payloadMappedFile::getFileChannel));
+        final LogDurability logDurability;
+        final ProcessStep logFlusherStep;
+        final AdaptiveIdleStrategy logFlusherIdleStrategy;
+        switch (durabilityPolicy) {
+            case NONE:
+                logDurability = LogDurability.NONE;
+                //file channel io buffers the log in the process, so it is written back to the file periodically
+                logFlusherStep = fileChannelIo ? fixedRateStep(logWriteBack, periodicFlushIntervalNanos) : null;
+                logFlusherIdleStrategy = fileChannelIo ? newLogFlusherIdleStrategy() : null;
+                break;
+            case PER_ENTRY:
+                logDurability = new SyncLogDurability(logFlusher);
+                logFlusherStep = null;
+                logFlusherIdleStrategy = null;
+                break;
+            case GROUP:
+                final MutableProcessStepChain logFlusherSteps = new MutableProcessStepChain();
+                logFlusherIdleStrategy = newLogFlusherIdleStrategy();
+                logDurability = new AsyncLogDurability(logFlusher, processor -> logFlusherSteps.thenStep(processor::process),
+                        logFlusherIdleStrategy::reset);
+                logFlusherStep = logFlusherSteps.getOrNoop();
+                break;
+            case PERIODIC:
+                logDurability = LogDurability.NONE;
+                logFlusherStep = fixedRateStep(logFlusher::force, periodicFlushIntervalNanos);
+                logFlusherIdleStrategy = newLogFlusherIdleStrategy();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown durability policy " + durabilityPolicy);
+        }
+        final Service.Start logFlusherProcess = logFlusherStep != null
+                ? new Process("LogFlusher" + serverId, () -> {}, () -> {}, logFlusherIdleStrategy, exceptionHandler,
+                        gracefulShutdownTimeout, gracefulShutdownTimeunit, logFlusherStep)
+                : null;
+        final AtomicReference<Service.Stop> logFlusherStop = new AtomicReference<>();
+        final boolean forceLogOnStop = durabilityPolicy != DurabilityPolicy.NONE;
+        final DurablePublisher durablePublisher = logDurability != LogDurability.NONE
+                ? new DurablePublisher(publisher, persistentState, logDurability)
+                : null;
+        final Publisher responsePublisher = durablePublisher != null ? durablePublisher : publisher;
 
-        final PersistentState persistentState = new DefaultPersistentState(indexRegionRingAccessor, payloadRegionRingAccessor, headerRegionRingAccessor);
         final VolatileState volatileState = new DefaultVolatileState();
         final Peers peers = new DefaultPeers(serverId, clusterSize, peerId -> new DefaultPeer(peerId, heartbeatTimerFactory.get()));
 
-        final Timer electionTimer = new DefaultTimer(clock, minElectionTimeoutMillis, maxElectionTimeoutMillis);
+        final Timer electionTimer = newTimer(cachedClock, timerWheel, minElectionTimeoutNanos, maxElectionTimeoutNanos);
 
         final AppendRequestHandler appendRequestHandler = new AppendRequestHandler(persistentState,
                 volatileState,
                 electionTimer, messageHeaderEncoder,
                 appendResponseEncoder,
                 encoderBuffer,
-                publisher,
-                serverId);
+                responsePublisher,
+                serverId,
+                serverCounters);
 
         final VoteRequestHandler voteRequestHandler = new VoteRequestHandler(persistentState,
                 electionTimer, messageHeaderEncoder,
                 voteResponseEncoder,
                 encoderBuffer,
-                publisher,
+                responsePublisher,
                 serverId);
 
         final Predicate<HeaderDecoder> destinationFilter = DestinationFilter.forServer(serverId);
@@ -403,7 +621,7 @@ public class DefaultRaftServerBuilder implements RaftServerBuilder {
                                         voteRequestHandler,
                                         electionTimer,
                                         onFollowerTransitionHandler),
-                                persistentState, inLogger),
+                                persistentState, inLogger, serverCounters),
                         inLogger
                 ));
 
@@ -418,8 +636,9 @@ public class DefaultRaftServerBuilder implements RaftServerBuilder {
                                         messageHeaderEncoder,
                                         voteRequestEncoder,
                                         encoderBuffer,
-                                        publisher),
-                                persistentState, inLogger),
+                                        responsePublisher,
+                                        serverCounters),
+                                persistentState, inLogger, serverCounters),
                         inLogger
                 ));
 
@@ -436,8 +655,11 @@ public class DefaultRaftServerBuilder implements RaftServerBuilder {
                                         commandDecoderBuffer,
                                         publisher,
                                         onLeaderTransitionHandler,
-                                        maxAppendBatchSize),
-                                persistentState, inLogger),
+                                        maxAppendBatchSize,
+                                        serverCounters,
+                                        entryLatencyRecorder,
+                                        logDurability),
+                                persistentState, inLogger, serverCounters),
                         inLogger
                 ));
 
@@ -449,42 +671,164 @@ public class DefaultRaftServerBuilder implements RaftServerBuilder {
                 candidateServerState,
                 leaderServerState,
                 followerServerState,
-                followerServerState);
+                followerServerState,
+                serverCounters);
+
+        final MessageHandler inboundMessageHandler = eventJournal != null
+                ? new JournalingMessageHandler(serverMessageHandler, eventJournal)
+                : serverMessageHandler;
 
-        final List<ProcessStep> processSteps = new ArrayList<>(clusterSize - 1 + 3);
+        final List<ProcessStep> processSteps = new ArrayList<>(clusterSize - 1 + 6);
+        final List<String> processStepNames = new ArrayList<>(clusterSize - 1 + 6);
+
+        processSteps.add(cachedClock);
+        processStepNames.add("clock");
+        if (timerWheel != null) {
+            processSteps.add(timerWheel);
+            processStepNames.add("timerWheel");
+        }
+        processSteps.add(scheduledStepQueue);
+        processStepNames.add("scheduledSteps");
 
         IntStream.range(0, clusterSize)
                 .filter(destinationId -> destinationId != serverId)
                 .forEach(destinationId -> {
                     final Poller destinationPoller = serverToPollerFactory.apply(destinationId)
-                            .create(serverMessageHandler, maxMessagesPollable);
+                            .create(inboundMessageHandler, maxMessagesPollable);
                     processSteps.add(destinationPoller::poll);
+                    processStepNames.add("serverPoller" + destinationId);
                 });
 
         final MessageHandler commandMessageHandler = new CommandMessageHandler(stateMachineFactory.apply(serverId));
 
-        final Poller commandPoller = commandPollerFactory.create(serverMessageHandler, maxCommandsPollable);
+        final Poller commandPoller = commandPollerFactory.create(inboundMessageHandler, maxCommandsPollable);
         processSteps.add(commandPoller::poll);
+        processStepNames.add("commandPoller");
         processSteps.add(serverMessageHandler);
-        processSteps.add(new CommittedLogPromoter(persistentState, volatileState, commandMessageHandler, commandDecoderBuffer, maxPromotionBatchSize));
+        processStepNames.add("serverMessageHandler");
+        if (durablePublisher != null) {
+            processSteps.add(durablePublisher);
+            processStepNames.add("durablePublisher");
+        }
+        processSteps.add(new CommittedLogPromoter(persistentState, volatileState, commandMessageHandler, commandDecoderBuffer, maxPromotionBatchSize, serverCounters, entryLatencyRecorder));
+        processStepNames.add("committedLogPromoter");
+        if (histogramEntryLatencyRecorder != null) {
+            scheduledStepQueue.fixedRate(
+                    new LatencyHistogramReporter(histogramEntryLatencyRecorder, LoggerFactory.getLogger("LATENCY")),
+                    latencyReportIntervalNanos, latencyReportIntervalNanos, TimeUnit.NANOSECONDS);
+        }
+        if (scheduledStepsHandler != null) {
+            scheduledStepsHandler.accept(scheduledStepQueue, serverId);
+        }
         if (applicationProcessStepFactory != null) {
             processSteps.add(applicationProcessStepFactory.apply(serverId));
+            processStepNames.add("application");
         }
 
-        final Runnable onProcessStart = serverMessageHandler::init;
-        final Runnable onProcessStop = persistentState::close;
-
-        return new Process("Server" + serverId,
+        final Runnable onServerStart = () -> {
+            cachedClock.update();
+            serverCounters.currentTerm(persistentState.currentTerm());
+            serverMessageHandler.init();
+            if (logFlusherProcess != null) {
+                logFlusherStop.set(logFlusherProcess.start());
+            }
+        };
+        final Runnable onProcessStop = () -> {
+            final Service.Stop logFlusherStopper = logFlusherStop.get();
+            if (logFlusherStopper != null) {
+                logFlusherStopper.stop();
+            }
+            if (forceLogOnStop) {
+                logFlusher.force();
+            }
+            persistentState.close();
+            if (eventJournal != null) {
+                eventJournal.close();
+            }
+            if (mappedServerCounters != null) {
+                mappedServerCounters.close();
+            }
+        };
+
+        final Runnable onProcessStart = cpuAffinity != null ? cpuAffinity.bindOnStart(processName, onServerStart) : onServerStart;
+        final DutyCycleProfiler dutyCycleProfiler = dutyCycleStallThresholdNanos > 0
+                ? new DutyCycleProfiler(processName, processStepNames, dutyCycleStallThresholdNanos, TimeUnit.NANOSECONDS)
+                : null;
+
+        return new Process(processName,
                 onProcessStart,
                 onProcessStop,
                 idleStrategyFactory.apply(serverId),
                 exceptionHandler,
                 gracefulShutdownTimeout,
                 gracefulShutdownTimeunit,
+                dutyCycleProfiler,
+                processScheduler,
                 processSteps.toArray(new ProcessStep[processSteps.size()])
         );
     }
 
+    private ProcessStep fixedRateStep(final Runnable action, final long periodNanos) {
+        final ScheduledStepQueue schedule = new ScheduledStepQueue(clock);
+        schedule.fixedRate(() -> {
+            action.run();
+            return true;
+        }, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+        return schedule;
+    }
+
+    private FileChannelRegionCache newRegionCache(final MappedFile mappedFile, final int regionSize) {
+        return fileChannelIo ? new FileChannelRegionCache(mappedFile::getFileChannel, regionSize, regionRingSize) : null;
+    }
+
+    private RegionAccessor newRegionAccessor(final MappedFile mappedFile,
+                                             final int regionSize,
+                                             final int regionsToMapAhead,
+                                             final int wholeFileMappingChunkSize,
+                                             final long maxFileSize,
+                                             final FileChannelRegionCache regionCache) {
+        final FileSizeEnsurer fileSizeEnsurer = FileSizeEnsurer.forWritableFile(mappedFile::getFileLength, mappedFile::setFileLength, maxFileSize);
+        if (wholeFileMapping) {
+            return new WholeFileRegionAccessor(
+                    mappedFile::getFileChannel,
+                    fileSizeEnsurer,
+                    mappedFile.getMode().getMapMode(),
+                    wholeFileMappingChunkSize,
+                    maxFileSize,
+                    mappedFile::close);
+        }
+        final RegionRingFactory regionRingFactory = regionCache != null
+                ? RegionRingFactory.forFileChannel(regionCache)
+                : this.regionRingFactory;
+        return new RegionRingAccessor(
+                regionRingFactory.create(
+                        regionRingSize,
+                        regionSize,
+                        mappedFile::getFileChannel,
+                        fileSizeEnsurer,
+                        mappedFile.getMode().getMapMode()),
+                regionSize,
+                regionsToMapAhead,
+                mappedFile::close);
+    }
+
+    private static Timer newTimer(final Clock clock, final TimerWheel timerWheel, final long minTimeoutNanos, final long maxTimeoutNanos) {
+        return timerWheel != null ? timerWheel.newTimer(minTimeoutNanos, maxTimeoutNanos, TimeUnit.NANOSECONDS)
+                                  : new DefaultTimer(clock, minTimeoutNanos, maxTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static AdaptiveIdleStrategy newLogFlusherIdleStrategy() {
+        return new AdaptiveIdleStrategy(100, 100, LOG_FLUSHER_MIN_PARK_NANOS, LOG_FLUSHER_MAX_PARK_NANOS);
+    }
+
+    private static Publisher applyJournalIfRequired(final Publisher publisher, final EventJournal eventJournal) {
+        return eventJournal != null ? new JournalingPublisher(publisher, eventJournal) : publisher;
+    }
+
+    private static Publisher applyCountersIfRequired(final Publisher publisher, final ServerCounters serverCounters) {
+        return serverCounters != null ? new CountingPublisher(publisher, serverCounters) : publisher;
+    }
+
     private ServerState applyLoggingIfRequired(final ServerState serverState, final Logger logger) {
         return logInMessages ? new LoggingServerState(serverState, new StringBuilder(), logger) : serverState;
     }
@@ -24,20 +24,27 @@
 package org.dev4fx.raft.config;
 
 import io.aeron.Aeron;
+import org.dev4fx.raft.log.api.DurabilityPolicy;
 import org.dev4fx.raft.mmap.api.RegionRingFactory;
 import org.dev4fx.raft.process.IdleStrategy;
+import org.dev4fx.raft.process.ProcessScheduler;
 import org.dev4fx.raft.process.ProcessStep;
 import org.dev4fx.raft.process.Service;
 import org.dev4fx.raft.state.StateMachine;
 import org.dev4fx.raft.timer.Clock;
+import org.dev4fx.raft.timer.ScheduledStepQueue;
+import org.dev4fx.raft.transport.InProcessChannel;
+import org.dev4fx.raft.transport.MappedQueueTransport;
 import org.dev4fx.raft.transport.PollerFactory;
 import org.dev4fx.raft.transport.Publisher;
 
 import java.io.IOException;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.IntConsumer;
 import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
 
 public interface RaftServerBuilder {
     RaftServerBuilder stateMachineFactory(final IntFunction<? extends StateMachine> stateMachineHandler);
@@ -46,6 +53,8 @@ public interface RaftServerBuilder {
     RaftServerBuilder minElectionTimeoutMillis(final int minElectionTimeoutMillis);
     RaftServerBuilder maxElectionTimeoutMillis(final int maxElectionTimeoutMillis);
     RaftServerBuilder heartbeatTimeoutMillis(final int heartbeatTimeoutMillis);
+    RaftServerBuilder electionTimeout(final long minElectionTimeout, final long maxElectionTimeout, final TimeUnit timeUnit);
+    RaftServerBuilder heartbeatTimeout(final long heartbeatTimeout, final TimeUnit timeUnit);
     RaftServerBuilder maxMessagesPollable(final int maxMessagesPollable);
     RaftServerBuilder maxCommandsPollable(final int maxCommandsPollable);
     RaftServerBuilder maxPromotionBatchSize(final int maxPromotionBatchSize);
@@ -57,13 +66,35 @@ public interface RaftServerBuilder {
     RaftServerBuilder indexRegionSize(final int indexRegionSize);
     RaftServerBuilder payloadRegionSize(final int payloadRegionSize);
     RaftServerBuilder encoderBufferSize(final int encoderBufferSize);
+    /**
+     * Sets the clock for timeouts, latency histograms and journal timestamps; defaults to {@link Clock#DEFAULT}
+     * with millisecond precision. Use {@link Clock#NANO} for sub-millisecond timeouts and nanosecond latencies.
+     */
     RaftServerBuilder clock(final Clock clock);
+    RaftServerBuilder timerWheel(final long tickResolution, final TimeUnit timeUnit, final int ticksPerWheel);
     RaftServerBuilder idleStrategyFactory(final IntFunction<? extends IdleStrategy> idleStrategyFactory);
     RaftServerBuilder exceptionHandler(final BiConsumer<? super String, ? super Exception> exceptionHandler);
     RaftServerBuilder gracefulShutdownTimeout(final long gracefulShutdownTimeout, final TimeUnit gracefulShutdownTimeunit);
     RaftServerBuilder applicationProcessStepFactory(IntFunction<? extends ProcessStep> processStepFactory);
     RaftServerBuilder logInMessages(boolean logInMessages);
     RaftServerBuilder logOutMessages(boolean logOutMessages);
+    RaftServerBuilder journalMessages(boolean journalMessages);
+    RaftServerBuilder journalCapacity(int journalCapacity);
+    RaftServerBuilder counters(boolean counters);
+    RaftServerBuilder latencyHistograms(long reportInterval, TimeUnit timeUnit);
+    RaftServerBuilder profileDutyCycle(long stallThreshold, TimeUnit timeUnit);
+    RaftServerBuilder processScheduler(ProcessScheduler processScheduler);
+    RaftServerBuilder cpuAffinity(IntFunction<String> serverToCpuSet);
+    RaftServerBuilder scheduledStepsHandler(ObjIntConsumer<? super ScheduledStepQueue> scheduledStepsHandler);
+    RaftServerBuilder durabilityPolicy(DurabilityPolicy durabilityPolicy);
+    RaftServerBuilder periodicFlushInterval(long flushInterval, TimeUnit timeUnit);
+    RaftServerBuilder wholeFileMapping(boolean wholeFileMapping);
+    /**
+     * Reads and writes the log files with positional file channel io through off-heap region buffers instead of
+     * mapping them. Buffered log content is written to the files before each force of the durability policy, and
+     * with {@link DurabilityPolicy#NONE} every {@link #periodicFlushInterval(long, TimeUnit) periodic flush interval}.
+     */
+    RaftServerBuilder fileChannelIo(boolean fileChannelIo);
 
     Service.Start build(String logDirectory, int serverId, int clusterSize) throws IOException;
 
@@ -77,4 +108,23 @@ public interface RaftServerBuilder {
                                                 final IntFunction<? extends Publisher> serverToPublisherFactory) {
         return new DefaultRaftServerBuilder(commandPollerFactory, serverToPollerFactory, serverToPublisherFactory);
     }
+
+    static RaftServerBuilder forInProcessTransport(final InProcessChannel commandChannel,
+                                                   final IntFunction<? extends InProcessChannel> serverToChannel) {
+        Objects.requireNonNull(commandChannel);
+        Objects.requireNonNull(serverToChannel);
+        return new DefaultRaftServerBuilder(
+                PollerFactory.inProcessPollerFactory(commandChannel),
+                serverId -> PollerFactory.inProcessPollerFactory(serverToChannel.apply(serverId)),
+                serverId -> Publisher.inProcessPublisher(serverToChannel.apply(serverId)));
+    }
+
+    static RaftServerBuilder forMappedQueueTransport(final MappedQueueTransport transport,
+                                                     final String... commandQueueNames) {
+        Objects.requireNonNull(transport);
+        return new DefaultRaftServerBuilder(
+                transport.pollerFactory(commandQueueNames),
+                transport.serverToPollerFactory(),
+                transport.serverToPublisher());
+    }
 }
@@ -0,0 +1,161 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.counters;
+
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.agrona.concurrent.status.CountersManager;
+import org.agrona.concurrent.status.CountersReader;
+import org.dev4fx.raft.state.Role;
+
+import java.io.Closeable;
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.util.Objects;
+
+/**
+ * {@link ServerCounters} stored as Agrona {@link AtomicCounter}s in a memory-mapped file, so that they can be
+ * read by another process using {@link #mapForReading(File)} without touching the server thread.
+ * The file contains the counters metadata followed by the counter values, with no further header.
+ */
+public final class MappedServerCounters implements ServerCounters, Closeable {
+    private static final int SERVER_COUNTERS = 8;
+
+    private final MappedByteBuffer mappedByteBuffer;
+    private final AtomicCounter role;
+    private final AtomicCounter currentTerm;
+    private final AtomicCounter commitIndex;
+    private final AtomicCounter lastApplied;
+    private final AtomicCounter electionsStarted;
+    private final AtomicCounter appendRequestsSent;
+    private final AtomicCounter appendRequestsRejected;
+    private final AtomicCounter publisherBackPressure;
+    private final AtomicCounter[] peerMatchIndexLag;
+
+    public MappedServerCounters(final File file, final int serverId, final int clusterSize) {
+        Objects.requireNonNull(file);
+        final int counters = SERVER_COUNTERS + clusterSize - 1;
+        final int metaDataLength = counters * CountersReader.METADATA_LENGTH;
+        final int valuesLength = counters * CountersReader.COUNTER_LENGTH;
+        IoUtil.deleteIfExists(file);
+        this.mappedByteBuffer = IoUtil.mapNewFile(file, metaDataLength + valuesLength);
+        final CountersManager countersManager = new CountersManager(
+                new UnsafeBuffer(mappedByteBuffer, 0, metaDataLength),
+                new UnsafeBuffer(mappedByteBuffer, metaDataLength, valuesLength));
+
+        final String prefix = "server" + serverId + " ";
+        this.role = countersManager.newCounter(prefix + "role");
+        this.currentTerm = countersManager.newCounter(prefix + "currentTerm");
+        this.commitIndex = countersManager.newCounter(prefix + "commitIndex");
+        this.lastApplied = countersManager.newCounter(prefix + "lastApplied");
+        this.electionsStarted = countersManager.newCounter(prefix + "electionsStarted");
+        this.appendRequestsSent = countersManager.newCounter(prefix + "appendRequestsSent");
+        this.appendRequestsRejected = countersManager.newCounter(prefix + "appendRequestsRejected");
+        this.publisherBackPressure = countersManager.newCounter(prefix + "publisherBackPressure");
+        this.peerMatchIndexLag = new AtomicCounter[clusterSize];
+        for (int peerId = 0; peerId < clusterSize; peerId++) {
+            if (peerId != serverId) {
+                peerMatchIndexLag[peerId] = countersManager.newCounter(prefix + "peer" + peerId + " matchIndexLag");
+            }
+        }
+        commitIndex.setOrdered(-1);
+        lastApplied.setOrdered(-1);
+    }
+
+    /**
+     * Maps an existing counters file for reading, for instance from a monitoring process.
+     * The mapping is released when the returned reader is garbage collected.
+     */
+    public static CountersReader mapForReading(final File file) {
+        final MappedByteBuffer mappedByteBuffer = IoUtil.mapExistingFile(file, "server counters");
+        final int counters = mappedByteBuffer.capacity() / (CountersReader.METADATA_LENGTH + CountersReader.COUNTER_LENGTH);
+        final int metaDataLength = counters * CountersReader.METADATA_LENGTH;
+        return new CountersReader(
+                new UnsafeBuffer(mappedByteBuffer, 0, metaDataLength),
+                new UnsafeBuffer(mappedByteBuffer, metaDataLength, counters * CountersReader.COUNTER_LENGTH));
+    }
+
+    public static void main(final String... args) {
+        if (args.length == 0) {
+            System.err.println("Usage: " + MappedServerCounters.class.getName() + " countersFile...");
+            System.exit(1);
+        }
+        for (final String fileName : args) {
+            final CountersReader countersReader = mapForReading(new File(fileName));
+            countersReader.forEach((counterId, label) ->
+                    System.out.println(label + " = " + countersReader.getCounterValue(counterId)));
+        }
+    }
+
+    @Override
+    public void role(final Role role) {
+        this.role.setOrdered(role.ordinal());
+    }
+
+    @Override
+    public void currentTerm(final int currentTerm) {
+        this.currentTerm.setOrdered(currentTerm);
+    }
+
+    @Override
+    public void commitIndex(final long commitIndex) {
+        this.commitIndex.setOrdered(commitIndex);
+    }
+
+    @Override
+    public void lastApplied(final long lastApplied) {
+        this.lastApplied.setOrdered(lastApplied);
+    }
+
+    @Override
+    public void peerMatchIndexLag(final int peerId, final long lag) {
+        peerMatchIndexLag[peerId].setOrdered(lag);
+    }
+
+    @Override
+    public void electionStarted() {
+        electionsStarted.incrementOrdered();
+    }
+
+    @Override
+    public void appendRequestSent() {
+        appendRequestsSent.incrementOrdered();
+    }
+
+    @Override
+    public void appendRequestRejected() {
+        appendRequestsRejected.incrementOrdered();
+    }
+
+    @Override
+    public void publisherBackPressure() {
+        publisherBackPressure.incrementOrdered();
+    }
+
+    @Override
+    public void close() {
+        IoUtil.unmap(mappedByteBuffer);
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.counters;
+
+import org.dev4fx.raft.state.Role;
+
+/**
+ * Hot-path counters and gauges of a server. Implementations must not allocate.
+ */
+public interface ServerCounters {
+    void role(Role role);
+    void currentTerm(int currentTerm);
+    void commitIndex(long commitIndex);
+    void lastApplied(long lastApplied);
+    void peerMatchIndexLag(int peerId, long lag);
+    void electionStarted();
+    void appendRequestSent();
+    void appendRequestRejected();
+    void publisherBackPressure();
+
+    ServerCounters NO_OP = new ServerCounters() {
+        @Override
+        public void role(final Role role) {}
+
+        @Override
+        public void currentTerm(final int currentTerm) {}
+
+        @Override
+        public void commitIndex(final long commitIndex) {}
+
+        @Override
+        public void lastApplied(final long lastApplied) {}
+
+        @Override
+        public void peerMatchIndexLag(final int peerId, final long lag) {}
+
+        @Override
+        public void electionStarted() {}
+
+        @Override
+        public void appendRequestSent() {}
+
+        @Override
+        public void appendRequestRejected() {}
+
+        @Override
+        public void publisherBackPressure() {}
+    };
+}
@@ -0,0 +1,180 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.journal;
+
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.dev4fx.raft.mmap.api.FileSizeEnsurer;
+import org.dev4fx.raft.mmap.api.Region;
+import org.dev4fx.raft.mmap.api.RegionFactory;
+import org.dev4fx.raft.mmap.impl.MappedFile;
+import org.dev4fx.raft.timer.Clock;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Binary journal of raw messages with nanosecond timestamps, written to a memory-mapped ring file.
+ * Writing copies the message bytes and does not allocate; when the ring is full the oldest events are
+ * overwritten. The journal is single-threaded and meant to be written from the thread of the server loop.
+ * Use {@link EventJournalReader} or {@link EventJournalPrinter} to read a journal file offline.
+ * <p>
+ * The file consists of the data ring of size capacity followed by a header region:
+ * <pre>
+ *     [data: capacity bytes][header: REGION_SIZE_GRANULARITY bytes]
+ *     header: capacity(8), writePosition(8), oldestPosition(8), startEpochMillis(8), startNanoTime(8)
+ *     event:  recordedLength(4), messageLength(4), timestamp(8), type(4), reserved(4), bytes(recordedLength)
+ * </pre>
+ * Events are aligned to {@link #EVENT_ALIGNMENT} bytes and never wrap around the end of the ring; the remaining
+ * bytes at the end are filled with a padding event, or skipped if shorter than an event header.
+ */
+public final class EventJournal implements Closeable {
+    static final int CAPACITY_OFFSET = 0;
+    static final int WRITE_POSITION_OFFSET = 8;
+    static final int OLDEST_POSITION_OFFSET = 16;
+    static final int START_EPOCH_MILLIS_OFFSET = 24;
+    static final int START_NANO_TIME_OFFSET = 32;
+
+    static final int RECORDED_LENGTH_OFFSET = 0;
+    static final int MESSAGE_LENGTH_OFFSET = 4;
+    static final int TIMESTAMP_OFFSET = 8;
+    static final int TYPE_OFFSET = 16;
+    static final int EVENT_HEADER_LENGTH = 24;
+    static final int EVENT_ALIGNMENT = 8;
+
+    private final Clock clock;
+    private final int capacity;
+    private final int mask;
+    private final int maxRecordedLength;
+    private final MappedFile mappedFile;
+    private final Region dataRegion;
+    private final Region headerRegion;
+    private final UnsafeBuffer data = new UnsafeBuffer(0, 0);
+    private final UnsafeBuffer header = new UnsafeBuffer(0, 0);
+
+    private long writePosition;
+    private long oldestPosition;
+
+    /**
+     * Creates a journal file, renaming an existing file of the same name to name.prev first.
+     *
+     * @param file      the journal file
+     * @param capacity  the ring capacity in bytes, a power of two and a multiple of the region size granularity
+     * @param clock     the clock providing timestamps
+     * @throws IOException if the file cannot be created
+     */
+    public EventJournal(final File file, final int capacity, final Clock clock) throws IOException {
+        if (!BitUtil.isPowerOfTwo(capacity) || capacity < MappedFile.REGION_SIZE_GRANULARITY) {
+            throw new IllegalArgumentException("Capacity must be a power of two and at least " +
+                    MappedFile.REGION_SIZE_GRANULARITY + " but was " + capacity);
+        }
+        this.clock = Objects.requireNonNull(clock);
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.maxRecordedLength = (capacity >> 2) - EVENT_HEADER_LENGTH;
+
+        if (file.exists()) {
+            final File previousFile = new File(file.getPath() + ".prev");
+            if (previousFile.exists() && !previousFile.delete() || !file.renameTo(previousFile)) {
+                throw new IOException("Could not roll existing journal " + file + " to " + previousFile);
+            }
+        }
+        final int headerLength = (int) MappedFile.REGION_SIZE_GRANULARITY;
+        this.mappedFile = new MappedFile(file, MappedFile.Mode.READ_WRITE_CLEAR, capacity);
+        final FileSizeEnsurer fileSizeEnsurer = FileSizeEnsurer.forWritableFile(mappedFile::getFileLength,
+                mappedFile::setFileLength, capacity + headerLength);
+        this.dataRegion = RegionFactory.SYNC.create(capacity, mappedFile::getFileChannel, fileSizeEnsurer,
+                mappedFile.getMode().getMapMode());
+        this.headerRegion = RegionFactory.SYNC.create(headerLength, mappedFile::getFileChannel, fileSizeEnsurer,
+                mappedFile.getMode().getMapMode());
+        dataRegion.wrap(0, data);
+        headerRegion.wrap(capacity, header);
+
+        header.putLong(CAPACITY_OFFSET, capacity);
+        header.putLong(START_EPOCH_MILLIS_OFFSET, clock.currentTimeMillis());
+        header.putLong(START_NANO_TIME_OFFSET, clock.nanoTime());
+        header.putLongOrdered(OLDEST_POSITION_OFFSET, 0);
+        header.putLongOrdered(WRITE_POSITION_OFFSET, 0);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Writes an event with the current time of the clock. Messages longer than a quarter of the capacity
+     * are truncated; the original message length is recorded with the event.
+     */
+    public void write(final EventType type, final DirectBuffer buffer, final int offset, final int length) {
+        final int recordedLength = Math.min(length, maxRecordedLength);
+        final int eventLength = BitUtil.align(EVENT_HEADER_LENGTH + recordedLength, EVENT_ALIGNMENT);
+
+        int index = (int) (writePosition & mask);
+        final int remaining = capacity - index;
+        if (remaining < eventLength) {
+            releaseUpTo(writePosition + remaining);
+            if (remaining >= EVENT_HEADER_LENGTH) {
+                data.putInt(index + RECORDED_LENGTH_OFFSET, remaining - EVENT_HEADER_LENGTH);
+                data.putInt(index + MESSAGE_LENGTH_OFFSET, 0);
+                data.putLong(index + TIMESTAMP_OFFSET, 0);
+                data.putInt(index + TYPE_OFFSET, EventType.PADDING.code());
+            }
+            writePosition += remaining;
+            index = 0;
+        }
+        releaseUpTo(writePosition + eventLength);
+
+        data.putInt(index + RECORDED_LENGTH_OFFSET, recordedLength);
+        data.putInt(index + MESSAGE_LENGTH_OFFSET, length);
+        data.putLong(index + TIMESTAMP_OFFSET, clock.nanoTime());
+        data.putInt(index + TYPE_OFFSET, type.code());
+        data.putBytes(index + EVENT_HEADER_LENGTH, buffer, offset, recordedLength);
+
+        writePosition += eventLength;
+        header.putLongOrdered(WRITE_POSITION_OFFSET, writePosition);
+    }
+
+    private void releaseUpTo(final long endPosition) {
+        if (endPosition - oldestPosition <= capacity) {
+            return;
+        }
+        do {
+            final int index = (int) (oldestPosition & mask);
+            final int remaining = capacity - index;
+            oldestPosition += remaining < EVENT_HEADER_LENGTH ? remaining
+                    : BitUtil.align(EVENT_HEADER_LENGTH + data.getInt(index + RECORDED_LENGTH_OFFSET), EVENT_ALIGNMENT);
+        } while (endPosition - oldestPosition > capacity);
+        header.putLongOrdered(OLDEST_POSITION_OFFSET, oldestPosition);
+    }
+
+    @Override
+    public void close() {
+        dataRegion.close();
+        headerRegion.close();
+        mappedFile.close();
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.journal;
+
+import org.agrona.DirectBuffer;
+import org.dev4fx.raft.sbe.*;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Offline tool rendering the events of a journal file as text, one line per event.
+ * <pre>
+ *     java org.dev4fx.raft.journal.EventJournalPrinter journalFile...
+ * </pre>
+ */
+public class EventJournalPrinter implements EventJournalReader.EventHandler {
+    private final PrintStream out;
+    private final StringBuilder stringBuilder = new StringBuilder();
+    private final MessageHeaderDecoder messageHeaderDecoder = new MessageHeaderDecoder();
+    private final VoteRequestDecoder voteRequestDecoder = new VoteRequestDecoder();
+    private final VoteResponseDecoder voteResponseDecoder = new VoteResponseDecoder();
+    private final AppendRequestDecoder appendRequestDecoder = new AppendRequestDecoder();
+    private final AppendResponseDecoder appendResponseDecoder = new AppendResponseDecoder();
+    private final CommandRequestDecoder commandRequestDecoder = new CommandRequestDecoder();
+
+    public EventJournalPrinter(final PrintStream out) {
+        this.out = Objects.requireNonNull(out);
+    }
+
+    public static void main(final String... args) {
+        if (args.length == 0) {
+            System.err.println("Usage: " + EventJournalPrinter.class.getName() + " journalFile...");
+            System.exit(1);
+        }
+        final EventJournalPrinter printer = new EventJournalPrinter(System.out);
+        for (final String fileName : args) {
+            try (final EventJournalReader reader = new EventJournalReader(new File(fileName))) {
+                reader.forEach(printer);
+            }
+        }
+    }
+
+    @Override
+    public void onEvent(final EventType type, final long epochNanos, final DirectBuffer buffer, final int offset,
+                        final int length, final int messageLength) {
+        stringBuilder.setLength(0);
+        stringBuilder.append(Instant.ofEpochSecond(0, epochNanos)).append(' ').append(type).append(' ');
+        if (length < messageLength) {
+            stringBuilder.append("[truncated ").append(length).append('/').append(messageLength).append("] ");
+        }
+        try {
+            appendMessage(buffer, offset);
+        } catch (final RuntimeException e) {
+            stringBuilder.append("[undecodable: ").append(e).append(']');
+        }
+        out.println(stringBuilder);
+    }
+
+    private void appendMessage(final DirectBuffer buffer, final int offset) {
+        messageHeaderDecoder.wrap(buffer, offset);
+        final int templateId = messageHeaderDecoder.templateId();
+        final int headerLength = messageHeaderDecoder.encodedLength();
+        switch (templateId) {
+            case VoteRequestDecoder.TEMPLATE_ID :
+                voteRequestDecoder.wrap(buffer, headerLength + offset,
+                        VoteRequestDecoder.BLOCK_LENGTH,
+                        VoteRequestDecoder.SCHEMA_VERSION);
+                voteRequestDecoder.appendTo(stringBuilder);
+                break;
+            case VoteResponseDecoder.TEMPLATE_ID :
+                voteResponseDecoder.wrap(buffer, headerLength + offset,
+                        VoteResponseDecoder.BLOCK_LENGTH,
+                        VoteResponseDecoder.SCHEMA_VERSION);
+                voteResponseDecoder.appendTo(stringBuilder);
+                break;
+            case AppendRequestDecoder.TEMPLATE_ID :
+                appendRequestDecoder.wrap(buffer, headerLength + offset,
+                        AppendRequestDecoder.BLOCK_LENGTH,
+                        AppendRequestDecoder.SCHEMA_VERSION);
+                appendRequestDecoder.appendTo(stringBuilder);
+                break;
+            case AppendResponseDecoder.TEMPLATE_ID :
+                appendResponseDecoder.wrap(buffer, headerLength + offset,
+                        AppendResponseDecoder.BLOCK_LENGTH,
+                        AppendResponseDecoder.SCHEMA_VERSION);
+                appendResponseDecoder.appendTo(stringBuilder);
+                break;
+            case CommandRequestDecoder.TEMPLATE_ID :
+                commandRequestDecoder.wrap(buffer, headerLength + offset,
+                        CommandRequestDecoder.BLOCK_LENGTH,
+                        CommandRequestDecoder.SCHEMA_VERSION);
+                commandRequestDecoder.appendTo(stringBuilder);
+                break;
+            default:
+                stringBuilder.append("[unknown templateId ").append(templateId).append(']');
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.journal;
+
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.dev4fx.raft.mmap.impl.MappedFile;
+
+import java.io.Closeable;
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static org.dev4fx.raft.journal.EventJournal.*;
+
+/**
+ * Reads the events of a journal file written by {@link EventJournal}, from the oldest to the latest event.
+ */
+public final class EventJournalReader implements Closeable {
+    @FunctionalInterface
+    public interface EventHandler {
+        /**
+         * Invoked for every event of the journal.
+         *
+         * @param type          the event type
+         * @param epochNanos    the event time in nanoseconds since the epoch
+         * @param buffer        the buffer with the recorded message bytes
+         * @param offset        the offset of the message in buffer
+         * @param length        the number of recorded bytes
+         * @param messageLength the original message length, greater than length if the message was truncated
+         */
+        void onEvent(EventType type, long epochNanos, DirectBuffer buffer, int offset, int length, int messageLength);
+    }
+
+    private final MappedByteBuffer mappedByteBuffer;
+    private final UnsafeBuffer data;
+    private final int capacity;
+    private final long startEpochNanos;
+    private final long startNanoTime;
+    private final long oldestPosition;
+    private final long writePosition;
+
+    public EventJournalReader(final File file) {
+        this.mappedByteBuffer = IoUtil.mapExistingFile(Objects.requireNonNull(file), "event journal");
+        final UnsafeBuffer fileBuffer = new UnsafeBuffer(mappedByteBuffer);
+        this.capacity = (int) (fileBuffer.capacity() - MappedFile.REGION_SIZE_GRANULARITY);
+        if (capacity <= 0 || fileBuffer.getLong(capacity + CAPACITY_OFFSET) != capacity) {
+            throw new IllegalArgumentException("Invalid journal file " + file);
+        }
+        this.data = new UnsafeBuffer(fileBuffer, 0, capacity);
+        this.startEpochNanos = TimeUnit.MILLISECONDS.toNanos(fileBuffer.getLong(capacity + START_EPOCH_MILLIS_OFFSET));
+        this.startNanoTime = fileBuffer.getLong(capacity + START_NANO_TIME_OFFSET);
+        this.writePosition = fileBuffer.getLongVolatile(capacity + WRITE_POSITION_OFFSET);
+        this.oldestPosition = fileBuffer.getLongVolatile(capacity + OLDEST_POSITION_OFFSET);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Passes all events to the handler.
+     * @return the number of events read
+     */
+    public int forEach(final EventHandler eventHandler) {
+        final int mask = capacity - 1;
+        int count = 0;
+        long position = oldestPosition;
+        while (position < writePosition) {
+            final int index = (int) (position & mask);
+            final int remaining = capacity - index;
+            if (remaining < EVENT_HEADER_LENGTH) {
+                position += remaining;
+                continue;
+            }
+            final int recordedLength = data.getInt(index + RECORDED_LENGTH_OFFSET);
+            final EventType type = EventType.forCode(data.getInt(index + TYPE_OFFSET));
+            if (type != EventType.PADDING) {
+                final long epochNanos = startEpochNanos + data.getLong(index + TIMESTAMP_OFFSET) - startNanoTime;
+                eventHandler.onEvent(type, epochNanos, data, index + EVENT_HEADER_LENGTH, recordedLength,
+                        data.getInt(index + MESSAGE_LENGTH_OFFSET));
+                count++;
+            }
+            position += BitUtil.align(EVENT_HEADER_LENGTH + recordedLength, EVENT_ALIGNMENT);
+        }
+        return count;
+    }
+
+    @Override
+    public void close() {
+        IoUtil.unmap(mappedByteBuffer);
+    }
+}
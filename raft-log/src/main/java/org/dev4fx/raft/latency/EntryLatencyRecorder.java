@@ -0,0 +1,53 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.latency;
+
+/**
+ * Receives the log index progress of the leader so that the time spent by an entry in each stage of the
+ * append, replicate, commit and apply pipeline can be measured.
+ */
+public interface EntryLatencyRecorder {
+    void onLeadershipAcquired();
+    void onAppended(long index);
+    void onPeerAck(int peerId, long matchIndex);
+    void onCommitted(long commitIndex);
+    void onApplied(long lastApplied);
+
+    EntryLatencyRecorder NO_OP = new EntryLatencyRecorder() {
+        @Override
+        public void onLeadershipAcquired() {}
+
+        @Override
+        public void onAppended(final long index) {}
+
+        @Override
+        public void onPeerAck(final int peerId, final long matchIndex) {}
+
+        @Override
+        public void onCommitted(final long commitIndex) {}
+
+        @Override
+        public void onApplied(final long lastApplied) {}
+    };
+}
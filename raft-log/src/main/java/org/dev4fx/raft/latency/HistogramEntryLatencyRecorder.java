@@ -0,0 +1,161 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.latency;
+
+import org.HdrHistogram.Histogram;
+import org.agrona.BitUtil;
+import org.dev4fx.raft.timer.Clock;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Records append, commit and apply timestamps of the most recent log entries in a ring of preallocated slots
+ * and feeds the elapsed time of each stage into a histogram per {@link LatencyStage}. Entries that have been
+ * overwritten in the ring before reaching a stage, or that were not appended by this recorder during the current
+ * leadership, are ignored; acquiring leadership forgets the entries and acknowledgements of earlier terms.
+ * <p>
+ * Not thread safe, the recorder and the histograms are expected to be accessed from the server process thread.
+ */
+public final class HistogramEntryLatencyRecorder implements EntryLatencyRecorder {
+    private static final long NULL_INDEX = -1;
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final LatencyStage[] STAGES = LatencyStage.values();
+
+    private final Clock clock;
+    private final int mask;
+    private final long[] indices;
+    private final long[] appendNanos;
+    private final long[] commitNanos;
+    private final long[] peerAckIndices;
+    private final Histogram[] histograms;
+    private long committedIndex = NULL_INDEX;
+    private long appliedIndex = NULL_INDEX;
+
+    public HistogramEntryLatencyRecorder(final Clock clock,
+                                         final int clusterSize,
+                                         final int trackedEntries,
+                                         final long highestTrackableNanos) {
+        if (!BitUtil.isPowerOfTwo(trackedEntries)) {
+            throw new IllegalArgumentException("trackedEntries must be a power of two: " + trackedEntries);
+        }
+        this.clock = Objects.requireNonNull(clock);
+        this.mask = trackedEntries - 1;
+        this.indices = new long[trackedEntries];
+        this.appendNanos = new long[trackedEntries];
+        this.commitNanos = new long[trackedEntries];
+        this.peerAckIndices = new long[clusterSize];
+        this.histograms = new Histogram[STAGES.length];
+        Arrays.fill(indices, NULL_INDEX);
+        Arrays.fill(peerAckIndices, NULL_INDEX);
+        for (final LatencyStage stage : STAGES) {
+            histograms[stage.ordinal()] = new Histogram(highestTrackableNanos, SIGNIFICANT_DIGITS);
+        }
+    }
+
+    @Override
+    public void onLeadershipAcquired() {
+        Arrays.fill(indices, NULL_INDEX);
+        Arrays.fill(peerAckIndices, NULL_INDEX);
+        committedIndex = NULL_INDEX;
+    }
+
+    @Override
+    public void onAppended(final long index) {
+        final int slot = slot(index);
+        indices[slot] = index;
+        appendNanos[slot] = clock.nanoTime();
+        commitNanos[slot] = 0;
+    }
+
+    @Override
+    public void onPeerAck(final int peerId, final long matchIndex) {
+        final long ackIndex = peerAckIndices[peerId];
+        if (matchIndex > ackIndex) {
+            final long nanoTime = clock.nanoTime();
+            for (long index = firstIndex(ackIndex, matchIndex); index <= matchIndex; index++) {
+                final int slot = slot(index);
+                if (indices[slot] == index) {
+                    record(LatencyStage.APPEND_TO_PEER_ACK, nanoTime - appendNanos[slot]);
+                }
+            }
+            peerAckIndices[peerId] = matchIndex;
+        }
+    }
+
+    @Override
+    public void onCommitted(final long commitIndex) {
+        if (commitIndex > committedIndex) {
+            final long nanoTime = clock.nanoTime();
+            for (long index = firstIndex(committedIndex, commitIndex); index <= commitIndex; index++) {
+                final int slot = slot(index);
+                if (indices[slot] == index) {
+                    commitNanos[slot] = nanoTime;
+                    record(LatencyStage.APPEND_TO_COMMIT, nanoTime - appendNanos[slot]);
+                }
+            }
+            committedIndex = commitIndex;
+        }
+    }
+
+    @Override
+    public void onApplied(final long lastApplied) {
+        if (lastApplied > appliedIndex) {
+            final long nanoTime = clock.nanoTime();
+            for (long index = firstIndex(appliedIndex, lastApplied); index <= lastApplied; index++) {
+                final int slot = slot(index);
+                if (indices[slot] == index) {
+                    if (commitNanos[slot] != 0) {
+                        record(LatencyStage.COMMIT_TO_APPLY, nanoTime - commitNanos[slot]);
+                    }
+                    record(LatencyStage.APPEND_TO_APPLY, nanoTime - appendNanos[slot]);
+                }
+            }
+            appliedIndex = lastApplied;
+        }
+    }
+
+    public Histogram histogram(final LatencyStage stage) {
+        return histograms[stage.ordinal()];
+    }
+
+    public void resetHistograms() {
+        for (final Histogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    private int slot(final long index) {
+        return (int) (index & mask);
+    }
+
+    private long firstIndex(final long lastProcessedIndex, final long index) {
+        return Long.max(lastProcessedIndex + 1, index - mask);
+    }
+
+    private void record(final LatencyStage stage, final long nanos) {
+        final Histogram histogram = histograms[stage.ordinal()];
+        histogram.recordValue(Long.min(Long.max(nanos, 0), histogram.getHighestTrackableValue()));
+    }
+}
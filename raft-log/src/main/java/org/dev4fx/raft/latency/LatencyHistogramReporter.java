@@ -0,0 +1,65 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.latency;
+
+import org.HdrHistogram.Histogram;
+import org.dev4fx.raft.process.ProcessStep;
+import org.slf4j.Logger;
+
+import java.util.Objects;
+
+/**
+ * Process step logging the stage histograms of a {@link HistogramEntryLatencyRecorder} in microseconds and
+ * resetting them afterwards, so that every report covers a single interval when scheduled at a fixed rate,
+ * see {@link org.dev4fx.raft.timer.ScheduledStepQueue#fixedRate(ProcessStep, long, long, java.util.concurrent.TimeUnit)}.
+ */
+public final class LatencyHistogramReporter implements ProcessStep {
+    private static final double NANOS_PER_MICRO = 1000.0;
+
+    private final HistogramEntryLatencyRecorder recorder;
+    private final Logger logger;
+
+    public LatencyHistogramReporter(final HistogramEntryLatencyRecorder recorder, final Logger logger) {
+        this.recorder = Objects.requireNonNull(recorder);
+        this.logger = Objects.requireNonNull(logger);
+    }
+
+    @Override
+    public boolean execute() {
+        for (final LatencyStage stage : LatencyStage.values()) {
+            final Histogram histogram = recorder.histogram(stage);
+            if (histogram.getTotalCount() > 0) {
+                logger.info("{} count={} p50={}us p99={}us p99.9={}us max={}us",
+                        stage,
+                        histogram.getTotalCount(),
+                        histogram.getValueAtPercentile(50) / NANOS_PER_MICRO,
+                        histogram.getValueAtPercentile(99) / NANOS_PER_MICRO,
+                        histogram.getValueAtPercentile(99.9) / NANOS_PER_MICRO,
+                        histogram.getMaxValue() / NANOS_PER_MICRO);
+            }
+        }
+        recorder.resetHistograms();
+        return true;
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.log.api;
+
+/**
+ * Defines when the raft log is forced to the storage device and whether responses wait for it.
+ */
+public enum DurabilityPolicy {
+    /**
+     * The log is never forced explicitly, flushing of dirty pages is left to the operating system.
+     */
+    NONE,
+    /**
+     * The log is forced by the server thread whenever a modification needs to be durable, before the
+     * corresponding response is sent.
+     */
+    PER_ENTRY,
+    /**
+     * The log is forced by a background flusher which batches all modifications made since its last force
+     * into one; responses are held back until the modifications they acknowledge are durable.
+     */
+    GROUP,
+    /**
+     * The log is forced by a background flusher at a fixed interval; responses are not held back, hence
+     * modifications acknowledged within the last interval may be lost on power failure.
+     */
+    PERIODIC
+}
@@ -0,0 +1,62 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.log.api;
+
+/**
+ * Tracks which modifications of the {@link PersistentState} have been forced to the storage device.
+ */
+public interface LogDurability {
+    /**
+     * Requests the given modifications to be made durable.
+     *
+     * @param modificationCount the {@link PersistentState#modificationCount()} to be made durable
+     * @param size the {@link PersistentState#size()} at the given modification count
+     */
+    void requestDurable(long modificationCount, long size);
+
+    /**
+     * @return the modification count up to which all modifications are durable
+     */
+    long durableModificationCount();
+
+    /**
+     * @return the log size up to which all entries are durable
+     */
+    long durableSize();
+
+    LogDurability NONE = new LogDurability() {
+        @Override
+        public void requestDurable(final long modificationCount, final long size) {}
+
+        @Override
+        public long durableModificationCount() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public long durableSize() {
+            return Long.MAX_VALUE;
+        }
+    };
+}
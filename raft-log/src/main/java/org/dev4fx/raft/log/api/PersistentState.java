@@ -52,6 +52,12 @@ public interface PersistentState extends Closeable {
 
     void truncate(long index);
 
+    /**
+     * @return count of modifications applied to this state so far, incremented by every append, truncate,
+     *         current term and voted for update; used to track which modifications have been made durable
+     */
+    long modificationCount();
+
     int votedFor();
 
     void votedFor(int serverId);
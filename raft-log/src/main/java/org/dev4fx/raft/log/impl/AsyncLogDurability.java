@@ -0,0 +1,94 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.log.impl;
+
+import org.dev4fx.raft.log.api.LogDurability;
+import org.dev4fx.raft.mmap.api.Flusher;
+import org.dev4fx.raft.mmap.api.Processor;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Log durability forcing the log in a background {@link Flusher} whose processor is registered with the given
+ * processor consumer, for instance a dedicated flusher process or the region mapper process. Modification counts
+ * serve as flusher positions: the server thread only requests a flush up to the modification count, the flusher
+ * forces all modifications requested since its last run at once and then publishes the new durable position,
+ * hence many appends share a single force.
+ * <p>
+ * {@link #requestDurable(long, long)} must be invoked by a single thread.
+ */
+public final class AsyncLogDurability implements LogDurability {
+    private final LogFlusher logFlusher;
+    private final Flusher flusher;
+
+    private final AtomicLong requestedSize = new AtomicLong();
+    private final AtomicLong durableSize = new AtomicLong();
+
+    private long lastRequestedModificationCount;
+
+    public AsyncLogDurability(final LogFlusher logFlusher, final Consumer<Processor> processorConsumer) {
+        this(logFlusher, processorConsumer, () -> {});
+    }
+
+    /**
+     * @param logFlusher the flusher forcing the log files
+     * @param processorConsumer consumer registering the processor performing the flushes
+     * @param flushSignal invoked after a new request has been published, for instance to wake up the flusher
+     *                    process idle strategy
+     */
+    public AsyncLogDurability(final LogFlusher logFlusher,
+                              final Consumer<Processor> processorConsumer,
+                              final Runnable flushSignal) {
+        this.logFlusher = Objects.requireNonNull(logFlusher);
+        this.flusher = Flusher.forAsync(this::force, processorConsumer, flushSignal);
+    }
+
+    @Override
+    public void requestDurable(final long modificationCount, final long size) {
+        if (modificationCount > lastRequestedModificationCount) {
+            lastRequestedModificationCount = modificationCount;
+            requestedSize.lazySet(size);
+            flusher.requestFlush(modificationCount);
+        }
+    }
+
+    @Override
+    public long durableModificationCount() {
+        return flusher.durablePosition();
+    }
+
+    @Override
+    public long durableSize() {
+        return durableSize.get();
+    }
+
+    private void force() {
+        //size may belong to a later request which is fine as its entries are written before it is published
+        final long size = requestedSize.get();
+        logFlusher.force();
+        durableSize.lazySet(size);
+    }
+}
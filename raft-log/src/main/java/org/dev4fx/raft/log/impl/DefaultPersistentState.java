@@ -57,6 +57,7 @@ public class DefaultPersistentState implements PersistentState {
     private final UnsafeBuffer payloadBuffer;
 
     private long payloadNextAppendPosition;
+    private long modificationCount;
 
     public DefaultPersistentState(final RegionAccessor indexAccessor,
                                   final RegionAccessor payloadAccessor,
@@ -111,6 +112,7 @@ public class DefaultPersistentState implements PersistentState {
             indexPayloadLength(length);
             size(size() + 1);
             incrementPayloadNextAppendPosition(length);
+            modificationCount++;
         } else {
             throw new IllegalStateException("Failed to wrap payload buffer for position " + payloadNextAppendPosition);
         }
@@ -133,6 +135,7 @@ public class DefaultPersistentState implements PersistentState {
     @Override
     public void currentTerm(final int term) {
         headerBuffer.putInt(CURRENT_TERM_OFFSET, term);
+        modificationCount++;
     }
 
     @Override
@@ -143,6 +146,7 @@ public class DefaultPersistentState implements PersistentState {
     @Override
     public void votedFor(final int serverId) {
         headerBuffer.putInt(VOTED_FOR_OFFSET, serverId);
+        modificationCount++;
     }
 
 
@@ -213,11 +217,17 @@ public class DefaultPersistentState implements PersistentState {
         if (size >= 0 && size <= currentSize) {
             size(size);
             resetPayloadNextAppendPosition();
+            modificationCount++;
         } else {
             throw new IllegalArgumentException("Size [" + size + "] must be positive and <= current size " + currentSize);
         }
     }
 
+    @Override
+    public long modificationCount() {
+        return modificationCount;
+    }
+
     @Override
     public void close() {
         payloadAccessor.close();
@@ -0,0 +1,117 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.log.impl;
+
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.dev4fx.raft.log.api.LogDurability;
+import org.dev4fx.raft.log.api.PersistentState;
+import org.dev4fx.raft.process.ProcessStep;
+import org.dev4fx.raft.transport.Publisher;
+
+import java.util.Objects;
+
+/**
+ * Publisher holding back messages until all modifications of the persistent state made before publishing
+ * them are durable. Held back messages are queued in publishing order and released by {@link #execute()}
+ * which has to be added as a step to the server process.
+ */
+public final class DurablePublisher implements Publisher, ProcessStep {
+    private static final int MODIFICATION_COUNT_OFFSET = 0;
+    private static final int LENGTH_OFFSET = MODIFICATION_COUNT_OFFSET + 8;
+    private static final int HEADER_LENGTH = LENGTH_OFFSET + 8;
+    private static final int DEFAULT_INITIAL_CAPACITY = 64 * 1024;
+
+    private final Publisher delegate;
+    private final PersistentState persistentState;
+    private final LogDurability logDurability;
+    private final ExpandableArrayBuffer pending;
+
+    private int pendingHead;
+    private int pendingTail;
+
+    public DurablePublisher(final Publisher delegate,
+                            final PersistentState persistentState,
+                            final LogDurability logDurability) {
+        this(delegate, persistentState, logDurability, DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public DurablePublisher(final Publisher delegate,
+                            final PersistentState persistentState,
+                            final LogDurability logDurability,
+                            final int initialCapacity) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.persistentState = Objects.requireNonNull(persistentState);
+        this.logDurability = Objects.requireNonNull(logDurability);
+        this.pending = new ExpandableArrayBuffer(initialCapacity);
+    }
+
+    @Override
+    public boolean publish(final DirectBuffer buffer, final int offset, final int length) {
+        final long modificationCount = persistentState.modificationCount();
+        if (logDurability.durableModificationCount() < modificationCount) {
+            logDurability.requestDurable(modificationCount, persistentState.size());
+        }
+        if (pendingHead == pendingTail && logDurability.durableModificationCount() >= modificationCount) {
+            return delegate.publish(buffer, offset, length);
+        }
+        pending.putLong(pendingTail + MODIFICATION_COUNT_OFFSET, modificationCount);
+        pending.putInt(pendingTail + LENGTH_OFFSET, length);
+        pending.putBytes(pendingTail + HEADER_LENGTH, buffer, offset, length);
+        pendingTail += BitUtil.align(HEADER_LENGTH + length, 8);
+        return true;
+    }
+
+    @Override
+    public boolean execute() {
+        if (pendingHead == pendingTail) {
+            return false;
+        }
+        final long durableModificationCount = logDurability.durableModificationCount();
+        boolean workDone = false;
+        while (pendingHead < pendingTail && pending.getLong(pendingHead + MODIFICATION_COUNT_OFFSET) <= durableModificationCount) {
+            final int length = pending.getInt(pendingHead + LENGTH_OFFSET);
+            if (!delegate.publish(pending, pendingHead + HEADER_LENGTH, length)) {
+                break;
+            }
+            pendingHead += BitUtil.align(HEADER_LENGTH + length, 8);
+            workDone = true;
+        }
+        if (pendingHead == pendingTail) {
+            pendingHead = 0;
+            pendingTail = 0;
+        } else if (pendingHead >= (pending.capacity() >> 1)) {
+            final int pendingLength = pendingTail - pendingHead;
+            pending.putBytes(0, pending, pendingHead, pendingLength);
+            pendingHead = 0;
+            pendingTail = pendingLength;
+        }
+        return workDone;
+    }
+
+    public int pendingBytes() {
+        return pendingTail - pendingHead;
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.log.impl;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Forces the content of the raft log files to the storage device. Forcing the file channel also writes out
+ * dirty pages of memory mapped regions of the same file; content buffered elsewhere, for instance in a
+ * {@link org.dev4fx.raft.mmap.impl.FileChannelRegionCache}, has to be written to the files by the writeBack
+ * action which is run before the files are forced.
+ */
+public final class LogFlusher {
+    private final Runnable writeBack;
+    private final List<Supplier<? extends FileChannel>> fileChannelSuppliers;
+
+    public LogFlusher(final List<? extends Supplier<? extends FileChannel>> fileChannelSuppliers) {
+        this(() -> {}, fileChannelSuppliers);
+    }
+
+    public LogFlusher(final Runnable writeBack, final List<? extends Supplier<? extends FileChannel>> fileChannelSuppliers) {
+        this.writeBack = Objects.requireNonNull(writeBack);
+        if (fileChannelSuppliers.isEmpty()) {
+            throw new IllegalArgumentException("At least one file channel is required");
+        }
+        for (final Supplier<? extends FileChannel> fileChannelSupplier : fileChannelSuppliers) {
+            Objects.requireNonNull(fileChannelSupplier);
+        }
+        this.fileChannelSuppliers = new ArrayList<>(fileChannelSuppliers);
+    }
+
+    public void force() {
+        writeBack.run();
+        for (int i = 0; i < fileChannelSuppliers.size(); i++) {
+            try {
+                fileChannelSuppliers.get(i).get().force(false);
+            } catch (final IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
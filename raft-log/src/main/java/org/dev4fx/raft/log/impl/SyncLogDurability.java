@@ -0,0 +1,62 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.log.impl;
+
+import org.dev4fx.raft.log.api.LogDurability;
+import org.dev4fx.raft.mmap.api.Flusher;
+
+import java.util.Objects;
+
+/**
+ * Log durability forcing the log on the calling thread whenever durability of new modifications is requested,
+ * using modification counts as {@link Flusher} positions.
+ */
+public final class SyncLogDurability implements LogDurability {
+    private final Flusher flusher;
+
+    private long durableSize;
+
+    public SyncLogDurability(final LogFlusher logFlusher) {
+        Objects.requireNonNull(logFlusher);
+        this.flusher = Flusher.forSync(logFlusher::force);
+    }
+
+    @Override
+    public void requestDurable(final long modificationCount, final long size) {
+        if (modificationCount > flusher.durablePosition()) {
+            flusher.requestFlush(modificationCount);
+            durableSize = size;
+        }
+    }
+
+    @Override
+    public long durableModificationCount() {
+        return flusher.durablePosition();
+    }
+
+    @Override
+    public long durableSize() {
+        return durableSize;
+    }
+}
@@ -24,6 +24,7 @@
 package org.dev4fx.raft.state;
 
 import org.agrona.MutableDirectBuffer;
+import org.dev4fx.raft.counters.ServerCounters;
 import org.dev4fx.raft.log.api.PersistentState;
 import org.dev4fx.raft.sbe.*;
 import org.dev4fx.raft.timer.Timer;
@@ -42,6 +43,7 @@ public class AppendRequestHandler implements BiFunction<AppendRequestDecoder, Lo
     private final MutableDirectBuffer encoderBuffer;
     private final Publisher publisher;
     private final int serverId;
+    private final ServerCounters serverCounters;
 
     public AppendRequestHandler(final PersistentState persistentState,
                                 final VolatileState volatileState,
@@ -51,6 +53,19 @@ public class AppendRequestHandler implements BiFunction<AppendRequestDecoder, Lo
                                 final MutableDirectBuffer encoderBuffer,
                                 final Publisher publisher,
                                 final int serverId) {
+        this(persistentState, volatileState, electionTimeout, messageHeaderEncoder, appendResponseEncoder,
+                encoderBuffer, publisher, serverId, ServerCounters.NO_OP);
+    }
+
+    public AppendRequestHandler(final PersistentState persistentState,
+                                final VolatileState volatileState,
+                                final Timer electionTimeout,
+                                final MessageHeaderEncoder messageHeaderEncoder,
+                                final AppendResponseEncoder appendResponseEncoder,
+                                final MutableDirectBuffer encoderBuffer,
+                                final Publisher publisher,
+                                final int serverId,
+                                final ServerCounters serverCounters) {
         this.persistentState = Objects.requireNonNull(persistentState);
         this.volatileState = Objects.requireNonNull(volatileState);
         this.electionTimeout = Objects.requireNonNull(electionTimeout);
@@ -59,6 +74,7 @@ public class AppendRequestHandler implements BiFunction<AppendRequestDecoder, Lo
         this.encoderBuffer = Objects.requireNonNull(encoderBuffer);
         this.publisher = Objects.requireNonNull(publisher);
         this.serverId = serverId;
+        this.serverCounters = Objects.requireNonNull(serverCounters);
     }
 
     @Override
@@ -91,6 +107,7 @@ public class AppendRequestHandler implements BiFunction<AppendRequestDecoder, Lo
                     // I think, "index of last new entry" implies not empty persistentState entries.
                     if (leaderCommitIndex > volatileState.commitIndex()) {
                         volatileState.commitIndex(Long.min(leaderCommitIndex, matchLogIndex));
+                        serverCounters.commitIndex(volatileState.commitIndex());
                     }
 
                     successful = true;
@@ -108,6 +125,10 @@ public class AppendRequestHandler implements BiFunction<AppendRequestDecoder, Lo
             electionTimeout.restart();
         }
 
+        if (!successful) {
+            serverCounters.appendRequestRejected();
+        }
+
         final int headerLength = messageHeaderEncoder.wrap(encoderBuffer, 0)
                 .schemaId(AppendResponseEncoder.SCHEMA_ID)
                 .version(AppendResponseEncoder.SCHEMA_VERSION)
@@ -24,6 +24,7 @@
 package org.dev4fx.raft.state;
 
 import org.agrona.MutableDirectBuffer;
+import org.dev4fx.raft.counters.ServerCounters;
 import org.dev4fx.raft.log.api.PersistentState;
 import org.dev4fx.raft.sbe.*;
 import org.dev4fx.raft.timer.Timer;
@@ -46,6 +47,7 @@ public class CandidateServerState implements ServerState {
     private final VoteRequestEncoder voteRequestEncoder;
     private final MutableDirectBuffer encoderBuffer;
     private final Publisher publisher;
+    private final ServerCounters serverCounters;
 
     public CandidateServerState(final PersistentState persistentState,
                                 final Peers peers,
@@ -56,6 +58,20 @@ public class CandidateServerState implements ServerState {
                                 final VoteRequestEncoder voteRequestEncoder,
                                 final MutableDirectBuffer encoderBuffer,
                                 final Publisher publisher) {
+        this(persistentState, peers, appendRequestHandler, electionTimer, serverId, messageHeaderEncoder,
+                voteRequestEncoder, encoderBuffer, publisher, ServerCounters.NO_OP);
+    }
+
+    public CandidateServerState(final PersistentState persistentState,
+                                final Peers peers,
+                                final BiFunction<? super AppendRequestDecoder, ? super Logger, ? extends Transition> appendRequestHandler,
+                                final Timer electionTimer,
+                                final int serverId,
+                                final MessageHeaderEncoder messageHeaderEncoder,
+                                final VoteRequestEncoder voteRequestEncoder,
+                                final MutableDirectBuffer encoderBuffer,
+                                final Publisher publisher,
+                                final ServerCounters serverCounters) {
         this.persistentState = Objects.requireNonNull(persistentState);
         this.peers = Objects.requireNonNull(peers);
         this.appendRequestHandler = Objects.requireNonNull(appendRequestHandler);
@@ -65,6 +81,7 @@ public class CandidateServerState implements ServerState {
         this.voteRequestEncoder = Objects.requireNonNull(voteRequestEncoder);
         this.encoderBuffer = Objects.requireNonNull(encoderBuffer);
         this.publisher = Objects.requireNonNull(publisher);
+        this.serverCounters = Objects.requireNonNull(serverCounters);
     }
 
     @Override
@@ -90,6 +107,8 @@ public class CandidateServerState implements ServerState {
     private void startNewElection() {
         final int term = persistentState.clearVoteForAndIncCurrentTerm();
         LOGGER.info("Starting new election, new term={}", term);
+        serverCounters.electionStarted();
+        serverCounters.currentTerm(term);
 
         peers.reset();
         electionTimer.restart();
@@ -24,6 +24,8 @@
 package org.dev4fx.raft.state;
 
 import org.agrona.MutableDirectBuffer;
+import org.dev4fx.raft.counters.ServerCounters;
+import org.dev4fx.raft.latency.EntryLatencyRecorder;
 import org.dev4fx.raft.log.api.PersistentState;
 import org.dev4fx.raft.process.ProcessStep;
 
@@ -35,6 +37,8 @@ public class CommittedLogPromoter implements ProcessStep {
     private final MessageHandler stateMachine;
     private final MutableDirectBuffer commandDecoderBuffer;
     private final int maxBatchSize;
+    private final ServerCounters serverCounters;
+    private final EntryLatencyRecorder entryLatencyRecorder;
 
 
     public CommittedLogPromoter(final PersistentState persistentState,
@@ -42,11 +46,24 @@ public class CommittedLogPromoter implements ProcessStep {
                                 final MessageHandler stateMachine,
                                 final MutableDirectBuffer commandDecoderBuffer,
                                 final int maxBatchSize) {
+        this(persistentState, volatileState, stateMachine, commandDecoderBuffer, maxBatchSize, ServerCounters.NO_OP,
+                EntryLatencyRecorder.NO_OP);
+    }
+
+    public CommittedLogPromoter(final PersistentState persistentState,
+                                final VolatileState volatileState,
+                                final MessageHandler stateMachine,
+                                final MutableDirectBuffer commandDecoderBuffer,
+                                final int maxBatchSize,
+                                final ServerCounters serverCounters,
+                                final EntryLatencyRecorder entryLatencyRecorder) {
         this.persistentState = Objects.requireNonNull(persistentState);
         this.volatileState = Objects.requireNonNull(volatileState);
         this.stateMachine = Objects.requireNonNull(stateMachine);
         this.commandDecoderBuffer = Objects.requireNonNull(commandDecoderBuffer);
         this.maxBatchSize = maxBatchSize;
+        this.serverCounters = Objects.requireNonNull(serverCounters);
+        this.entryLatencyRecorder = Objects.requireNonNull(entryLatencyRecorder);
     }
 
     @Override
@@ -60,6 +77,11 @@ public class CommittedLogPromoter implements ProcessStep {
             stateMachine.onMessage(commandDecoderBuffer, 0, commandDecoderBuffer.capacity());
             volatileState.lastApplied(lastApplied);
         }
-        return appliedCount > 0;
+        if (appliedCount > 0) {
+            serverCounters.lastApplied(lastApplied);
+            entryLatencyRecorder.onApplied(lastApplied);
+            return true;
+        }
+        return false;
     }
 }
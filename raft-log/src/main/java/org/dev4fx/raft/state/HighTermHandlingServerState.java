@@ -24,6 +24,7 @@
 package org.dev4fx.raft.state;
 
 import org.agrona.DirectBuffer;
+import org.dev4fx.raft.counters.ServerCounters;
 import org.dev4fx.raft.log.api.PersistentState;
 import org.dev4fx.raft.sbe.*;
 import org.slf4j.Logger;
@@ -34,13 +35,22 @@ public class HighTermHandlingServerState implements ServerState {
     private final ServerState delegateServerState;
     private final PersistentState persistentState;
     private final Logger logger;
+    private final ServerCounters serverCounters;
 
     public HighTermHandlingServerState(final ServerState delegateServerState,
                                        final PersistentState persistentState,
                                        final Logger logger) {
+        this(delegateServerState, persistentState, logger, ServerCounters.NO_OP);
+    }
+
+    public HighTermHandlingServerState(final ServerState delegateServerState,
+                                       final PersistentState persistentState,
+                                       final Logger logger,
+                                       final ServerCounters serverCounters) {
         this.delegateServerState = Objects.requireNonNull(delegateServerState);
         this.persistentState = Objects.requireNonNull(persistentState);
         this.logger = Objects.requireNonNull(logger);
+        this.serverCounters = Objects.requireNonNull(serverCounters);
     }
 
     @Override
@@ -106,6 +116,7 @@ public class HighTermHandlingServerState implements ServerState {
         if (messageTerm > currentTerm) {
             //logger.info("Updating to higher term {} from current {}", messageTerm, currentTerm);
             persistentState.clearVoteForAndSetCurrentTerm(messageTerm);
+            serverCounters.currentTerm(messageTerm);
             return true;
         }
         return false;
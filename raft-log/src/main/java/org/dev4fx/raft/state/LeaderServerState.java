@@ -25,6 +25,9 @@ package org.dev4fx.raft.state;
 
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
+import org.dev4fx.raft.counters.ServerCounters;
+import org.dev4fx.raft.latency.EntryLatencyRecorder;
+import org.dev4fx.raft.log.api.LogDurability;
 import org.dev4fx.raft.log.api.PersistentState;
 import org.dev4fx.raft.sbe.*;
 import org.dev4fx.raft.transport.Publisher;
@@ -51,10 +54,16 @@ public class LeaderServerState implements ServerState {
     private final Publisher publisher;
     private final IntConsumer onLeaderTransitionHandler;
     private final int maxBatchSize;
+    private final ServerCounters serverCounters;
+    private final EntryLatencyRecorder entryLatencyRecorder;
+    private final LogDurability logDurability;
+    private long lastDurableSize;
 
     private final LongToIntFunction indexToTermLookup;
     private final Consumer<Peer> sendAppendRequestAndResetHeartbeatTimerForAll;
     private final Consumer<Peer> resetHeartbeatTimerForAll;
+    private final Consumer<Peer> sendHeartbeatIfTimeoutElapsed;
+    private final Consumer<Peer> updatePeerMatchIndexLag;
 
 
 
@@ -69,6 +78,25 @@ public class LeaderServerState implements ServerState {
                              final Publisher publisher,
                              final IntConsumer onLeaderTransitionHandler,
                              final int maxBatchSize) {
+        this(persistentState, volatileState, peers, serverId, appendRequestEncoder, messageHeaderEncoder,
+                encoderBuffer, commandDecoderBuffer, publisher, onLeaderTransitionHandler, maxBatchSize,
+                ServerCounters.NO_OP, EntryLatencyRecorder.NO_OP, LogDurability.NONE);
+    }
+
+    public LeaderServerState(final PersistentState persistentState,
+                             final VolatileState volatileState,
+                             final Peers peers,
+                             final int serverId,
+                             final AppendRequestEncoder appendRequestEncoder,
+                             final MessageHeaderEncoder messageHeaderEncoder,
+                             final MutableDirectBuffer encoderBuffer,
+                             final MutableDirectBuffer commandDecoderBuffer,
+                             final Publisher publisher,
+                             final IntConsumer onLeaderTransitionHandler,
+                             final int maxBatchSize,
+                             final ServerCounters serverCounters,
+                             final EntryLatencyRecorder entryLatencyRecorder,
+                             final LogDurability logDurability) {
         this.persistentState = Objects.requireNonNull(persistentState);
         this.volatileState = Objects.requireNonNull(volatileState);
         this.peers = Objects.requireNonNull(peers);
@@ -80,6 +108,10 @@ public class LeaderServerState implements ServerState {
         this.publisher = Objects.requireNonNull(publisher);
         this.onLeaderTransitionHandler = Objects.requireNonNull(onLeaderTransitionHandler);
         this.maxBatchSize = maxBatchSize;
+        this.serverCounters = Objects.requireNonNull(serverCounters);
+        this.entryLatencyRecorder = Objects.requireNonNull(entryLatencyRecorder);
+        this.logDurability = Objects.requireNonNull(logDurability);
+        this.lastDurableSize = logDurability.durableSize();
         this.indexToTermLookup = this.persistentState::term;
 
         this.sendAppendRequestAndResetHeartbeatTimerForAll = peer -> {
@@ -89,6 +121,16 @@ public class LeaderServerState implements ServerState {
 
         this.resetHeartbeatTimerForAll = peer -> peer.heartbeatTimer().reset();
 
+        this.sendHeartbeatIfTimeoutElapsed = peer -> {
+            if (peer.heartbeatTimer().hasTimeoutElapsed()) {
+                LOGGER.info("Heartbeat timer elapsed, send heartbeat to {}", peer.serverId());
+                sendAppendRequest(peer.serverId(), peer.nextIndex(), peer.matchIndex(), false);
+                peer.heartbeatTimer().reset();
+            }
+        };
+
+        this.updatePeerMatchIndexLag = peer ->
+                this.serverCounters.peerMatchIndexLag(peer.serverId(), this.persistentState.lastIndex() - peer.matchIndex());
     }
 
 
@@ -100,6 +142,7 @@ public class LeaderServerState implements ServerState {
     @Override
     public void onTransition() {
         LOGGER.info("Transitioned");
+        entryLatencyRecorder.onLeadershipAcquired();
         peers.resetAsFollowers(persistentState.size());
         sendAppendRequestToAllAndResetHeartbeatTimer();
         onLeaderTransitionHandler.accept(serverId);
@@ -107,13 +150,13 @@ public class LeaderServerState implements ServerState {
 
     @Override
     public Transition processTick() {
-        peers.forEach(peer -> {
-            if (peer.heartbeatTimer().hasTimeoutElapsed()) {
-                LOGGER.info("Heartbeat timer elapsed, send heartbeat to {}", peer.serverId());
-                sendAppendRequest(peer.serverId(), peer.nextIndex(), peer.matchIndex(), false);
-                peer.heartbeatTimer().reset();
-            }
-        });
+        peers.forEach(sendHeartbeatIfTimeoutElapsed);
+        final long durableSize = logDurability.durableSize();
+        if (durableSize != lastDurableSize) {
+            //commit index may have been held back by durability of own entries
+            lastDurableSize = durableSize;
+            updateCommitIndex();
+        }
         return Transition.STEADY;
     }
 
@@ -139,6 +182,8 @@ public class LeaderServerState implements ServerState {
             if (!peer.comparePreviousAndUpdateMatchAndNextIndex(requestPrevLogIndex, matchLogIndex)) {
                 //LOGGER.info("Successful appendResponse prevLogIndex {} does not match {} from server {}, awaiting newer response", requestPrevLogIndex, peer.previousIndex(), sourceId);
             } else {
+                serverCounters.peerMatchIndexLag(sourceId, persistentState.lastIndex() - peer.matchIndex());
+                entryLatencyRecorder.onPeerAck(sourceId, peer.matchIndex());
                 if (peer.matchIndex() < persistentState.lastIndex()) {
                     sendAppendRequest(peer.serverId(), peer.nextIndex(), peer.matchIndex(), false);
                 }
@@ -153,6 +198,9 @@ public class LeaderServerState implements ServerState {
     public Transition onCommandRequest(DirectBuffer buffer, int offset, int length) {
         //LOGGER.info("Command received, length={}", length);
         persistentState.append(persistentState.currentTerm(), buffer, offset, length);
+        entryLatencyRecorder.onAppended(persistentState.lastIndex());
+        logDurability.requestDurable(persistentState.modificationCount(), persistentState.size());
+        peers.forEach(updatePeerMatchIndexLag);
         sendAppendRequestToAllAndResetHeartbeatTimer();
 
         return Transition.STEADY;
@@ -164,10 +212,14 @@ public class LeaderServerState implements ServerState {
 
         //FIXME check term at NULL_INDEX
         long nextCommitIndex = peers.majorityCommitIndex(currentCommitIndex, currentTerm, indexToTermLookup);
+        //own entries count towards the majority only once durable
+        nextCommitIndex = Long.min(nextCommitIndex, logDurability.durableSize() - 1);
 
         if (nextCommitIndex > currentCommitIndex) {
             //LOGGER.info("Update commit index {}", nextCommitIndex);
             volatileState.commitIndex(nextCommitIndex);
+            serverCounters.commitIndex(nextCommitIndex);
+            entryLatencyRecorder.onCommitted(nextCommitIndex);
         }
     }
 
@@ -240,6 +292,7 @@ public class LeaderServerState implements ServerState {
             }
         }
 
+        serverCounters.appendRequestSent();
         return publisher.publish(encoderBuffer, 0, headerLength + appendRequestEncoder.encodedLength());
     }
 }
@@ -24,6 +24,7 @@
 package org.dev4fx.raft.state;
 
 import org.agrona.DirectBuffer;
+import org.dev4fx.raft.counters.ServerCounters;
 import org.dev4fx.raft.process.ProcessStep;
 import org.dev4fx.raft.sbe.*;
 
@@ -39,6 +40,7 @@ public final class ServerMessageHandler implements MessageHandler, ProcessStep {
     private final AppendRequestDecoder appendRequestDecoder;
     private final AppendResponseDecoder appendResponseDecoder;
 
+    private final ServerCounters serverCounters;
     private ServerState serverState;
     private final Function<Role, ServerState> roleToState;
 
@@ -51,6 +53,20 @@ public final class ServerMessageHandler implements MessageHandler, ProcessStep {
                                 final ServerState leaderState,
                                 final ServerState followerState,
                                 final ServerState initialState) {
+        this(messageHeaderDecoder, voteRequestDecoder, voteResponseDecoder, appendRequestDecoder,
+                appendResponseDecoder, candidateState, leaderState, followerState, initialState, ServerCounters.NO_OP);
+    }
+
+    public ServerMessageHandler(final MessageHeaderDecoder messageHeaderDecoder,
+                                final VoteRequestDecoder voteRequestDecoder,
+                                final VoteResponseDecoder voteResponseDecoder,
+                                final AppendRequestDecoder appendRequestDecoder,
+                                final AppendResponseDecoder appendResponseDecoder,
+                                final ServerState candidateState,
+                                final ServerState leaderState,
+                                final ServerState followerState,
+                                final ServerState initialState,
+                                final ServerCounters serverCounters) {
         this.messageHeaderDecoder = Objects.requireNonNull(messageHeaderDecoder);
         this.voteRequestDecoder = Objects.requireNonNull(voteRequestDecoder);
         this.voteResponseDecoder = Objects.requireNonNull(voteResponseDecoder);
@@ -60,6 +76,7 @@ public final class ServerMessageHandler implements MessageHandler, ProcessStep {
         Objects.requireNonNull(leaderState);
         Objects.requireNonNull(followerState);
         Objects.requireNonNull(initialState);
+        this.serverCounters = Objects.requireNonNull(serverCounters);
         this.serverState = initialState;
         this.roleToState = role -> {
             if (role == leaderState.role()) return leaderState;
@@ -70,6 +87,7 @@ public final class ServerMessageHandler implements MessageHandler, ProcessStep {
     }
 
     public void init() {
+        serverCounters.role(serverState.role());
         this.serverState.onTransition();
     }
 
@@ -80,6 +98,7 @@ public final class ServerMessageHandler implements MessageHandler, ProcessStep {
         if (transition != STEADY) {
             if (serverState.role() != transition.targetRole()) {
                 serverState = roleToState.apply(transition.targetRole());
+                serverCounters.role(serverState.role());
             }
             return true;
         }
@@ -127,6 +146,7 @@ public final class ServerMessageHandler implements MessageHandler, ProcessStep {
         if (transition != STEADY) {
             if (serverState.role() != transition.targetRole()) {
                 serverState = roleToState.apply(transition.targetRole());
+                serverCounters.role(serverState.role());
                 serverState.onTransition();
             }
             if (transition.replayEvent()) {
@@ -23,11 +23,37 @@
  */
 package org.dev4fx.raft.timer;
 
+import java.util.concurrent.TimeUnit;
+
 public interface Clock {
     long currentTimeMillis();
 
+    /**
+     * Returns a time in nanoseconds that is used to measure timeouts. Clocks with millisecond precision only
+     * derive it from {@link #currentTimeMillis()}.
+     * @return the time in nanoseconds
+     */
+    default long nanoTime() {
+        return TimeUnit.MILLISECONDS.toNanos(currentTimeMillis());
+    }
+
     Clock DEFAULT = System::currentTimeMillis;
 
+    /**
+     * Clock using {@link System#nanoTime()} as monotonic nanosecond time source.
+     */
+    Clock NANO = new Clock() {
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
     static Clock fixed(final long time) {
         return () -> time;
     }
@@ -24,35 +24,39 @@
 package org.dev4fx.raft.timer;
 
 import java.util.Objects;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 public final class DefaultTimer implements Timer {
 
-    private final Random rnd = new Random();
     private final Clock clock;
-    private final long minTimeoutMillis;
-    private final long maxTimeoutMillis;
+    private final long minTimeoutNanos;
+    private final long maxTimeoutNanos;
 
-    private long timerStartMillis;
-    private long timeoutMillis;
+    private long timerStartNanos;
+    private long timeoutNanos;
 
     public DefaultTimer(final long minTimeoutMillis, final long maxTimeoutMillis) {
         this(Clock.DEFAULT, minTimeoutMillis, maxTimeoutMillis);
     }
 
     public DefaultTimer(final Clock clock, final long minTimeoutMillis, final long maxTimeoutMillis) {
+        this(clock, minTimeoutMillis, maxTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public DefaultTimer(final Clock clock, final long minTimeout, final long maxTimeout, final TimeUnit timeUnit) {
         this.clock = Objects.requireNonNull(clock);
-        this.minTimeoutMillis = minTimeoutMillis;
-        this.maxTimeoutMillis = maxTimeoutMillis;
+        this.minTimeoutNanos = timeUnit.toNanos(minTimeout);
+        this.maxTimeoutNanos = timeUnit.toNanos(maxTimeout);
         restart();
     }
 
     /**
-     * Starts a new timeout. The timeout is random between minTimeoutMillis and maxTimeoutMillis.
+     * Starts a new timeout. The timeout is random between minTimeout and maxTimeout.
      */
     @Override
     public void restart() {
-        timeoutMillis = newTimeoutMillis(minTimeoutMillis, maxTimeoutMillis);
+        timeoutNanos = newTimeout(minTimeoutNanos, maxTimeoutNanos);
         reset();
     }
 
@@ -62,7 +66,7 @@ public final class DefaultTimer implements Timer {
      */
     @Override
     public void reset() {
-        timerStartMillis = clock.currentTimeMillis();
+        timerStartNanos = clock.nanoTime();
     }
 
     /**
@@ -70,7 +74,7 @@ public final class DefaultTimer implements Timer {
      */
     @Override
     public void timeoutNow() {
-        timeoutMillis = 0;
+        timeoutNanos = 0;
     }
 
     /**
@@ -79,14 +83,18 @@ public final class DefaultTimer implements Timer {
      */
     @Override
     public boolean hasTimeoutElapsed() {
-        return clock.currentTimeMillis() - timerStartMillis >= timeoutMillis;
+        return clock.nanoTime() - timerStartNanos >= timeoutNanos;
     }
 
-    private long newTimeoutMillis(final long minTimeoutMillis, final long maxTimeoutMillis) {
-        final int diff = (int)(maxTimeoutMillis - minTimeoutMillis);
-        long timeout = minTimeoutMillis;
+    /**
+     * Returns a random timeout in the range [minTimeout, maxTimeout), or minTimeout if the range is empty.
+     * The full long range is used so that randomisation does not degrade for nanosecond timeouts.
+     */
+    static long newTimeout(final long minTimeout, final long maxTimeout) {
+        final long diff = maxTimeout - minTimeout;
+        long timeout = minTimeout;
         if (diff > 0) {
-            timeout += rnd.nextInt(diff);
+            timeout += ThreadLocalRandom.current().nextLong(diff);
         }
         return timeout;
     }
@@ -0,0 +1,194 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.timer;
+
+import org.dev4fx.raft.process.ProcessStep;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process step executing delayed and fixed rate steps when due. Scheduled steps are kept in a binary heap
+ * ordered by deadline, so that a duty cycle without due steps costs a single comparison against the time of the
+ * (usually cached) clock.
+ * <p>
+ * Not thread safe, steps are expected to be scheduled and cancelled from the process thread.
+ */
+public final class ScheduledStepQueue implements ProcessStep {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Clock clock;
+    private ScheduledStep[] heap = new ScheduledStep[INITIAL_CAPACITY];
+    private int size;
+
+    public ScheduledStepQueue(final Clock clock) {
+        this.clock = Objects.requireNonNull(clock);
+    }
+
+    /**
+     * Schedules the step to be executed once after the given delay.
+     */
+    public ScheduledStep delayed(final ProcessStep step, final long delay, final TimeUnit timeUnit) {
+        return schedule(step, timeUnit.toNanos(delay), 0);
+    }
+
+    /**
+     * Schedules the step to be executed periodically after the initial delay. Executions missed while the process
+     * was busy are not caught up with, the next execution is scheduled one period after the late one instead.
+     */
+    public ScheduledStep fixedRate(final ProcessStep step, final long initialDelay, final long period, final TimeUnit timeUnit) {
+        if (period <= 0) throw new IllegalArgumentException("period must be positive: " + period);
+        return schedule(step, timeUnit.toNanos(initialDelay), timeUnit.toNanos(period));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean execute() {
+        if (size == 0) {
+            return false;
+        }
+        final long nanoTime = clock.nanoTime();
+        if (heap[0].deadlineNanos - nanoTime > 0) {
+            return false;
+        }
+        boolean workDone = false;
+        while (size > 0 && heap[0].deadlineNanos - nanoTime <= 0) {
+            final ScheduledStep scheduledStep = heap[0];
+            if (scheduledStep.periodNanos > 0) {
+                final long nextDeadlineNanos = scheduledStep.deadlineNanos + scheduledStep.periodNanos;
+                scheduledStep.deadlineNanos = nextDeadlineNanos - nanoTime > 0 ? nextDeadlineNanos : nanoTime + scheduledStep.periodNanos;
+                siftDown(0);
+            } else {
+                removeAt(0);
+            }
+            workDone |= scheduledStep.step.execute();
+        }
+        return workDone;
+    }
+
+    @Override
+    public boolean finalise() {
+        return true;
+    }
+
+    private ScheduledStep schedule(final ProcessStep step, final long delayNanos, final long periodNanos) {
+        final ScheduledStep scheduledStep = new ScheduledStep(Objects.requireNonNull(step), periodNanos);
+        scheduledStep.deadlineNanos = clock.nanoTime() + delayNanos;
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size << 1);
+        }
+        scheduledStep.index = size;
+        heap[size++] = scheduledStep;
+        siftUp(scheduledStep.index);
+        return scheduledStep;
+    }
+
+    private void removeAt(final int index) {
+        final ScheduledStep removed = heap[index];
+        removed.index = -1;
+        size--;
+        if (index != size) {
+            final ScheduledStep last = heap[size];
+            heap[index] = last;
+            last.index = index;
+            heap[size] = null;
+            siftDown(index);
+            siftUp(last.index);
+        } else {
+            heap[size] = null;
+        }
+    }
+
+    private void siftUp(int index) {
+        final ScheduledStep scheduledStep = heap[index];
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1;
+            final ScheduledStep parentStep = heap[parent];
+            if (parentStep.deadlineNanos - scheduledStep.deadlineNanos <= 0) {
+                break;
+            }
+            heap[index] = parentStep;
+            parentStep.index = index;
+            index = parent;
+        }
+        heap[index] = scheduledStep;
+        scheduledStep.index = index;
+    }
+
+    private void siftDown(int index) {
+        final ScheduledStep scheduledStep = heap[index];
+        final int half = size >>> 1;
+        while (index < half) {
+            int child = (index << 1) + 1;
+            final int right = child + 1;
+            if (right < size && heap[right].deadlineNanos - heap[child].deadlineNanos < 0) {
+                child = right;
+            }
+            final ScheduledStep childStep = heap[child];
+            if (scheduledStep.deadlineNanos - childStep.deadlineNanos <= 0) {
+                break;
+            }
+            heap[index] = childStep;
+            childStep.index = index;
+            index = child;
+        }
+        heap[index] = scheduledStep;
+        scheduledStep.index = index;
+    }
+
+    public final class ScheduledStep {
+        private final ProcessStep step;
+        private final long periodNanos;
+        private long deadlineNanos;
+        private int index;
+
+        private ScheduledStep(final ProcessStep step, final long periodNanos) {
+            this.step = step;
+            this.periodNanos = periodNanos;
+        }
+
+        public boolean isScheduled() {
+            return index >= 0;
+        }
+
+        public long deadlineNanos() {
+            return deadlineNanos;
+        }
+
+        /**
+         * @return true if the step was cancelled, false if it had been executed or cancelled already
+         */
+        public boolean cancel() {
+            if (index >= 0) {
+                removeAt(index);
+                return true;
+            }
+            return false;
+        }
+    }
+}
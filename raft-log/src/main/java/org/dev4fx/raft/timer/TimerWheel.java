@@ -0,0 +1,153 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.timer;
+
+import org.agrona.BitUtil;
+import org.agrona.DeadlineTimerWheel;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.dev4fx.raft.process.ProcessStep;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashed timer wheel creating {@link Timer}s whose restart, reset and elapsed checks are constant time
+ * operations independent of the number of timers. Expired timers are detected when the wheel is executed
+ * as a step of the process loop that owns the timers.
+ */
+public final class TimerWheel implements ProcessStep {
+    public static final long MAX_TICK_RESOLUTION_NANOS = 1 << 30;
+
+    private final Clock clock;
+    private final DeadlineTimerWheel wheel;
+    private final Long2ObjectHashMap<WheelTimer> scheduledTimers = new Long2ObjectHashMap<>();
+    private final DeadlineTimerWheel.TimerHandler timerHandler = this::onTimerExpiry;
+
+    /**
+     * Creates a timer wheel operating on {@link Clock#nanoTime()}.
+     *
+     * @param clock         the clock, usually the cached clock of the process loop executing the wheel
+     * @param tickResolution the tick resolution, rounded up to a power of two in nanoseconds
+     * @param timeUnit      the time unit of tickResolution
+     * @param ticksPerWheel the number of ticks per wheel, a power of two
+     */
+    public TimerWheel(final Clock clock, final long tickResolution, final TimeUnit timeUnit, final int ticksPerWheel) {
+        this.clock = Objects.requireNonNull(clock);
+        final long tickResolutionNanos = timeUnit.toNanos(tickResolution);
+        if (tickResolutionNanos <= 0 || tickResolutionNanos > MAX_TICK_RESOLUTION_NANOS) {
+            throw new IllegalArgumentException("Tick resolution must be in (0.." + MAX_TICK_RESOLUTION_NANOS + "] nanoseconds but was " + tickResolutionNanos);
+        }
+        this.wheel = new DeadlineTimerWheel(TimeUnit.NANOSECONDS, clock.nanoTime(),
+                BitUtil.findNextPositivePowerOfTwo((int) tickResolutionNanos), ticksPerWheel);
+    }
+
+    /**
+     * Creates a new timer and starts it. The timeout is random between minTimeout and maxTimeout.
+     */
+    public Timer newTimer(final long minTimeout, final long maxTimeout, final TimeUnit timeUnit) {
+        return new WheelTimer(timeUnit.toNanos(minTimeout), timeUnit.toNanos(maxTimeout));
+    }
+
+    public long tickResolutionNanos() {
+        return wheel.tickResolution();
+    }
+
+    @Override
+    public boolean execute() {
+        final long now = clock.nanoTime();
+        int expired = 0;
+        long tickTime;
+        do {
+            tickTime = wheel.currentTickTime();
+            expired += wheel.poll(now, timerHandler, Integer.MAX_VALUE);
+        } while (wheel.timerCount() > 0 && wheel.currentTickTime() != tickTime);
+        return expired > 0;
+    }
+
+    private boolean onTimerExpiry(final TimeUnit timeUnit, final long now, final long timerId) {
+        final WheelTimer timer = scheduledTimers.remove(timerId);
+        if (timer != null) {
+            timer.onExpiry();
+        }
+        return true;
+    }
+
+    private final class WheelTimer implements Timer {
+        private final long minTimeoutNanos;
+        private final long maxTimeoutNanos;
+
+        private long timeoutNanos;
+        private long timerId = DeadlineTimerWheel.NULL_TIMER;
+        private boolean elapsed;
+
+        WheelTimer(final long minTimeoutNanos, final long maxTimeoutNanos) {
+            this.minTimeoutNanos = minTimeoutNanos;
+            this.maxTimeoutNanos = maxTimeoutNanos;
+            restart();
+        }
+
+        @Override
+        public void restart() {
+            timeoutNanos = DefaultTimer.newTimeout(minTimeoutNanos, maxTimeoutNanos);
+            reset();
+        }
+
+        @Override
+        public void reset() {
+            cancel();
+            if (timeoutNanos > 0) {
+                elapsed = false;
+                timerId = wheel.scheduleTimer(clock.nanoTime() + timeoutNanos);
+                scheduledTimers.put(timerId, this);
+            } else {
+                elapsed = true;
+            }
+        }
+
+        @Override
+        public void timeoutNow() {
+            cancel();
+            timeoutNanos = 0;
+            elapsed = true;
+        }
+
+        @Override
+        public boolean hasTimeoutElapsed() {
+            return elapsed;
+        }
+
+        private void cancel() {
+            if (timerId != DeadlineTimerWheel.NULL_TIMER) {
+                wheel.cancelTimer(timerId);
+                scheduledTimers.remove(timerId);
+                timerId = DeadlineTimerWheel.NULL_TIMER;
+            }
+        }
+
+        private void onExpiry() {
+            timerId = DeadlineTimerWheel.NULL_TIMER;
+            elapsed = true;
+        }
+    }
+}
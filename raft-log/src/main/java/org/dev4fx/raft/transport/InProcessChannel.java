@@ -0,0 +1,121 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.transport;
+
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.ManyToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RecordDescriptor;
+import org.agrona.concurrent.ringbuffer.RingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBufferDescriptor;
+import org.dev4fx.raft.state.MessageHandler;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * In-JVM channel with multi-publisher, multi-subscriber semantics similar to an Aeron IPC channel.
+ * Every subscriber owns a {@link ManyToOneRingBuffer}; a published message is copied into the ring of
+ * each subscriber that exists at the time of publication. Messages published before a subscriber
+ * was created are not seen by that subscriber.
+ * <p>
+ * Publication is all or nothing: publishers are serialised and a message is only written once every
+ * subscriber ring has capacity for it, so retrying a failed publish does not duplicate the message.
+ * Messages longer than the max message length of the subscriber rings, an eighth of the capacity, are rejected
+ * with an {@link IllegalArgumentException}.
+ */
+public final class InProcessChannel {
+    public static final int DEFAULT_CAPACITY = 1024 * 1024;
+    private static final int MESSAGE_TYPE_ID = 1;
+    private static final RingBuffer[] NO_SUBSCRIBERS = {};
+
+    private final int capacity;
+    private volatile RingBuffer[] subscribers = NO_SUBSCRIBERS;
+
+    public InProcessChannel() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public InProcessChannel(final int capacity) {
+        if (!BitUtil.isPowerOfTwo(capacity)) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public synchronized boolean publish(final DirectBuffer buffer, final int offset, final int length) {
+        final RingBuffer[] subscribers = this.subscribers;
+        if (subscribers.length > 0 && length > subscribers[0].maxMsgLength()) {
+            throw new IllegalArgumentException("Message length " + length + " exceeds max message length " +
+                    subscribers[0].maxMsgLength() + " of channel with capacity " + capacity);
+        }
+        final int requiredCapacity = BitUtil.align(length + RecordDescriptor.HEADER_LENGTH, RecordDescriptor.ALIGNMENT);
+        for (final RingBuffer subscriber : subscribers) {
+            if (!hasCapacity(subscriber, requiredCapacity)) {
+                return false;
+            }
+        }
+        for (final RingBuffer subscriber : subscribers) {
+            if (!subscriber.write(MESSAGE_TYPE_ID, buffer, offset, length)) {
+                throw new IllegalStateException("Subscriber ring has no capacity for " + length + " bytes after capacity check");
+            }
+        }
+        return true;
+    }
+
+    //same conditions as ManyToOneRingBuffer claims capacity with; the consumer can only add space
+    private static boolean hasCapacity(final RingBuffer ringBuffer, final int requiredCapacity) {
+        final int capacity = ringBuffer.capacity();
+        final long head = ringBuffer.consumerPosition();
+        final long tail = ringBuffer.producerPosition();
+        if (requiredCapacity > capacity - (int) (tail - head)) {
+            return false;
+        }
+        final int mask = capacity - 1;
+        final int toBufferEndLength = capacity - ((int) tail & mask);
+        return requiredCapacity <= toBufferEndLength || requiredCapacity <= ((int) head & mask);
+    }
+
+    public Poller subscribe(final MessageHandler messageHandler, final int messageLimit) {
+        Objects.requireNonNull(messageHandler);
+        final RingBuffer ringBuffer = new ManyToOneRingBuffer(new UnsafeBuffer(
+                ByteBuffer.allocateDirect(capacity + RingBufferDescriptor.TRAILER_LENGTH)));
+        addSubscriber(ringBuffer);
+        final org.agrona.concurrent.MessageHandler ringBufferHandler = (msgTypeId, buffer, index, length) -> messageHandler.onMessage(buffer, index, length);
+        return () -> ringBuffer.read(ringBufferHandler, messageLimit) > 0;
+    }
+
+    private synchronized void addSubscriber(final RingBuffer ringBuffer) {
+        final RingBuffer[] current = subscribers;
+        final RingBuffer[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = ringBuffer;
+        subscribers = updated;
+    }
+}
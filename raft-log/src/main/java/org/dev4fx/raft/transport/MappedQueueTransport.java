@@ -0,0 +1,136 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.transport;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.def4fx.raft.queue.api.Appender;
+import org.def4fx.raft.queue.api.Queue;
+import org.def4fx.raft.queue.impl.MappedQueue;
+import org.dev4fx.raft.mmap.api.RegionRingFactory;
+import org.dev4fx.raft.mmap.impl.MappedFile;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntFunction;
+
+/**
+ * Transport over {@link MappedQueue} files in a shared directory, for example /dev/shm, allowing servers in
+ * different processes on the same host to communicate without a media driver.
+ * <p>
+ * Every queue must have a single appender: each server publishes to its own queue named
+ * {@link #serverQueueName(int)} and every command source publishes to a queue of its own. Queue files are
+ * never cleared, so traffic is persisted and can be replayed by opening the queue files directly. Pollers
+ * start at the end of the queue at the time they are created, equivalent to a late joining Aeron subscriber.
+ */
+public final class MappedQueueTransport implements Closeable {
+    private final String directory;
+    private final int regionSize;
+    private final RegionRingFactory regionRingFactory;
+    private final int ringSize;
+    private final int regionsToMapAhead;
+    private final long maxFileSize;
+    private final List<Queue> queues = new CopyOnWriteArrayList<>();
+
+    public MappedQueueTransport(final String directory,
+                                final int regionSize,
+                                final RegionRingFactory regionRingFactory,
+                                final int ringSize,
+                                final int regionsToMapAhead,
+                                final long maxFileSize) {
+        this.directory = Objects.requireNonNull(directory);
+        this.regionSize = regionSize;
+        this.regionRingFactory = Objects.requireNonNull(regionRingFactory);
+        this.ringSize = ringSize;
+        this.regionsToMapAhead = regionsToMapAhead;
+        this.maxFileSize = maxFileSize;
+    }
+
+    public static String serverQueueName(final int serverId) {
+        return "server" + serverId;
+    }
+
+    public Publisher publisher(final String queueName) {
+        final Appender appender = openQueue(queueName).appender();
+        return appender::append;
+    }
+
+    public PollerFactory pollerFactory(final String... queueNames) {
+        if (queueNames.length == 0) {
+            throw new IllegalArgumentException("At least one queue name is required");
+        }
+        return (messageHandler, messageLimit) -> {
+            Objects.requireNonNull(messageHandler);
+            final org.def4fx.raft.queue.api.Poller[] pollers = new org.def4fx.raft.queue.api.Poller[queueNames.length];
+            final DirectBuffer messageBuffer = new UnsafeBuffer(0, 0);
+            for (int i = 0; i < pollers.length; i++) {
+                pollers[i] = openQueue(queueNames[i]).poller();
+                while (pollers[i].poll(messageBuffer)) {
+                    //skip messages published before this poller was created
+                }
+            }
+            return () -> {
+                int messagesPolled = 0;
+                for (final org.def4fx.raft.queue.api.Poller poller : pollers) {
+                    while (messagesPolled < messageLimit && poller.poll(messageBuffer)) {
+                        messageHandler.onMessage(messageBuffer, 0, messageBuffer.capacity());
+                        messagesPolled++;
+                    }
+                }
+                return messagesPolled > 0;
+            };
+        };
+    }
+
+    public IntFunction<Publisher> serverToPublisher() {
+        return serverId -> publisher(serverQueueName(serverId));
+    }
+
+    public IntFunction<PollerFactory> serverToPollerFactory() {
+        return serverId -> pollerFactory(serverQueueName(serverId));
+    }
+
+    private Queue openQueue(final String queueName) {
+        Objects.requireNonNull(queueName);
+        final String fileName = new File(directory, queueName).getPath();
+        try {
+            final Queue queue = new MappedQueue(fileName, regionSize, regionRingFactory, ringSize,
+                    regionsToMapAhead, maxFileSize, MappedFile.Mode.READ_WRITE);
+            queues.add(queue);
+            return queue;
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to open queue " + fileName, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        queues.forEach(Queue::close);
+        queues.clear();
+    }
+}
@@ -53,4 +53,9 @@ public interface PollerFactory {
             return () -> subscription.poll(fragmentHandler, messageLimit) > 0;
         };
     }
+
+    static PollerFactory inProcessPollerFactory(final InProcessChannel channel) {
+        Objects.requireNonNull(channel);
+        return channel::subscribe;
+    }
 }
@@ -38,4 +38,9 @@ public interface Publisher {
         final Publication publication = aeron.addPublication(channel, streamId);
         return (buffer, offset, length) -> publication.offer(buffer, offset, length) >= 0;
     }
+
+    static Publisher inProcessPublisher(final InProcessChannel channel) {
+        Objects.requireNonNull(channel);
+        return channel::publish;
+    }
 }
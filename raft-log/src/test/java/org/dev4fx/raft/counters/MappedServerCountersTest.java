@@ -0,0 +1,93 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.counters;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.CountersReader;
+import org.dev4fx.raft.state.Role;
+import org.dev4fx.raft.transport.Publisher;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MappedServerCountersTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void counters_are_visible_to_reader_of_counters_file() throws Exception {
+        final File file = new File(folder.getRoot(), "counters1");
+        try (final MappedServerCounters serverCounters = new MappedServerCounters(file, 1, 3)) {
+            serverCounters.role(Role.LEADER);
+            serverCounters.currentTerm(5);
+            serverCounters.commitIndex(10);
+            serverCounters.peerMatchIndexLag(0, 3);
+            serverCounters.peerMatchIndexLag(2, 7);
+            serverCounters.appendRequestSent();
+            serverCounters.appendRequestSent();
+
+            final Map<String, Long> values = readCounters(file);
+
+            assertThat(values).hasSize(10)
+                    .containsEntry("server1 role", (long) Role.LEADER.ordinal())
+                    .containsEntry("server1 currentTerm", 5L)
+                    .containsEntry("server1 commitIndex", 10L)
+                    .containsEntry("server1 lastApplied", -1L)
+                    .containsEntry("server1 appendRequestsSent", 2L)
+                    .containsEntry("server1 appendRequestsRejected", 0L)
+                    .containsEntry("server1 peer0 matchIndexLag", 3L)
+                    .containsEntry("server1 peer2 matchIndexLag", 7L);
+        }
+    }
+
+    @Test
+    public void counting_publisher_counts_back_pressure() throws Exception {
+        final File file = new File(folder.getRoot(), "counters0");
+        try (final MappedServerCounters serverCounters = new MappedServerCounters(file, 0, 1)) {
+            final boolean[] result = {true};
+            final Publisher publisher = new CountingPublisher((buffer, offset, length) -> result[0], serverCounters);
+            final UnsafeBuffer buffer = new UnsafeBuffer(new byte[8]);
+
+            publisher.publish(buffer, 0, 8);
+            result[0] = false;
+            publisher.publish(buffer, 0, 8);
+            publisher.publish(buffer, 0, 8);
+
+            assertThat(readCounters(file)).containsEntry("server0 publisherBackPressure", 2L);
+        }
+    }
+
+    private static Map<String, Long> readCounters(final File file) {
+        final CountersReader countersReader = MappedServerCounters.mapForReading(file);
+        final Map<String, Long> values = new HashMap<>();
+        countersReader.forEach((counterId, label) -> values.put(label, countersReader.getCounterValue(counterId)));
+        return values;
+    }
+}
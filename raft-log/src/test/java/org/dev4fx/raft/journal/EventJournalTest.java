@@ -0,0 +1,165 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.journal;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.dev4fx.raft.mmap.impl.MappedFile;
+import org.dev4fx.raft.sbe.MessageHeaderEncoder;
+import org.dev4fx.raft.sbe.VoteRequestEncoder;
+import org.dev4fx.raft.timer.Clock;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventJournalTest {
+    private static final int CAPACITY = (int) MappedFile.REGION_SIZE_GRANULARITY;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private long nanoTime = 5_000;
+    private final Clock clock = new Clock() {
+        @Override
+        public long currentTimeMillis() {
+            return 1_000;
+        }
+
+        @Override
+        public long nanoTime() {
+            return nanoTime;
+        }
+    };
+
+    @Test
+    public void reader_returns_written_events_with_timestamps() throws Exception {
+        final File file = new File(folder.getRoot(), "journal");
+        try (final EventJournal journal = new EventJournal(file, CAPACITY, clock)) {
+            journal.write(EventType.IN, intBuffer(1), 0, 4);
+            nanoTime += 250;
+            journal.write(EventType.OUT, intBuffer(2), 0, 4);
+        }
+
+        final List<String> events = readEvents(file);
+
+        assertThat(events).containsExactly("IN 1000000000 1 4", "OUT 1000000250 2 4");
+    }
+
+    @Test
+    public void oldest_events_are_overwritten_when_ring_is_full() throws Exception {
+        final File file = new File(folder.getRoot(), "journal");
+        final int messageLength = 100;
+        final UnsafeBuffer message = new UnsafeBuffer(new byte[messageLength]);
+        final int events = 10 * CAPACITY / messageLength;
+        try (final EventJournal journal = new EventJournal(file, CAPACITY, clock)) {
+            for (int i = 0; i < events; i++) {
+                message.putInt(0, i);
+                journal.write(EventType.OUT, message, 0, messageLength);
+            }
+        }
+
+        final List<String> read = readEvents(file);
+
+        assertThat(read.size()).isBetween(CAPACITY / 128 - 1, CAPACITY / 128);
+        assertThat(read.get(read.size() - 1)).isEqualTo("OUT 1000000000 " + (events - 1) + " 100");
+        for (int i = 1; i < read.size(); i++) {
+            assertThat(value(read.get(i))).isEqualTo(value(read.get(i - 1)) + 1);
+        }
+    }
+
+    @Test
+    public void long_messages_are_truncated() throws Exception {
+        final File file = new File(folder.getRoot(), "journal");
+        final UnsafeBuffer message = new UnsafeBuffer(new byte[CAPACITY]);
+        message.putInt(0, 7);
+        try (final EventJournal journal = new EventJournal(file, CAPACITY, clock)) {
+            journal.write(EventType.IN, message, 0, CAPACITY);
+        }
+
+        final List<String> events = readEvents(file);
+
+        assertThat(events).containsExactly("IN 1000000000 7 " + CAPACITY + " truncated");
+    }
+
+    @Test
+    public void existing_journal_is_rolled_on_open() throws Exception {
+        final File file = new File(folder.getRoot(), "journal");
+        try (final EventJournal journal = new EventJournal(file, CAPACITY, clock)) {
+            journal.write(EventType.IN, intBuffer(1), 0, 4);
+        }
+        try (final EventJournal journal = new EventJournal(file, CAPACITY, clock)) {
+            journal.write(EventType.IN, intBuffer(2), 0, 4);
+        }
+
+        assertThat(readEvents(new File(folder.getRoot(), "journal.prev"))).containsExactly("IN 1000000000 1 4");
+        assertThat(readEvents(file)).containsExactly("IN 1000000000 2 4");
+    }
+
+    @Test
+    public void printer_decodes_messages() throws Exception {
+        final File file = new File(folder.getRoot(), "journal");
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[256]);
+        final VoteRequestEncoder voteRequestEncoder = new VoteRequestEncoder()
+                .wrapAndApplyHeader(buffer, 0, new MessageHeaderEncoder());
+        voteRequestEncoder.header().sourceId(1).destinationId(2).term(3);
+        voteRequestEncoder.lastLogKey().term(2).index(10);
+        try (final EventJournal journal = new EventJournal(file, CAPACITY, clock)) {
+            journal.write(EventType.OUT, buffer, 0, MessageHeaderEncoder.ENCODED_LENGTH + voteRequestEncoder.encodedLength());
+        }
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final EventJournalReader reader = new EventJournalReader(file)) {
+            reader.forEach(new EventJournalPrinter(new PrintStream(out, true)));
+        }
+
+        assertThat(out.toString()).startsWith("1970-01-01T00:00:01Z OUT ").contains("VoteRequest").contains("term=3");
+    }
+
+    private static UnsafeBuffer intBuffer(final int value) {
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[4]);
+        buffer.putInt(0, value);
+        return buffer;
+    }
+
+    private static int value(final String event) {
+        return Integer.parseInt(event.split(" ")[2]);
+    }
+
+    private static List<String> readEvents(final File file) {
+        final List<String> events = new ArrayList<>();
+        try (final EventJournalReader reader = new EventJournalReader(file)) {
+            reader.forEach((type, epochNanos, buffer, offset, length, messageLength) ->
+                    events.add(type + " " + epochNanos + " " + buffer.getInt(offset) + " " + messageLength +
+                            (length < messageLength ? " truncated" : "")));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.latency;
+
+import org.dev4fx.raft.timer.Clock;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HistogramEntryLatencyRecorderTest {
+    private long nanoTime = 1_000;
+    private final Clock clock = new Clock() {
+        @Override
+        public long currentTimeMillis() {
+            return 0;
+        }
+
+        @Override
+        public long nanoTime() {
+            return nanoTime;
+        }
+    };
+
+    private final HistogramEntryLatencyRecorder recorder = new HistogramEntryLatencyRecorder(clock, 3, 8,
+            TimeUnit.SECONDS.toNanos(1));
+
+    @Test
+    public void records_stage_latencies_of_appended_entries() throws Exception {
+        recorder.onAppended(0);
+        nanoTime += 100;
+        recorder.onAppended(1);
+        nanoTime += 100;
+        recorder.onPeerAck(1, 1);
+        nanoTime += 50;
+        recorder.onCommitted(1);
+        nanoTime += 20;
+        recorder.onApplied(0);
+        nanoTime += 10;
+        recorder.onApplied(1);
+
+        assertThat(recorder.histogram(LatencyStage.APPEND_TO_PEER_ACK).getTotalCount()).isEqualTo(2);
+        assertThat(recorder.histogram(LatencyStage.APPEND_TO_PEER_ACK).getMaxValue()).isEqualTo(200);
+        assertThat(recorder.histogram(LatencyStage.APPEND_TO_COMMIT).getMinValue()).isEqualTo(150);
+        assertThat(recorder.histogram(LatencyStage.COMMIT_TO_APPLY).getMinValue()).isEqualTo(20);
+        assertThat(recorder.histogram(LatencyStage.COMMIT_TO_APPLY).getMaxValue()).isEqualTo(30);
+        assertThat(recorder.histogram(LatencyStage.APPEND_TO_APPLY).getMaxValue()).isEqualTo(270);
+    }
+
+    @Test
+    public void repeated_acks_and_untracked_entries_are_ignored() throws Exception {
+        recorder.onAppended(5);
+        nanoTime += 100;
+        recorder.onPeerAck(2, 5);
+        recorder.onPeerAck(2, 5);
+        recorder.onPeerAck(0, 3);
+        recorder.onCommitted(3);
+
+        assertThat(recorder.histogram(LatencyStage.APPEND_TO_PEER_ACK).getTotalCount()).isEqualTo(1);
+        assertThat(recorder.histogram(LatencyStage.APPEND_TO_COMMIT).getTotalCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void onLeadershipAcquired_resets_peer_acks_and_commit_index_of_previous_term() throws Exception {
+        //given
+        for (int index = 0; index <= 5; index++) {
+            recorder.onAppended(index);
+        }
+        recorder.onPeerAck(1, 5);
+        recorder.onCommitted(5);
+        recorder.onAppended(6);
+        recorder.resetHistograms();
+
+        //when
+        recorder.onLeadershipAcquired();
+        recorder.onAppended(3);
+        recorder.onAppended(4);
+        nanoTime += 100;
+        recorder.onPeerAck(1, 4);
+        recorder.onCommitted(4);
+        recorder.onCommitted(6);
+
+        //then
+        assertThat(recorder.histogram(LatencyStage.APPEND_TO_PEER_ACK).getTotalCount()).isEqualTo(2);
+        assertThat(recorder.histogram(LatencyStage.APPEND_TO_PEER_ACK).getMaxValue()).isEqualTo(100);
+        assertThat(recorder.histogram(LatencyStage.APPEND_TO_COMMIT).getTotalCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void entries_overwritten_in_ring_are_ignored() throws Exception {
+        for (int index = 0; index < 20; index++) {
+            recorder.onAppended(index);
+        }
+        recorder.onCommitted(19);
+
+        assertThat(recorder.histogram(LatencyStage.APPEND_TO_COMMIT).getTotalCount()).isEqualTo(8);
+
+        recorder.resetHistograms();
+
+        assertThat(recorder.histogram(LatencyStage.APPEND_TO_COMMIT).getTotalCount()).isEqualTo(0);
+    }
+}
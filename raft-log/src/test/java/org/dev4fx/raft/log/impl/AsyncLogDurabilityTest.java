@@ -0,0 +1,104 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.log.impl;
+
+import org.dev4fx.raft.mmap.api.Processor;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncLogDurabilityTest {
+    @Mock
+    private FileChannel fileChannel;
+
+    private final List<Processor> processors = new ArrayList<>();
+    private final AtomicInteger signals = new AtomicInteger();
+
+    private AsyncLogDurability logDurability;
+
+    @Before
+    public void setUp() throws Exception {
+        logDurability = new AsyncLogDurability(new LogFlusher(Collections.singletonList(() -> fileChannel)), processors::add, signals::incrementAndGet);
+    }
+
+    @Test
+    public void requests_are_coalesced_into_single_force_by_registered_processor() throws Exception {
+        //when
+        logDurability.requestDurable(1, 10);
+        logDurability.requestDurable(2, 20);
+        logDurability.requestDurable(2, 20);
+
+        //then
+        assertThat(processors).hasSize(1);
+        assertThat(signals.get()).isEqualTo(2);
+        assertThat(logDurability.durableModificationCount()).isEqualTo(0);
+        assertThat(logDurability.durableSize()).isEqualTo(0);
+        verify(fileChannel, never()).force(anyBoolean());
+
+        //when
+        assertThat(processors.get(0).process()).isTrue();
+
+        //then
+        verify(fileChannel, times(1)).force(false);
+        assertThat(logDurability.durableModificationCount()).isEqualTo(2);
+        assertThat(logDurability.durableSize()).isEqualTo(20);
+
+        //when
+        assertThat(processors.get(0).process()).isFalse();
+
+        //then
+        verify(fileChannel, times(1)).force(false);
+    }
+
+    @Test
+    public void modification_without_size_change_is_forced() throws Exception {
+        //given
+        logDurability.requestDurable(1, 10);
+        processors.get(0).process();
+
+        //when - for instance vote in the header
+        logDurability.requestDurable(2, 10);
+        assertThat(processors.get(0).process()).isTrue();
+
+        //then
+        verify(fileChannel, times(2)).force(false);
+        assertThat(logDurability.durableModificationCount()).isEqualTo(2);
+        assertThat(logDurability.durableSize()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,213 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.log.impl;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.dev4fx.raft.log.api.LogDurability;
+import org.dev4fx.raft.log.api.PersistentState;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DurablePublisherTest {
+    @Mock
+    private PersistentState persistentState;
+
+    private final List<String> published = new ArrayList<>();
+    private final UnsafeBuffer messageBuffer = new UnsafeBuffer(new byte[64]);
+
+    private long durableModificationCount;
+    private long requestedModificationCount;
+    private long requestedSize;
+    private boolean backPressured;
+
+    private DurablePublisher durablePublisher;
+
+    @Before
+    public void setUp() throws Exception {
+        final LogDurability logDurability = new LogDurability() {
+            @Override
+            public void requestDurable(final long modificationCount, final long size) {
+                requestedModificationCount = modificationCount;
+                requestedSize = size;
+            }
+
+            @Override
+            public long durableModificationCount() {
+                return durableModificationCount;
+            }
+
+            @Override
+            public long durableSize() {
+                return requestedSize;
+            }
+        };
+        durablePublisher = new DurablePublisher((buffer, offset, length) -> {
+            if (backPressured) {
+                return false;
+            }
+            published.add(buffer.getStringWithoutLengthAscii(offset, length));
+            return true;
+        }, persistentState, logDurability, 64);
+    }
+
+    @Test
+    public void publish_publishes_directly_when_modifications_are_durable() throws Exception {
+        //given
+        durableModificationCount = 3;
+        when(persistentState.modificationCount()).thenReturn(3L);
+
+        //when
+        final boolean result = publish("response1");
+
+        //then
+        assertThat(result).isTrue();
+        assertThat(published).containsExactly("response1");
+        assertThat(requestedModificationCount).isEqualTo(0);
+        assertThat(durablePublisher.pendingBytes()).isEqualTo(0);
+    }
+
+    @Test
+    public void publish_holds_back_message_and_requests_durability_when_modifications_are_not_durable() throws Exception {
+        //given
+        durableModificationCount = 3;
+        when(persistentState.modificationCount()).thenReturn(5L);
+        when(persistentState.size()).thenReturn(12L);
+
+        //when
+        final boolean result = publish("response1");
+
+        //then
+        assertThat(result).isTrue();
+        assertThat(published).isEmpty();
+        assertThat(requestedModificationCount).isEqualTo(5);
+        assertThat(requestedSize).isEqualTo(12);
+        assertThat(durablePublisher.execute()).isFalse();
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    public void execute_releases_held_back_messages_in_order_once_durable() throws Exception {
+        //given
+        when(persistentState.modificationCount()).thenReturn(5L, 5L, 7L, 7L);
+        publish("response1");
+        publish("response2");
+        durableModificationCount = 7;
+        publish("response3");
+
+        //when
+        final boolean workDone = durablePublisher.execute();
+
+        //then
+        assertThat(workDone).isTrue();
+        assertThat(published).containsExactly("response1", "response2", "response3");
+        assertThat(durablePublisher.pendingBytes()).isEqualTo(0);
+    }
+
+    @Test
+    public void execute_releases_only_messages_of_durable_modifications() throws Exception {
+        //given
+        when(persistentState.modificationCount()).thenReturn(5L, 7L, 9L);
+        publish("response1");
+        publish("response2");
+        publish("response3");
+
+        //when
+        durableModificationCount = 8;
+        final boolean workDone = durablePublisher.execute();
+
+        //then
+        assertThat(workDone).isTrue();
+        assertThat(published).containsExactly("response1", "response2");
+
+        //when
+        durableModificationCount = 9;
+        durablePublisher.execute();
+
+        //then
+        assertThat(published).containsExactly("response1", "response2", "response3");
+    }
+
+    @Test
+    public void execute_retries_held_back_message_when_back_pressured() throws Exception {
+        //given
+        when(persistentState.modificationCount()).thenReturn(5L);
+        publish("response1");
+        durableModificationCount = 5;
+        backPressured = true;
+
+        //when
+        final boolean workDone = durablePublisher.execute();
+
+        //then
+        assertThat(workDone).isFalse();
+        assertThat(published).isEmpty();
+
+        //when
+        backPressured = false;
+        durablePublisher.execute();
+
+        //then
+        assertThat(published).containsExactly("response1");
+    }
+
+    @Test
+    public void pending_messages_are_compacted_and_buffer_expanded() throws Exception {
+        //given
+        long modificationCount = 1;
+        for (int round = 0; round < 20; round++) {
+            when(persistentState.modificationCount()).thenReturn(modificationCount, modificationCount + 1);
+            publish("first" + round);
+            publish("second" + round);
+            durableModificationCount = modificationCount;
+            durablePublisher.execute();
+            modificationCount++;
+        }
+
+        //when
+        durableModificationCount = modificationCount;
+        durablePublisher.execute();
+
+        //then
+        assertThat(published).hasSize(40);
+        for (int round = 0; round < 20; round++) {
+            assertThat(published.get(2 * round)).isEqualTo("first" + round);
+            assertThat(published.get(2 * round + 1)).isEqualTo("second" + round);
+        }
+    }
+
+    private boolean publish(final String message) {
+        final int length = messageBuffer.putStringWithoutLengthAscii(0, message);
+        return durablePublisher.publish(messageBuffer, 0, length);
+    }
+}
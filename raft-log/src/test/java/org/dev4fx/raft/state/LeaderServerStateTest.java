@@ -25,6 +25,9 @@ package org.dev4fx.raft.state;
 
 import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
+import org.dev4fx.raft.counters.ServerCounters;
+import org.dev4fx.raft.latency.EntryLatencyRecorder;
+import org.dev4fx.raft.log.api.LogDurability;
 import org.dev4fx.raft.log.api.PersistentState;
 import org.dev4fx.raft.sbe.*;
 import org.dev4fx.raft.timer.Timer;
@@ -42,7 +45,12 @@ import java.util.function.Consumer;
 import java.util.function.IntConsumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -67,6 +75,12 @@ public class LeaderServerStateTest {
     private AppendResponseDecoder appendResponseDecoder;
     @Mock
     private HeaderDecoder headerDecoder;
+    @Mock
+    private LogDurability logDurability;
+    @Mock
+    private ServerCounters serverCounters;
+    @Mock
+    private EntryLatencyRecorder entryLatencyRecorder;
 
 
     @Captor
@@ -371,8 +385,9 @@ public class LeaderServerStateTest {
         //then
         verify(persistentState).append(currentTerm, commandDecoderBuffer, 0, commandArray.length);
 
-        verify(peers).forEach(peerConsumerCaptor.capture());
-        peerConsumerCaptor.getValue().accept(peer);
+        //first match index lag update, then append request
+        verify(peers, times(2)).forEach(peerConsumerCaptor.capture());
+        peerConsumerCaptor.getAllValues().get(1).accept(peer);
 
         verify(publisher).publish(encoderBuffer, 0, 71);
 
@@ -382,5 +397,125 @@ public class LeaderServerStateTest {
         verify(timer).reset();
     }
 
+    @Test
+    public void onAppendResponse_holds_back_commit_index_until_own_entries_are_durable() throws Exception {
+        //given
+        final int currentTerm = 5;
+        final int peerServerId = 2;
+        final long prevLogIndex = 10;
+        final long majorityCommitIndex = 11;
+        final long durableSize = 10;
+        final VolatileState volatileState = new DefaultVolatileState();
+
+        when(logDurability.durableSize()).thenReturn(durableSize);
+        final LeaderServerState leaderServerState = durableLeaderServerState(volatileState);
+
+        when(appendResponseDecoder.header()).thenReturn(headerDecoder);
+        when(appendResponseDecoder.prevLogIndex()).thenReturn(prevLogIndex);
+        when(appendResponseDecoder.successful()).thenReturn(BooleanType.F);
+        when(headerDecoder.sourceId()).thenReturn(peerServerId);
+        when(peers.peer(peerServerId)).thenReturn(peer);
+        when(peer.heartbeatTimer()).thenReturn(timer);
+        when(persistentState.currentTerm()).thenReturn(currentTerm);
+        when(peers.majorityCommitIndex(anyLong(), anyInt(), any())).thenReturn(majorityCommitIndex);
+
+        //when
+        leaderServerState.onAppendResponse(appendResponseDecoder);
+
+        //then
+        assertThat(volatileState.commitIndex()).isEqualTo(durableSize - 1);
+    }
+
+    @Test
+    public void processTick_releases_commit_index_held_back_by_durability_when_durable_size_moves() throws Exception {
+        //given
+        final int currentTerm = 5;
+        final long majorityCommitIndex = 11;
+        final long[] durableSize = {0};
+        final VolatileState volatileState = new DefaultVolatileState();
+
+        when(logDurability.durableSize()).thenAnswer(invocation -> durableSize[0]);
+        final LeaderServerState leaderServerState = durableLeaderServerState(volatileState);
+
+        when(persistentState.currentTerm()).thenReturn(currentTerm);
+        when(peers.majorityCommitIndex(anyLong(), anyInt(), any())).thenReturn(majorityCommitIndex);
+
+        //when - nothing durable yet
+        leaderServerState.processTick();
+
+        //then
+        verify(peers, never()).majorityCommitIndex(anyLong(), anyInt(), any());
+        assertThat(volatileState.commitIndex()).isEqualTo(-1);
+
+        //when - part of the entries durable
+        durableSize[0] = 10;
+        leaderServerState.processTick();
+
+        //then
+        assertThat(volatileState.commitIndex()).isEqualTo(9);
 
-}
\ No newline at end of file
+        //when - all entries durable
+        durableSize[0] = 12;
+        leaderServerState.processTick();
+
+        //then
+        assertThat(volatileState.commitIndex()).isEqualTo(majorityCommitIndex);
+
+        //when - durable size unchanged
+        leaderServerState.processTick();
+
+        //then
+        verify(peers, times(2)).majorityCommitIndex(anyLong(), anyInt(), any());
+        assertThat(volatileState.commitIndex()).isEqualTo(majorityCommitIndex);
+    }
+
+    @Test
+    public void onCommandRequest_updates_peer_match_index_lag() throws Exception {
+        //given
+        final int peerServerId = 2;
+        final long lastIndex = 20;
+        final long peerMatchIndex = 17;
+        final LeaderServerState leaderServerState = new LeaderServerState(persistentState,
+                volatileState, peers, serverId, appendRequestEncoder,
+                messageHeaderEncoder, encoderBuffer, commandDecoderBuffer,
+                publisher, onLeaderTransitionHandler, maxBatchSize,
+                serverCounters, EntryLatencyRecorder.NO_OP, LogDurability.NONE);
+
+        when(persistentState.lastIndex()).thenReturn(lastIndex);
+        when(peer.serverId()).thenReturn(peerServerId);
+        when(peer.matchIndex()).thenReturn(peerMatchIndex);
+        when(peers.matchIndexPrecedingNextIndexAndEqualAtAllPeers()).thenReturn(Peer.NULL_INDEX);
+
+        //when
+        leaderServerState.onCommandRequest(commandDecoderBuffer, 0, 8);
+
+        //then
+        verify(peers, times(2)).forEach(peerConsumerCaptor.capture());
+        peerConsumerCaptor.getAllValues().get(0).accept(peer);
+        verify(serverCounters).peerMatchIndexLag(peerServerId, lastIndex - peerMatchIndex);
+    }
+
+    @Test
+    public void onTransition_resets_entry_latency_recorder() throws Exception {
+        //given
+        final LeaderServerState leaderServerState = new LeaderServerState(persistentState,
+                volatileState, peers, serverId, appendRequestEncoder,
+                messageHeaderEncoder, encoderBuffer, commandDecoderBuffer,
+                publisher, onLeaderTransitionHandler, maxBatchSize,
+                ServerCounters.NO_OP, entryLatencyRecorder, LogDurability.NONE);
+
+        //when
+        leaderServerState.onTransition();
+
+        //then
+        verify(entryLatencyRecorder).onLeadershipAcquired();
+    }
+
+    private LeaderServerState durableLeaderServerState(final VolatileState volatileState) {
+        return new LeaderServerState(persistentState,
+                volatileState, peers, serverId, appendRequestEncoder,
+                messageHeaderEncoder, encoderBuffer, commandDecoderBuffer,
+                publisher, onLeaderTransitionHandler, maxBatchSize,
+                ServerCounters.NO_OP, EntryLatencyRecorder.NO_OP, logDurability);
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.timer;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DefaultTimerTest {
+    private long nanoTime = 1_000_000;
+    private final Clock clock = new Clock() {
+        @Override
+        public long currentTimeMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanoTime);
+        }
+
+        @Override
+        public long nanoTime() {
+            return nanoTime;
+        }
+    };
+
+    @Test
+    public void hasTimeoutElapsed_with_microsecond_timeout() throws Exception {
+        final Timer timer = new DefaultTimer(clock, 200, 200, TimeUnit.MICROSECONDS);
+
+        nanoTime += 199_999;
+        assertThat(timer.hasTimeoutElapsed()).isFalse();
+
+        nanoTime += 1;
+        assertThat(timer.hasTimeoutElapsed()).isTrue();
+
+        timer.reset();
+        assertThat(timer.hasTimeoutElapsed()).isFalse();
+    }
+
+    @Test
+    public void restart_picks_random_timeout_within_range() throws Exception {
+        final long start = nanoTime;
+        for (int i = 0; i < 100; i++) {
+            nanoTime = start;
+            final Timer timer = new DefaultTimer(clock, 100, 150, TimeUnit.MICROSECONDS);
+            nanoTime += 99_999;
+            assertThat(timer.hasTimeoutElapsed()).isFalse();
+            nanoTime += 50_001;
+            assertThat(timer.hasTimeoutElapsed()).isTrue();
+        }
+    }
+
+    @Test
+    public void newTimeout_uses_full_range_for_large_nanosecond_ranges() throws Exception {
+        final long min = TimeUnit.SECONDS.toNanos(1);
+        final long max = TimeUnit.SECONDS.toNanos(10);
+        boolean aboveIntRange = false;
+        for (int i = 0; i < 100; i++) {
+            final long timeout = DefaultTimer.newTimeout(min, max);
+            assertThat(timeout).isBetween(min, max - 1);
+            aboveIntRange |= timeout - min > Integer.MAX_VALUE;
+        }
+        assertThat(aboveIntRange).isTrue();
+    }
+
+    @Test
+    public void timeoutNow_elapses_timer_until_restart() throws Exception {
+        final Timer timer = new DefaultTimer(clock, 10, 10, TimeUnit.MILLISECONDS);
+
+        timer.timeoutNow();
+        assertThat(timer.hasTimeoutElapsed()).isTrue();
+
+        timer.restart();
+        assertThat(timer.hasTimeoutElapsed()).isFalse();
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.timer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScheduledStepQueueTest {
+    private long nanoTime = 1_000;
+    private final Clock clock = new Clock() {
+        @Override
+        public long currentTimeMillis() {
+            return 0;
+        }
+
+        @Override
+        public long nanoTime() {
+            return nanoTime;
+        }
+    };
+    private final ScheduledStepQueue queue = new ScheduledStepQueue(clock);
+    private final List<String> executed = new ArrayList<>();
+
+    @Test
+    public void delayed_steps_are_executed_once_in_deadline_order() throws Exception {
+        queue.delayed(() -> executed.add("b"), 200, TimeUnit.NANOSECONDS);
+        queue.delayed(() -> executed.add("a"), 100, TimeUnit.NANOSECONDS);
+        queue.delayed(() -> executed.add("c"), 300, TimeUnit.NANOSECONDS);
+
+        assertThat(queue.execute()).isFalse();
+
+        nanoTime += 200;
+        assertThat(queue.execute()).isTrue();
+        assertThat(executed).containsExactly("a", "b");
+
+        nanoTime += 1000;
+        queue.execute();
+        queue.execute();
+        assertThat(executed).containsExactly("a", "b", "c");
+        assertThat(queue.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void fixed_rate_step_is_rescheduled_without_catching_up_missed_executions() throws Exception {
+        final ScheduledStepQueue.ScheduledStep step = queue.fixedRate(() -> executed.add("tick"), 10, 100, TimeUnit.NANOSECONDS);
+
+        nanoTime += 10;
+        queue.execute();
+        assertThat(executed).hasSize(1);
+        assertThat(step.deadlineNanos()).isEqualTo(1_110);
+
+        nanoTime += 550;
+        queue.execute();
+        assertThat(executed).hasSize(2);
+        assertThat(step.deadlineNanos()).isEqualTo(1_660);
+
+        nanoTime += 100;
+        queue.execute();
+        assertThat(executed).hasSize(3);
+        assertThat(step.isScheduled()).isTrue();
+    }
+
+    @Test
+    public void cancelled_steps_are_not_executed() throws Exception {
+        final ScheduledStepQueue.ScheduledStep first = queue.delayed(() -> executed.add("a"), 100, TimeUnit.NANOSECONDS);
+        final ScheduledStepQueue.ScheduledStep second = queue.fixedRate(() -> executed.add("b"), 50, 50, TimeUnit.NANOSECONDS);
+        queue.delayed(() -> executed.add("c"), 150, TimeUnit.NANOSECONDS);
+
+        assertThat(first.cancel()).isTrue();
+        assertThat(second.cancel()).isTrue();
+        assertThat(second.cancel()).isFalse();
+
+        nanoTime += 1000;
+        queue.execute();
+
+        assertThat(executed).containsExactly("c");
+        assertThat(first.isScheduled()).isFalse();
+    }
+}
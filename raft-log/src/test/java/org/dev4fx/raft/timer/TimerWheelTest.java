@@ -0,0 +1,162 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.timer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimerWheelTest {
+    private long time = 1000;
+    private TimerWheel timerWheel;
+
+    @Before
+    public void setUp() throws Exception {
+        timerWheel = new TimerWheel(() -> time, 1, TimeUnit.MILLISECONDS, 16);
+    }
+
+    @Test
+    public void timer_elapses_when_wheel_is_executed_after_timeout() throws Exception {
+        final Timer timer = timerWheel.newTimer(10, 10, TimeUnit.MILLISECONDS);
+
+        time += 9;
+        assertThat(timerWheel.execute()).isFalse();
+        assertThat(timer.hasTimeoutElapsed()).isFalse();
+
+        time += 1;
+        assertThat(timerWheel.execute()).isTrue();
+        assertThat(timer.hasTimeoutElapsed()).isTrue();
+    }
+
+    @Test
+    public void timer_elapses_when_timeout_exceeds_wheel_span() throws Exception {
+        final Timer timer = timerWheel.newTimer(100, 100, TimeUnit.MILLISECONDS);
+
+        for (int i = 0; i < 99; i++) {
+            time++;
+            timerWheel.execute();
+        }
+        assertThat(timer.hasTimeoutElapsed()).isFalse();
+
+        time++;
+        timerWheel.execute();
+        assertThat(timer.hasTimeoutElapsed()).isTrue();
+    }
+
+    @Test
+    public void reset_restarts_timeout_from_current_time() throws Exception {
+        final Timer timer = timerWheel.newTimer(10, 10, TimeUnit.MILLISECONDS);
+
+        time += 8;
+        timerWheel.execute();
+        timer.reset();
+
+        time += 8;
+        timerWheel.execute();
+        assertThat(timer.hasTimeoutElapsed()).isFalse();
+
+        time += 2;
+        timerWheel.execute();
+        assertThat(timer.hasTimeoutElapsed()).isTrue();
+
+        timer.reset();
+        assertThat(timer.hasTimeoutElapsed()).isFalse();
+    }
+
+    @Test
+    public void restart_picks_timeout_within_range() throws Exception {
+        final Timer timer = timerWheel.newTimer(10, 20, TimeUnit.MILLISECONDS);
+
+        time += 9;
+        timerWheel.execute();
+        assertThat(timer.hasTimeoutElapsed()).isFalse();
+
+        time += 11;
+        timerWheel.execute();
+        assertThat(timer.hasTimeoutElapsed()).isTrue();
+    }
+
+    @Test
+    public void timeoutNow_elapses_timer_until_restart() throws Exception {
+        final Timer timer = timerWheel.newTimer(10, 10, TimeUnit.MILLISECONDS);
+
+        timer.timeoutNow();
+        assertThat(timer.hasTimeoutElapsed()).isTrue();
+
+        timer.reset();
+        assertThat(timer.hasTimeoutElapsed()).isTrue();
+
+        timer.restart();
+        assertThat(timer.hasTimeoutElapsed()).isFalse();
+        time += 10;
+        timerWheel.execute();
+        assertThat(timer.hasTimeoutElapsed()).isTrue();
+    }
+
+    @Test
+    public void timers_expire_independently() throws Exception {
+        final Timer timer1 = timerWheel.newTimer(5, 5, TimeUnit.MILLISECONDS);
+        final Timer timer2 = timerWheel.newTimer(15, 15, TimeUnit.MILLISECONDS);
+
+        time += 5;
+        timerWheel.execute();
+        assertThat(timer1.hasTimeoutElapsed()).isTrue();
+        assertThat(timer2.hasTimeoutElapsed()).isFalse();
+
+        time += 10;
+        timerWheel.execute();
+        assertThat(timer2.hasTimeoutElapsed()).isTrue();
+    }
+
+    @Test
+    public void timer_elapses_with_microsecond_timeout() throws Exception {
+        final long[] nanoTime = {5_000};
+        final Clock nanoClock = new Clock() {
+            @Override
+            public long currentTimeMillis() {
+                return 0;
+            }
+
+            @Override
+            public long nanoTime() {
+                return nanoTime[0];
+            }
+        };
+        final TimerWheel microsWheel = new TimerWheel(nanoClock, 1, TimeUnit.MICROSECONDS, 64);
+        final Timer timer = microsWheel.newTimer(50, 50, TimeUnit.MICROSECONDS);
+
+        assertThat(microsWheel.tickResolutionNanos()).isEqualTo(1024);
+
+        nanoTime[0] += 49_999;
+        microsWheel.execute();
+        assertThat(timer.hasTimeoutElapsed()).isFalse();
+
+        nanoTime[0] += 1;
+        microsWheel.execute();
+        assertThat(timer.hasTimeoutElapsed()).isTrue();
+    }
+}
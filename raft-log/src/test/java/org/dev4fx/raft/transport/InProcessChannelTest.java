@@ -0,0 +1,170 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.transport;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.dev4fx.raft.state.MessageHandler;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class InProcessChannelTest {
+    private final InProcessChannel channel = new InProcessChannel(1024);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_throws_exception_when_capacity_is_not_power_of_two() throws Exception {
+        new InProcessChannel(1000);
+    }
+
+    @Test
+    public void publish_delivers_message_to_all_subscribers() throws Exception {
+        final List<Long> received1 = new ArrayList<>();
+        final List<Long> received2 = new ArrayList<>();
+        final Poller poller1 = PollerFactory.inProcessPollerFactory(channel).create(longCollector(received1), 10);
+        final Poller poller2 = PollerFactory.inProcessPollerFactory(channel).create(longCollector(received2), 10);
+        final Publisher publisher = Publisher.inProcessPublisher(channel);
+
+        assertThat(publisher.publish(longBuffer(7), 0, 8)).isTrue();
+        assertThat(publisher.publish(longBuffer(8), 0, 8)).isTrue();
+
+        assertThat(poller1.poll()).isTrue();
+        assertThat(poller1.poll()).isFalse();
+        assertThat(poller2.poll()).isTrue();
+
+        assertThat(received1).containsExactly(7L, 8L);
+        assertThat(received2).containsExactly(7L, 8L);
+    }
+
+    @Test
+    public void poll_respects_message_limit() throws Exception {
+        final List<Long> received = new ArrayList<>();
+        final Poller poller = channel.subscribe(longCollector(received), 1);
+
+        channel.publish(longBuffer(1), 0, 8);
+        channel.publish(longBuffer(2), 0, 8);
+
+        assertThat(poller.poll()).isTrue();
+        assertThat(received).containsExactly(1L);
+        assertThat(poller.poll()).isTrue();
+        assertThat(received).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void subscriber_does_not_receive_messages_published_before_subscription() throws Exception {
+        final List<Long> received = new ArrayList<>();
+        channel.publish(longBuffer(1), 0, 8);
+
+        final Poller poller = channel.subscribe(longCollector(received), 10);
+
+        assertThat(poller.poll()).isFalse();
+        assertThat(received).isEmpty();
+    }
+
+    @Test
+    public void publish_returns_false_when_subscriber_ring_is_full() throws Exception {
+        final List<Long> received = new ArrayList<>();
+        final Poller poller = channel.subscribe(longCollector(received), 1000);
+
+        int published = 0;
+        while (channel.publish(longBuffer(published), 0, 8)) {
+            published++;
+        }
+
+        assertThat(published).isGreaterThan(0);
+        assertThat(poller.poll()).isTrue();
+        assertThat(received).hasSize(published);
+        assertThat(channel.publish(longBuffer(published), 0, 8)).isTrue();
+    }
+
+    @Test
+    public void publish_writes_to_no_subscriber_when_one_subscriber_ring_is_full() throws Exception {
+        //given
+        final List<Long> received1 = new ArrayList<>();
+        final List<Long> received2 = new ArrayList<>();
+        final Poller poller1 = channel.subscribe(longCollector(received1), 1000);
+        final Poller poller2 = channel.subscribe(longCollector(received2), 1000);
+        int published = 0;
+        while (channel.publish(longBuffer(published), 0, 8)) {
+            published++;
+        }
+        assertThat(poller2.poll()).isTrue();
+        received2.clear();
+
+        //when
+        final boolean publishedWhileFull = channel.publish(longBuffer(published), 0, 8);
+
+        //then
+        assertThat(publishedWhileFull).isFalse();
+        assertThat(poller2.poll()).isFalse();
+        assertThat(received2).isEmpty();
+
+        //when
+        assertThat(poller1.poll()).isTrue();
+        final boolean publishedAfterDrain = channel.publish(longBuffer(published), 0, 8);
+
+        //then
+        assertThat(publishedAfterDrain).isTrue();
+        assertThat(poller2.poll()).isTrue();
+        assertThat(received2).containsExactly((long) published);
+        received1.clear();
+        assertThat(poller1.poll()).isTrue();
+        assertThat(received1).containsExactly((long) published);
+    }
+
+    @Test
+    public void publish_throws_exception_when_message_exceeds_max_message_length() throws Exception {
+        //given
+        final List<Long> received = new ArrayList<>();
+        final Poller poller = channel.subscribe(longCollector(received), 10);
+        final int maxMessageLength = channel.capacity() / 8;
+        final DirectBuffer message = new UnsafeBuffer(new byte[channel.capacity()]);
+
+        //when
+        assertThatThrownBy(() -> channel.publish(message, 0, maxMessageLength + 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("exceeds max message length " + maxMessageLength);
+        assertThatThrownBy(() -> channel.publish(message, 0, channel.capacity()))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        //then
+        assertThat(poller.poll()).isFalse();
+        assertThat(channel.publish(message, 0, maxMessageLength)).isTrue();
+        assertThat(poller.poll()).isTrue();
+    }
+
+    private static DirectBuffer longBuffer(final long value) {
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[8]);
+        buffer.putLong(0, value);
+        return buffer;
+    }
+
+    private static MessageHandler longCollector(final List<Long> received) {
+        return (buffer, offset, length) -> received.add(buffer.getLong(offset));
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.transport;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.dev4fx.raft.mmap.api.RegionFactory;
+import org.dev4fx.raft.mmap.api.RegionRingFactory;
+import org.dev4fx.raft.mmap.impl.MappedFile;
+import org.dev4fx.raft.state.MessageHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MappedQueueTransportTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MappedQueueTransport transport;
+
+    @Before
+    public void setUp() throws Exception {
+        final int regionSize = (int) MappedFile.REGION_SIZE_GRANULARITY;
+        transport = new MappedQueueTransport(folder.getRoot().getPath(), regionSize,
+                RegionRingFactory.forSync(RegionFactory.SYNC), 4, 1, regionSize * 64L);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        transport.close();
+    }
+
+    @Test
+    public void server_publisher_delivers_to_server_poller() throws Exception {
+        final List<Long> received = new ArrayList<>();
+        final Poller poller = transport.serverToPollerFactory().apply(1).create(longCollector(received), 10);
+        final Publisher publisher = transport.serverToPublisher().apply(1);
+
+        assertThat(poller.poll()).isFalse();
+
+        assertThat(publisher.publish(longBuffer(5), 0, 8)).isTrue();
+        assertThat(publisher.publish(longBuffer(6), 0, 8)).isTrue();
+
+        assertThat(poller.poll()).isTrue();
+        assertThat(poller.poll()).isFalse();
+        assertThat(received).containsExactly(5L, 6L);
+    }
+
+    @Test
+    public void poller_skips_messages_published_before_creation() throws Exception {
+        final List<Long> received = new ArrayList<>();
+        final Publisher publisher = transport.publisher("commands");
+        publisher.publish(longBuffer(1), 0, 8);
+
+        final Poller poller = transport.pollerFactory("commands").create(longCollector(received), 10);
+        publisher.publish(longBuffer(2), 0, 8);
+
+        assertThat(poller.poll()).isTrue();
+        assertThat(received).containsExactly(2L);
+    }
+
+    @Test
+    public void poller_polls_all_queues_up_to_message_limit() throws Exception {
+        final List<Long> received = new ArrayList<>();
+        final Poller poller = transport.pollerFactory("client1", "client2").create(longCollector(received), 2);
+        final Publisher publisher1 = transport.publisher("client1");
+        final Publisher publisher2 = transport.publisher("client2");
+
+        publisher1.publish(longBuffer(11), 0, 8);
+        publisher2.publish(longBuffer(21), 0, 8);
+        publisher2.publish(longBuffer(22), 0, 8);
+
+        assertThat(poller.poll()).isTrue();
+        assertThat(received).containsExactly(11L, 21L);
+        assertThat(poller.poll()).isTrue();
+        assertThat(received).containsExactly(11L, 21L, 22L);
+    }
+
+    @Test
+    public void messages_cross_region_boundaries() throws Exception {
+        final List<Long> received = new ArrayList<>();
+        final Poller poller = transport.pollerFactory("commands").create(longCollector(received), 1000);
+        final Publisher publisher = transport.publisher("commands");
+        final int messageLength = 160;
+        final UnsafeBuffer message = new UnsafeBuffer(new byte[messageLength]);
+        final int messages = (int) (3 * MappedFile.REGION_SIZE_GRANULARITY / messageLength);
+
+        for (int i = 0; i < messages; i++) {
+            message.putLong(0, i);
+            assertThat(publisher.publish(message, 0, messageLength)).isTrue();
+            assertThat(poller.poll()).isTrue();
+        }
+
+        assertThat(received).hasSize(messages);
+        for (int i = 0; i < messages; i++) {
+            assertThat(received.get(i)).isEqualTo(i);
+        }
+    }
+
+    private static DirectBuffer longBuffer(final long value) {
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[8]);
+        buffer.putLong(0, value);
+        return buffer;
+    }
+
+    private static MessageHandler longCollector(final List<Long> received) {
+        return (buffer, offset, length) -> received.add(buffer.getLong(offset));
+    }
+}
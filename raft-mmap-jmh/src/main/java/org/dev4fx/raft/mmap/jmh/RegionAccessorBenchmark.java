@@ -0,0 +1,200 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.jmh;
+
+import org.agrona.concurrent.BusySpinIdleStrategy;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.dev4fx.raft.mmap.api.FileSizeEnsurer;
+import org.dev4fx.raft.mmap.api.RegionAccessor;
+import org.dev4fx.raft.mmap.api.RegionRingFactory;
+import org.dev4fx.raft.mmap.impl.MappedFile;
+import org.dev4fx.raft.mmap.impl.RegionRingAccessor;
+import org.dev4fx.raft.process.MutableProcessStepChain;
+import org.dev4fx.raft.process.Process;
+import org.dev4fx.raft.process.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of a {@link RegionRingAccessor} over a file of fileSize bytes which is fully written once in setup.
+ * Positions wrap around to the start of the file when reaching the end. Async regions are mapped by a busy
+ * spinning region mapper thread.
+ * <p>
+ * Run with {@code gradle :raft-mmap-jmh:jmh}, which adds the gc profiler to report allocation rates; parameters
+ * can be narrowed with {@code -Pjmh="-p regionSize=1048576"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RegionAccessorBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RegionAccessorBenchmark.class);
+
+    private static final int MESSAGE_LENGTH = 64;
+    private static final int RANDOM_POSITIONS = 64 * 1024;
+
+    @Param({"SYNC", "ASYNC_ATOMIC_STATE_MACHINE", "ASYNC_VOLATILE_STATE_MACHINE", "ASYNC_ATOMIC_EXCHANGE", "FILE_CHANNEL"})
+    public RegionMappingConfig regionMappingConfig;
+
+    @Param({"65536", "1048576", "4194304"})
+    public int regionSize;
+
+    @Param({"4", "8"})
+    public int ringSize;
+
+    @Param({"0", "1", "2"})
+    public int regionsToMapAhead;
+
+    @Param({"67108864"})
+    public long fileSize;
+
+    private final UnsafeBuffer buffer = new UnsafeBuffer(0, 0);
+    private final long[] randomPositions = new long[RANDOM_POSITIONS];
+
+    private File file;
+    private RegionAccessor regionAccessor;
+    private Service.Stop regionMapper;
+
+    private long writePosition;
+    private long readPosition;
+    private long crossingPosition;
+    private int randomIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = File.createTempFile("regionAccessorBenchmark", ".dat");
+        final MappedFile mappedFile = new MappedFile(file, MappedFile.Mode.READ_WRITE_CLEAR, regionSize);
+        //regions are mapped ahead beyond the end of the file before positions wrap around
+        final long maxFileSize = fileSize + (long) ringSize * regionSize;
+
+        final MutableProcessStepChain processStepChain = new MutableProcessStepChain();
+        final RegionRingFactory regionRingFactory = regionMappingConfig.regionRingFactory(
+                processor -> processStepChain.thenStep(processor::process));
+
+        regionAccessor = new RegionRingAccessor(
+                regionRingFactory.create(
+                        ringSize,
+                        regionSize,
+                        mappedFile::getFileChannel,
+                        FileSizeEnsurer.forWritableFile(mappedFile::getFileLength, mappedFile::setFileLength, maxFileSize),
+                        mappedFile.getMode().getMapMode()),
+                regionSize,
+                regionsToMapAhead,
+                mappedFile::close);
+
+        regionMapper = new Process("RegionMapper",
+                () -> {}, () -> {},
+                new BusySpinIdleStrategy()::idle,
+                (s, e) -> LOGGER.error("{} {}", s, e, e),
+                10, TimeUnit.SECONDS,
+                processStepChain.getOrNoop()
+        ).start();
+
+        for (long position = 0; position < fileSize; position += MESSAGE_LENGTH) {
+            wrap(position);
+            buffer.putLong(0, position);
+        }
+
+        final Random random = new Random(42);
+        final int messages = (int) (fileSize / MESSAGE_LENGTH);
+        for (int i = 0; i < RANDOM_POSITIONS; i++) {
+            randomPositions[i] = (long) random.nextInt(messages) * MESSAGE_LENGTH;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        //stop the mapper first as closing the file fails its pending unmap requests
+        regionMapper.stop();
+        regionAccessor.close();
+        file.delete();
+    }
+
+    @Benchmark
+    public void sequentialWrite() {
+        wrap(writePosition);
+        buffer.putLong(0, writePosition);
+        writePosition = next(writePosition, MESSAGE_LENGTH);
+    }
+
+    @Benchmark
+    public long sequentialRead() {
+        wrap(readPosition);
+        final long value = buffer.getLong(0);
+        readPosition = next(readPosition, MESSAGE_LENGTH);
+        return value;
+    }
+
+    @Benchmark
+    public long randomRead() {
+        final long position = randomPositions[randomIndex];
+        randomIndex = (randomIndex + 1) & (RANDOM_POSITIONS - 1);
+        wrap(position);
+        return buffer.getLong(0);
+    }
+
+    /**
+     * Moves to the next region on every invocation, sampling the latency of region crossings including any
+     * wait for the region to be mapped.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public long regionCrossing() {
+        wrap(crossingPosition);
+        final long value = buffer.getLong(0);
+        crossingPosition = next(crossingPosition, regionSize);
+        return value;
+    }
+
+    private void wrap(final long position) {
+        if (!regionAccessor.wrap(position, buffer)) {
+            throw new IllegalStateException("Failed to wrap position " + position);
+        }
+    }
+
+    private long next(final long position, final int length) {
+        final long nextPosition = position + length;
+        return nextPosition < fileSize ? nextPosition : 0;
+    }
+}
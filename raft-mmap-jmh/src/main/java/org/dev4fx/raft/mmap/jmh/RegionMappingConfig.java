@@ -0,0 +1,77 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.jmh;
+
+import org.dev4fx.raft.mmap.api.AsyncRegion;
+import org.dev4fx.raft.mmap.api.Processor;
+import org.dev4fx.raft.mmap.api.RegionFactory;
+import org.dev4fx.raft.mmap.api.RegionRingFactory;
+
+import java.util.function.Consumer;
+
+public enum RegionMappingConfig {
+    SYNC {
+        @Override
+        public RegionRingFactory regionRingFactory(final Consumer<Processor> processorConsumer) {
+            return RegionRingFactory.forSync(RegionFactory.SYNC);
+        }
+    },
+    ASYNC_ATOMIC_STATE_MACHINE {
+        @Override
+        public RegionRingFactory regionRingFactory(final Consumer<Processor> processorConsumer) {
+            return async(RegionFactory.ASYNC_ATOMIC_STATE_MACHINE, processorConsumer);
+        }
+    },
+    ASYNC_VOLATILE_STATE_MACHINE {
+        @Override
+        public RegionRingFactory regionRingFactory(final Consumer<Processor> processorConsumer) {
+            return async(RegionFactory.ASYNC_VOLATILE_STATE_MACHINE, processorConsumer);
+        }
+    },
+    ASYNC_ATOMIC_EXCHANGE {
+        @Override
+        public RegionRingFactory regionRingFactory(final Consumer<Processor> processorConsumer) {
+            return async(RegionFactory.ASYNC_ATOMIC_EXCHANGE, processorConsumer);
+        }
+    },
+    FILE_CHANNEL {
+        @Override
+        public RegionRingFactory regionRingFactory(final Consumer<Processor> processorConsumer) {
+            return RegionRingFactory.forFileChannel(FILE_CHANNEL_MAX_IDLE_REGIONS);
+        }
+    };
+
+    private static final int FILE_CHANNEL_MAX_IDLE_REGIONS = 4;
+
+    /**
+     * @param processorConsumer - consumer of processors of async regions, to be run by the region mapper thread
+     * @return region ring factory for this config
+     */
+    public abstract RegionRingFactory regionRingFactory(Consumer<Processor> processorConsumer);
+
+    private static RegionRingFactory async(final RegionFactory<AsyncRegion> regionFactory,
+                                           final Consumer<Processor> processorConsumer) {
+        return RegionRingFactory.forAsync(regionFactory, processorConsumer, () -> {});
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.api;
+
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Validation and wiring shared by the async region factories of {@link RegionFactory}.
+ */
+final class AsyncRegionFactories {
+    @FunctionalInterface
+    interface AsyncRegionConstructor {
+        AsyncRegion create(Supplier<FileChannel> fileChannelSupplier,
+                           Region.IoMapper ioMapper,
+                           Region.IoUnMapper ioUnMapper,
+                           FileSizeEnsurer fileSizeEnsurer,
+                           FileChannel.MapMode mapMode,
+                           int length,
+                           long timeout,
+                           TimeUnit timeUnit,
+                           Runnable requestSignal,
+                           MapWaitStrategy mapWaitStrategy,
+                           MapWaitCounters mapWaitCounters);
+    }
+
+    private AsyncRegionFactories() {
+        throw new IllegalStateException("No instances");
+    }
+
+    static RegionFactory<AsyncRegion> create(final AsyncRegionConstructor constructor,
+                                             final Region.IoMapper ioMapper,
+                                             final Runnable requestSignal) {
+        return create(constructor, ioMapper, requestSignal, MapWaitStrategy.SPIN, 2, TimeUnit.SECONDS,
+                () -> MapWaitCounters.NO_OP);
+    }
+
+    static RegionFactory<AsyncRegion> create(final AsyncRegionConstructor constructor,
+                                             final Region.IoMapper ioMapper,
+                                             final Runnable requestSignal,
+                                             final MapWaitStrategy mapWaitStrategy,
+                                             final long timeout,
+                                             final TimeUnit timeUnit,
+                                             final Supplier<? extends MapWaitCounters> mapWaitCountersFactory) {
+        Objects.requireNonNull(constructor);
+        Objects.requireNonNull(ioMapper);
+        Objects.requireNonNull(requestSignal);
+        Objects.requireNonNull(mapWaitStrategy);
+        Objects.requireNonNull(timeUnit);
+        Objects.requireNonNull(mapWaitCountersFactory);
+        if (timeout <= 0) throw new IllegalArgumentException("Invalid timeout " + timeout);
+        return (size, fileChannelSupplier, fileSizeEnsurer, mapMode) -> constructor.create(fileChannelSupplier,
+                ioMapper, Region.IoUnMapper.DEFAULT, fileSizeEnsurer, mapMode, size,
+                timeout, timeUnit, requestSignal, mapWaitStrategy, mapWaitCountersFactory.get());
+    }
+}
@@ -34,26 +34,40 @@ public interface FileSizeEnsurer {
 
     boolean ensureSize(long minSize);
 
+    /**
+     * @return maximum size the file may be grown to
+     */
+    default long maxSize() {
+        return Long.MAX_VALUE;
+    }
 
     static FileSizeEnsurer forWritableFile(final LongSupplier fileSizeGetter, final LongConsumer fileSizeSetter, final long maxSize) {
         Objects.requireNonNull(fileSizeGetter);
         Objects.requireNonNull(fileSizeSetter);
         final MutableLong fileSize = new MutableLong(0);
 
-        return minSize -> {
-            if (fileSize.get() < minSize) {
-                final long len = fileSizeGetter.getAsLong();
-                if (len < minSize) {
-                    if (minSize > maxSize) {
-                        throw new IllegalStateException("Exceeded max file size " + maxSize + ", requested size " + minSize);
+        return new FileSizeEnsurer() {
+            @Override
+            public boolean ensureSize(final long minSize) {
+                if (fileSize.get() < minSize) {
+                    final long len = fileSizeGetter.getAsLong();
+                    if (len < minSize) {
+                        if (minSize > maxSize) {
+                            throw new IllegalStateException("Exceeded max file size " + maxSize + ", requested size " + minSize);
+                        }
+                        fileSizeSetter.accept(minSize);
+                        fileSize.set(minSize);
+                    } else {
+                        fileSize.set(len);
                     }
-                    fileSizeSetter.accept(minSize);
-                    fileSize.set(minSize);
-                } else {
-                    fileSize.set(len);
                 }
+                return true;
+            }
+
+            @Override
+            public long maxSize() {
+                return maxSize;
             }
-            return true;
         };
     }
 }
@@ -0,0 +1,109 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.api;
+
+import org.dev4fx.raft.mmap.impl.AsyncFlusher;
+import org.dev4fx.raft.mmap.impl.SyncFlusher;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Makes content written through mapped regions of a file durable. Callers request a flush up to a file
+ * position and poll {@link #durablePosition()} to find out when content up to that position has been
+ * written to the storage device.
+ */
+public interface Flusher {
+    /**
+     * Requests content of the file up to the given position to be flushed.
+     * In synchronous implementations the flush is performed before returning.
+     * In asynchronous implementations the flush is performed later; requests issued before the flush is
+     * performed are coalesced into a single flush up to the highest requested position.
+     *
+     * @param position - file position up to which content is to be made durable
+     */
+    void requestFlush(long position);
+
+    /**
+     * @return file position up to which the content of the file is durable
+     */
+    long durablePosition();
+
+    static Flusher forSync(final Supplier<FileChannel> fileChannelSupplier) {
+        return forSync(forceAction(fileChannelSupplier));
+    }
+
+    /**
+     * Sync flusher running the given flush action, which has to make all content written so far durable, for
+     * instance forcing several files; positions are then defined by the caller and only need to be increasing.
+     */
+    static Flusher forSync(final Runnable flushAction) {
+        return new SyncFlusher(flushAction);
+    }
+
+    /**
+     * Async flusher performing flushes in the processor registered with the given consumer, typically the
+     * same process which maps async regions.
+     */
+    static Flusher forAsync(final Supplier<FileChannel> fileChannelSupplier,
+                            final Consumer<Processor> processorConsumer) {
+        return forAsync(fileChannelSupplier, processorConsumer, () -> {});
+    }
+
+    static Flusher forAsync(final Supplier<FileChannel> fileChannelSupplier,
+                            final Consumer<Processor> processorConsumer,
+                            final Runnable requestSignal) {
+        return forAsync(forceAction(fileChannelSupplier), processorConsumer, requestSignal);
+    }
+
+    /**
+     * Async flusher running the given flush action in the processor registered with the given consumer, see
+     * {@link #forSync(Runnable)}.
+     */
+    static Flusher forAsync(final Runnable flushAction,
+                            final Consumer<Processor> processorConsumer,
+                            final Runnable requestSignal) {
+        Objects.requireNonNull(processorConsumer);
+        final AsyncFlusher flusher = new AsyncFlusher(flushAction, requestSignal);
+        processorConsumer.accept(flusher);
+        return flusher;
+    }
+
+    /**
+     * @return flush action forcing content of the file channel to the storage device
+     */
+    static Runnable forceAction(final Supplier<FileChannel> fileChannelSupplier) {
+        Objects.requireNonNull(fileChannelSupplier);
+        return () -> {
+            try {
+                fileChannelSupplier.get().force(false);
+            } catch (final IOException e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+}
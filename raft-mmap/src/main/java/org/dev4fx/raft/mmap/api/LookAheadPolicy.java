@@ -0,0 +1,45 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.api;
+
+/**
+ * Decides how many regions a region ring accessor maps ahead in the direction of travel.
+ */
+@FunctionalInterface
+public interface LookAheadPolicy {
+    /**
+     * Invoked by the accessor after it has moved to a different region.
+     *
+     * @param regionIndex - absolute index of the region moved to
+     * @param crossingTimeNanos - {@link System#nanoTime()} after the region was wrapped
+     * @param wrapNanos - time taken to wrap the region, including waiting for it to be mapped
+     * @return number of regions to map ahead, the accessor caps it at the ring length less one
+     */
+    int onRegionCrossing(long regionIndex, long crossingTimeNanos, long wrapNanos);
+
+    static LookAheadPolicy fixed(final int regionsToMapAhead) {
+        if (regionsToMapAhead < 0) throw new IllegalArgumentException("regionsToMapAhead " + regionsToMapAhead + " must not be negative");
+        return (regionIndex, crossingTimeNanos, wrapNanos) -> regionsToMapAhead;
+    }
+}
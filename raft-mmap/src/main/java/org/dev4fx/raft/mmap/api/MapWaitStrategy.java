@@ -0,0 +1,64 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.api;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Strategy of a thread accessing an async region while waiting for the region to be mapped by the mapper.
+ */
+@FunctionalInterface
+public interface MapWaitStrategy {
+    MapWaitStrategy SPIN = attempt -> {};
+    MapWaitStrategy YIELD = attempt -> Thread.yield();
+
+    /**
+     * Invoked after each unsuccessful attempt to access the region.
+     *
+     * @param attempt - number of unsuccessful attempts so far, starting at 1
+     */
+    void idle(int attempt);
+
+    static MapWaitStrategy park(final long parkNanos) {
+        if (parkNanos <= 0) throw new IllegalArgumentException("parkNanos " + parkNanos + " must be positive");
+        return attempt -> LockSupport.parkNanos(parkNanos);
+    }
+
+    /**
+     * Spins for maxSpins attempts, then yields for maxYields attempts and parks from then on.
+     */
+    static MapWaitStrategy backoff(final int maxSpins, final int maxYields, final long parkNanos) {
+        if (maxSpins < 0 || maxYields < 0) throw new IllegalArgumentException("Invalid maxSpins " + maxSpins + " or maxYields " + maxYields);
+        if (parkNanos <= 0) throw new IllegalArgumentException("parkNanos " + parkNanos + " must be positive");
+        return attempt -> {
+            if (attempt > maxSpins) {
+                if (attempt - maxSpins <= maxYields) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(parkNanos);
+                }
+            }
+        };
+    }
+}
@@ -23,12 +23,18 @@
  */
 package org.dev4fx.raft.mmap.api;
 
+import org.dev4fx.raft.mmap.impl.AnonymousMemory;
+import org.dev4fx.raft.mmap.impl.AnonymousMemoryRegion;
 import org.dev4fx.raft.mmap.impl.AsyncAtomicExchangeRegion;
 import org.dev4fx.raft.mmap.impl.AsyncAtomicStateMachineRegion;
 import org.dev4fx.raft.mmap.impl.AsyncVolatileStateMachineRegion;
+import org.dev4fx.raft.mmap.impl.DeferredUnMapper;
+import org.dev4fx.raft.mmap.impl.FileChannelRegion;
+import org.dev4fx.raft.mmap.impl.FileChannelRegionCache;
 import org.dev4fx.raft.mmap.impl.SyncRegion;
 
 import java.nio.channels.FileChannel;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
@@ -54,4 +60,105 @@ public interface RegionFactory<T extends Region> {
              FileSizeEnsurer fileSizeEnsurer,
              FileChannel.MapMode mapMode);
 
+    /**
+     * Async region factories invoking the given request signal from the accessing thread whenever a map or unmap
+     * request is issued, so that an idle mapper process can be woken up, for instance through
+     * {@code IdleStrategy.reset()}. Passing a {@link org.dev4fx.raft.mmap.impl.PreFaultingIoMapper} as mapper
+     * moves page faults of newly mapped regions to the mapping thread.
+     * <p>
+     * The accessing thread waits for a region to be mapped with the given wait strategy for up to the given
+     * timeout; the counters factory is invoked once per region so waits can be recorded per region, for
+     * instance with {@link org.dev4fx.raft.mmap.impl.MapWaitStatistics}.
+     */
+    static RegionFactory<AsyncRegion> asyncAtomicStateMachine(final Runnable requestSignal) {
+        return asyncAtomicStateMachine(Region.IoMapper.DEFAULT, requestSignal);
+    }
+
+    static RegionFactory<AsyncRegion> asyncAtomicStateMachine(final Region.IoMapper ioMapper, final Runnable requestSignal) {
+        return AsyncRegionFactories.create(AsyncAtomicStateMachineRegion::new, ioMapper, requestSignal);
+    }
+
+    static RegionFactory<AsyncRegion> asyncAtomicStateMachine(final Region.IoMapper ioMapper,
+                                                              final Runnable requestSignal,
+                                                              final MapWaitStrategy mapWaitStrategy,
+                                                              final long timeout,
+                                                              final TimeUnit timeUnit,
+                                                              final Supplier<? extends MapWaitCounters> mapWaitCountersFactory) {
+        return AsyncRegionFactories.create(AsyncAtomicStateMachineRegion::new, ioMapper, requestSignal,
+                mapWaitStrategy, timeout, timeUnit, mapWaitCountersFactory);
+    }
+
+    static RegionFactory<AsyncRegion> asyncVolatileStateMachine(final Runnable requestSignal) {
+        return asyncVolatileStateMachine(Region.IoMapper.DEFAULT, requestSignal);
+    }
+
+    static RegionFactory<AsyncRegion> asyncVolatileStateMachine(final Region.IoMapper ioMapper, final Runnable requestSignal) {
+        return AsyncRegionFactories.create(AsyncVolatileStateMachineRegion::new, ioMapper, requestSignal);
+    }
+
+    static RegionFactory<AsyncRegion> asyncVolatileStateMachine(final Region.IoMapper ioMapper,
+                                                                final Runnable requestSignal,
+                                                                final MapWaitStrategy mapWaitStrategy,
+                                                                final long timeout,
+                                                                final TimeUnit timeUnit,
+                                                                final Supplier<? extends MapWaitCounters> mapWaitCountersFactory) {
+        return AsyncRegionFactories.create(AsyncVolatileStateMachineRegion::new, ioMapper, requestSignal,
+                mapWaitStrategy, timeout, timeUnit, mapWaitCountersFactory);
+    }
+
+    static RegionFactory<AsyncRegion> asyncAtomicExchange(final Runnable requestSignal) {
+        return asyncAtomicExchange(Region.IoMapper.DEFAULT, requestSignal);
+    }
+
+    static RegionFactory<AsyncRegion> asyncAtomicExchange(final Region.IoMapper ioMapper, final Runnable requestSignal) {
+        return AsyncRegionFactories.create(AsyncAtomicExchangeRegion::new, ioMapper, requestSignal);
+    }
+
+    static RegionFactory<AsyncRegion> asyncAtomicExchange(final Region.IoMapper ioMapper,
+                                                          final Runnable requestSignal,
+                                                          final MapWaitStrategy mapWaitStrategy,
+                                                          final long timeout,
+                                                          final TimeUnit timeUnit,
+                                                          final Supplier<? extends MapWaitCounters> mapWaitCountersFactory) {
+        return AsyncRegionFactories.create(AsyncAtomicExchangeRegion::new, ioMapper, requestSignal,
+                mapWaitStrategy, timeout, timeUnit, mapWaitCountersFactory);
+    }
+
+    /**
+     * Sync region factory mapping on the accessing thread but handing addresses to unmap to the given
+     * deferred unmapper, which needs to be processed by a background thread.
+     */
+    static RegionFactory<Region> syncDeferredUnmapping(final DeferredUnMapper deferredUnMapper) {
+        Objects.requireNonNull(deferredUnMapper);
+        return (size, fileChannelSupplier, fileSizeEnsurer, mapMode) -> new SyncRegion(fileChannelSupplier,
+                Region.IoMapper.DEFAULT, deferredUnMapper, fileSizeEnsurer, mapMode, size);
+    }
+
+    /**
+     * Region factory for regions of the given anonymous memory; file channel, file size ensurer and map mode are
+     * ignored.
+     */
+    static RegionFactory<Region> anonymousMemory(final AnonymousMemory memory) {
+        Objects.requireNonNull(memory);
+        return (size, fileChannelSupplier, fileSizeEnsurer, mapMode) -> {
+            if (size != memory.regionSize()) {
+                throw new IllegalArgumentException("size " + size + " does not match anonymous memory region size " + memory.regionSize());
+            }
+            return new AnonymousMemoryRegion(memory);
+        };
+    }
+
+    /**
+     * Region factory for regions reading and writing the file through buffers of the given cache; the file
+     * channel passed to {@link #create} is ignored in favour of the one of the cache.
+     */
+    static RegionFactory<Region> fileChannel(final FileChannelRegionCache cache) {
+        Objects.requireNonNull(cache);
+        return (size, fileChannelSupplier, fileSizeEnsurer, mapMode) -> {
+            if (size != cache.regionSize()) {
+                throw new IllegalArgumentException("size " + size + " does not match region cache region size " + cache.regionSize());
+            }
+            return new FileChannelRegion(cache, fileSizeEnsurer, mapMode);
+        };
+    }
 }
@@ -23,6 +23,13 @@
  */
 package org.dev4fx.raft.mmap.api;
 
+import org.dev4fx.raft.mmap.impl.AnonymousMemory;
+import org.dev4fx.raft.mmap.impl.DeferredUnMapper;
+import org.dev4fx.raft.mmap.impl.FileChannelRegionCache;
+import org.dev4fx.raft.mmap.impl.PreAllocatingFileSizeEnsurer;
+import org.dev4fx.raft.mmap.impl.SharedMappingRegistry;
+import org.dev4fx.raft.mmap.impl.SharedRegion;
+
 import java.nio.channels.FileChannel;
 import java.util.Objects;
 import java.util.function.Consumer;
@@ -101,4 +108,121 @@ public interface RegionRingFactory {
         };
     }
 
+    /**
+     * Sync region ring factory deferring unmapping of regions to a single {@link DeferredUnMapper} which is
+     * registered with the given processor consumer, to be polled in a separate thread in batches.
+     */
+    static RegionRingFactory forSyncDeferredUnmapping(final Consumer<Processor> processorConsumer,
+                                                      final Runnable onComplete) {
+        Objects.requireNonNull(processorConsumer);
+        Objects.requireNonNull(onComplete);
+
+        final DeferredUnMapper deferredUnMapper = new DeferredUnMapper();
+        final RegionRingFactory regionRingFactory = forSync(RegionFactory.syncDeferredUnmapping(deferredUnMapper));
+        processorConsumer.accept(deferredUnMapper);
+
+        return new RegionRingFactory() {
+            @Override
+            public Region[] create(final int ringSize, final int regionSize, final Supplier<FileChannel> fileChannelSupplier, final FileSizeEnsurer fileSizeEnsurer, final FileChannel.MapMode mapMode) {
+                return regionRingFactory.create(ringSize, regionSize, fileChannelSupplier, fileSizeEnsurer, mapMode);
+            }
+
+            @Override
+            public void onComplete() {
+                onComplete.run();
+            }
+        };
+    }
+
+    /**
+     * Region ring factory creating regions which share mappings through the given registry. The file channel
+     * and map mode passed to {@link #create} are ignored in favour of those of the registry.
+     */
+    static RegionRingFactory forShared(final SharedMappingRegistry registry) {
+        Objects.requireNonNull(registry);
+
+        return (ringSize, regionSize, fileChannelSupplier, fileSizeEnsurer, mapMode) -> {
+            if (regionSize != registry.regionSize()) {
+                throw new IllegalArgumentException("regionSize " + regionSize + " does not match registry region size " + registry.regionSize());
+            }
+            final Region[] regions = new Region[ringSize];
+
+            for (int i = 0; i < ringSize; i++) {
+                regions[i] = new SharedRegion(registry, fileSizeEnsurer);
+            }
+            return regions;
+        };
+    }
+
+    /**
+     * Decorates the region ring factory to pre-allocate files ahead of need, see {@link PreAllocatingFileSizeEnsurer}.
+     * Pre-allocation of each file starts with a chunk the size of the ring and grows geometrically up to
+     * maxChunkSize; the pre-allocators are registered with the given processor consumer, which would
+     * typically be the one of the async regions.
+     */
+    static RegionRingFactory withPreAllocation(final RegionRingFactory regionRingFactory,
+                                               final Consumer<Processor> processorConsumer,
+                                               final long maxChunkSize,
+                                               final boolean zeroFill) {
+        Objects.requireNonNull(regionRingFactory);
+        Objects.requireNonNull(processorConsumer);
+
+        return new RegionRingFactory() {
+            @Override
+            public Region[] create(final int ringSize, final int regionSize, final Supplier<FileChannel> fileChannelSupplier, final FileSizeEnsurer fileSizeEnsurer, final FileChannel.MapMode mapMode) {
+                if (mapMode != FileChannel.MapMode.READ_WRITE) {
+                    return regionRingFactory.create(ringSize, regionSize, fileChannelSupplier, fileSizeEnsurer, mapMode);
+                }
+                final long initialChunkSize = Long.min((long) ringSize * regionSize, maxChunkSize);
+                final PreAllocatingFileSizeEnsurer preAllocatingFileSizeEnsurer = new PreAllocatingFileSizeEnsurer(
+                        fileSizeEnsurer, fileChannelSupplier, initialChunkSize, maxChunkSize, zeroFill);
+                processorConsumer.accept(preAllocatingFileSizeEnsurer);
+                return regionRingFactory.create(ringSize, regionSize, fileChannelSupplier, preAllocatingFileSizeEnsurer, mapMode);
+            }
+
+            @Override
+            public void onComplete() {
+                regionRingFactory.onComplete();
+            }
+        };
+    }
+
+    /**
+     * Region ring factory keeping all data in off-heap {@link AnonymousMemory} instead of the file, with a
+     * separate memory of up to maxSize bytes for each ring created; nothing is written to the file.
+     */
+    static RegionRingFactory forAnonymousMemory(final long maxSize) {
+        return (ringSize, regionSize, fileChannelSupplier, fileSizeEnsurer, mapMode) ->
+                forSync(RegionFactory.anonymousMemory(new AnonymousMemory(regionSize, maxSize)))
+                        .create(ringSize, regionSize, fileChannelSupplier, fileSizeEnsurer, mapMode);
+    }
+
+    /**
+     * Region ring factory for rings sharing the given anonymous memory, for instance the appender and the
+     * pollers of a queue.
+     */
+    static RegionRingFactory forAnonymousMemory(final AnonymousMemory memory) {
+        return forSync(RegionFactory.anonymousMemory(memory));
+    }
+
+    /**
+     * Region ring factory for rings sharing the given {@link FileChannelRegionCache}, for instance the appender
+     * and the pollers of a queue, or the log files whose cache has to be written back before the file is forced.
+     */
+    static RegionRingFactory forFileChannel(final FileChannelRegionCache cache) {
+        return forSync(RegionFactory.fileChannel(cache));
+    }
+
+    /**
+     * Region ring factory using positional file channel reads and writes instead of mapping the file, with a
+     * separate {@link FileChannelRegionCache} for each ring created caching up to maxIdleRegions released
+     * regions. Content is written to the file only when regions are evicted from the cache and when the ring
+     * is closed.
+     */
+    static RegionRingFactory forFileChannel(final int maxIdleRegions) {
+        if (maxIdleRegions < 0) throw new IllegalArgumentException("maxIdleRegions " + maxIdleRegions + " must not be negative");
+        return (ringSize, regionSize, fileChannelSupplier, fileSizeEnsurer, mapMode) ->
+                forFileChannel(new FileChannelRegionCache(fileChannelSupplier, regionSize, maxIdleRegions))
+                        .create(ringSize, regionSize, fileChannelSupplier, fileSizeEnsurer, mapMode);
+    }
 }
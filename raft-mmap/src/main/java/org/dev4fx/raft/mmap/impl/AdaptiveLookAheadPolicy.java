@@ -0,0 +1,104 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.dev4fx.raft.mmap.api.LookAheadPolicy;
+
+/**
+ * Look-ahead policy sizing the look-ahead from the observed access velocity. It keeps a moving average of the
+ * time between region crossings and maps ahead as many regions as are expected to be crossed within the
+ * look-ahead horizon, bounded by min and max regions.
+ * <p>
+ * A crossing taking longer than the stall threshold to wrap is counted as stall; it means that the mapper did not
+ * have the region ready in time, so the horizon is doubled. Crossings without stall let the horizon decay slowly
+ * back towards its initial value.
+ */
+public class AdaptiveLookAheadPolicy implements LookAheadPolicy {
+    private static final int AVERAGE_SHIFT = 3;
+    private static final int HORIZON_DECAY_SHIFT = 6;
+    private static final long MAX_HORIZON_NANOS = 1L << 40;
+
+    private final int minRegionsToMapAhead;
+    private final int maxRegionsToMapAhead;
+    private final long initialHorizonNanos;
+    private final long stallThresholdNanos;
+
+    private long horizonNanos;
+    private long lastCrossingTimeNanos;
+    private long averageCrossingIntervalNanos;
+    private int regionsToMapAhead;
+    private volatile long stalls;
+
+    public AdaptiveLookAheadPolicy(final int minRegionsToMapAhead,
+                                   final int maxRegionsToMapAhead,
+                                   final long initialHorizonNanos,
+                                   final long stallThresholdNanos) {
+        if (minRegionsToMapAhead < 0 || maxRegionsToMapAhead < minRegionsToMapAhead) {
+            throw new IllegalArgumentException("Invalid regions to map ahead range [" + minRegionsToMapAhead + ".." + maxRegionsToMapAhead + "]");
+        }
+        if (initialHorizonNanos <= 0 || initialHorizonNanos > MAX_HORIZON_NANOS) throw new IllegalArgumentException("Invalid initialHorizonNanos " + initialHorizonNanos);
+        if (stallThresholdNanos <= 0) throw new IllegalArgumentException("stallThresholdNanos " + stallThresholdNanos + " must be positive");
+        this.minRegionsToMapAhead = minRegionsToMapAhead;
+        this.maxRegionsToMapAhead = maxRegionsToMapAhead;
+        this.initialHorizonNanos = initialHorizonNanos;
+        this.stallThresholdNanos = stallThresholdNanos;
+        this.horizonNanos = initialHorizonNanos;
+        this.regionsToMapAhead = minRegionsToMapAhead;
+    }
+
+    @Override
+    public int onRegionCrossing(final long regionIndex, final long crossingTimeNanos, final long wrapNanos) {
+        if (wrapNanos >= stallThresholdNanos) {
+            stalls++;
+            horizonNanos = Long.min(horizonNanos << 1, MAX_HORIZON_NANOS);
+        } else if (horizonNanos > initialHorizonNanos) {
+            horizonNanos = Long.max(initialHorizonNanos, horizonNanos - (horizonNanos >> HORIZON_DECAY_SHIFT));
+        }
+        if (lastCrossingTimeNanos != 0) {
+            final long intervalNanos = Long.max(1, crossingTimeNanos - lastCrossingTimeNanos);
+            averageCrossingIntervalNanos = averageCrossingIntervalNanos == 0
+                    ? intervalNanos
+                    : averageCrossingIntervalNanos + ((intervalNanos - averageCrossingIntervalNanos) >> AVERAGE_SHIFT);
+            final long expectedCrossings = (horizonNanos + averageCrossingIntervalNanos - 1) / averageCrossingIntervalNanos;
+            regionsToMapAhead = (int) Long.min(maxRegionsToMapAhead, Long.max(minRegionsToMapAhead, expectedCrossings));
+        }
+        lastCrossingTimeNanos = crossingTimeNanos;
+        return regionsToMapAhead;
+    }
+
+    public int regionsToMapAhead() {
+        return regionsToMapAhead;
+    }
+
+    public long averageCrossingIntervalNanos() {
+        return averageCrossingIntervalNanos;
+    }
+
+    /**
+     * @return number of region crossings which took at least the stall threshold to wrap
+     */
+    public long stalls() {
+        return stalls;
+    }
+}
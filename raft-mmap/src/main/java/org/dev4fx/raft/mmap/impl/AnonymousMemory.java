@@ -0,0 +1,91 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.agrona.collections.Long2LongHashMap;
+
+import static org.agrona.UnsafeAccess.UNSAFE;
+
+/**
+ * Off-heap memory standing in for a file, for logs and queues that do not need to survive the process. Memory is
+ * allocated and zeroed lazily in blocks of region size; once allocated, a block keeps its address until the
+ * last {@link AnonymousMemoryRegion} using the memory is closed, at which point all blocks are freed.
+ */
+public class AnonymousMemory {
+    private static final long NULL = 0;
+
+    private final int regionSize;
+    private final long maxSize;
+    private final Long2LongHashMap regionAddresses = new Long2LongHashMap(NULL);
+
+    private int references;
+    private boolean freed;
+
+    public AnonymousMemory(final int regionSize, final long maxSize) {
+        if (Integer.bitCount(regionSize) != 1) throw new IllegalArgumentException("regionSize must be a power of two, but is " + regionSize);
+        if (maxSize < regionSize) throw new IllegalArgumentException("maxSize " + maxSize + " must not be less than regionSize " + regionSize);
+        this.regionSize = regionSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param regionStartPosition - position of the region, a multiple of region size
+     * @return address of the region, allocated if accessed for the first time
+     */
+    public synchronized long address(final long regionStartPosition) {
+        if (freed) throw new IllegalStateException("Anonymous memory has been freed");
+        if ((regionStartPosition & (regionSize - 1)) != 0) throw new IllegalArgumentException("Invalid regionStartPosition " + regionStartPosition);
+        if (regionStartPosition + regionSize > maxSize) {
+            throw new IllegalStateException("Exceeded max size " + maxSize + ", requested size " + (regionStartPosition + regionSize));
+        }
+        long address = regionAddresses.get(regionStartPosition);
+        if (address == NULL) {
+            address = UNSAFE.allocateMemory(regionSize);
+            UNSAFE.setMemory(address, regionSize, (byte) 0);
+            regionAddresses.put(regionStartPosition, address);
+        }
+        return address;
+    }
+
+    public int regionSize() {
+        return regionSize;
+    }
+
+    public synchronized long allocatedSize() {
+        return (long) regionAddresses.size() * regionSize;
+    }
+
+    synchronized void retain() {
+        if (freed) throw new IllegalStateException("Anonymous memory has been freed");
+        references++;
+    }
+
+    synchronized void release() {
+        if (--references == 0) {
+            regionAddresses.longForEach((position, address) -> UNSAFE.freeMemory(address));
+            regionAddresses.clear();
+            freed = true;
+        }
+    }
+}
@@ -26,6 +26,8 @@ package org.dev4fx.raft.mmap.impl;
 import org.agrona.DirectBuffer;
 import org.dev4fx.raft.mmap.api.AsyncRegion;
 import org.dev4fx.raft.mmap.api.FileSizeEnsurer;
+import org.dev4fx.raft.mmap.api.MapWaitCounters;
+import org.dev4fx.raft.mmap.api.MapWaitStrategy;
 import org.dev4fx.raft.mmap.api.Region;
 
 import java.nio.channels.FileChannel;
@@ -44,16 +46,23 @@ public class AsyncAtomicExchangeRegion implements AsyncRegion {
     private final FileChannel.MapMode mapMode;
     private final int length;
     private final long timeoutNanos;
+    private final Runnable requestSignal;
+    private final MapWaitStrategy mapWaitStrategy;
+    private final MapWaitCounters mapWaitCounters;
 
 
     private final AtomicLong requestPosition = new AtomicLong(NULL);
+    private final AtomicLong requestSequence = new AtomicLong();
     private final AtomicLong responseAddress = new AtomicLong(NULL);
+    private final AtomicLong responseSequence = new AtomicLong();
 
     private long readerPosition = NULL;
     private long readerAddress = NULL;
+    private long readerSequence;
 
     private long writerPosition = NULL;
     private long writerAddress = NULL;
+    private long writerSequence;
 
     public AsyncAtomicExchangeRegion(final Supplier<FileChannel> fileChannelSupplier,
                                      final IoMapper ioMapper,
@@ -63,6 +72,37 @@ public class AsyncAtomicExchangeRegion implements AsyncRegion {
                                      final int length,
                                      final long timeout,
                                      final TimeUnit timeUnits) {
+        this(fileChannelSupplier, ioMapper, ioUnMapper, fileSizeEnsurer, mapMode, length, timeout, timeUnits, () -> {});
+    }
+
+    public AsyncAtomicExchangeRegion(final Supplier<FileChannel> fileChannelSupplier,
+                                     final IoMapper ioMapper,
+                                     final IoUnMapper ioUnMapper,
+                                     final FileSizeEnsurer fileSizeEnsurer,
+                                     final FileChannel.MapMode mapMode,
+                                     final int length,
+                                     final long timeout,
+                                     final TimeUnit timeUnits,
+                                     final Runnable requestSignal) {
+        this(fileChannelSupplier, ioMapper, ioUnMapper, fileSizeEnsurer, mapMode, length, timeout, timeUnits, requestSignal,
+                MapWaitStrategy.SPIN, MapWaitCounters.NO_OP);
+    }
+
+    /**
+     * Creates the region with the given strategy of the accessing thread waiting for the region to be mapped,
+     * and counters recording the waits and timeouts.
+     */
+    public AsyncAtomicExchangeRegion(final Supplier<FileChannel> fileChannelSupplier,
+                                     final IoMapper ioMapper,
+                                     final IoUnMapper ioUnMapper,
+                                     final FileSizeEnsurer fileSizeEnsurer,
+                                     final FileChannel.MapMode mapMode,
+                                     final int length,
+                                     final long timeout,
+                                     final TimeUnit timeUnits,
+                                     final Runnable requestSignal,
+                                     final MapWaitStrategy mapWaitStrategy,
+                                     final MapWaitCounters mapWaitCounters) {
         this.fileChannelSupplier = Objects.requireNonNull(fileChannelSupplier);
         this.ioMapper = Objects.requireNonNull(ioMapper);
         this.ioUnMapper = Objects.requireNonNull(ioUnMapper);
@@ -70,6 +110,9 @@ public class AsyncAtomicExchangeRegion implements AsyncRegion {
         this.mapMode = Objects.requireNonNull(mapMode);
         this.length = length;
         this.timeoutNanos = timeUnits.toNanos(timeout);
+        this.requestSignal = Objects.requireNonNull(requestSignal);
+        this.mapWaitStrategy = Objects.requireNonNull(mapWaitStrategy);
+        this.mapWaitCounters = Objects.requireNonNull(mapWaitCounters);
     }
 
     @Override
@@ -88,7 +131,10 @@ public class AsyncAtomicExchangeRegion implements AsyncRegion {
         if (readerPosition == regionStartPosition) return true;
 
         readerPosition = NULL;
-        requestPosition.set(regionStartPosition); //can be lazy
+        if (requestPosition.get() != regionStartPosition) {
+            request(regionStartPosition);
+            requestSignal.run();
+        }
 
         return false;
     }
@@ -97,20 +143,41 @@ public class AsyncAtomicExchangeRegion implements AsyncRegion {
     public boolean unmap() {
         final boolean hadBeenUnmapped = readerPosition == NULL;
         readerPosition = NULL;
-        requestPosition.set(NULL); //can be lazy
+        if (requestPosition.get() != NULL) {
+            request(NULL);
+        }
+        if (!hadBeenUnmapped) requestSignal.run();
 
         return hadBeenUnmapped;
     }
 
+    /**
+     * Publishes the position before the sequence of the request, so that a response carrying the request sequence
+     * is for the requested position.
+     */
+    private void request(final long regionStartPosition) {
+        requestPosition.set(regionStartPosition); //can be lazy
+        requestSequence.set(++readerSequence);
+    }
+
     private boolean awaitMapped(final long regionStartPosition) {
         if (!map(regionStartPosition)) {
-            final long timeOutTimeNanos = System.nanoTime() + timeoutNanos;
-            long respAddress;
-            do {
-                if (timeOutTimeNanos <= System.nanoTime()) return false; // timeout
-                respAddress = responseAddress.get();
-            } while (readerAddress == respAddress);
+            final long startTimeNanos = System.nanoTime();
+            final long timeOutTimeNanos = startTimeNanos + timeoutNanos;
+            int attempt = 0;
+            //response address is published before response sequence, and only replaced on a subsequent request
+            while (responseSequence.get() != readerSequence) {
+                final long timeNanos = System.nanoTime();
+                if (timeOutTimeNanos <= timeNanos) { // timeout
+                    mapWaitCounters.timedOut(timeNanos - startTimeNanos);
+                    return false;
+                }
+                mapWaitStrategy.idle(++attempt);
+            }
+            mapWaitCounters.mapped(System.nanoTime() - startTimeNanos);
 
+            final long respAddress = responseAddress.get();
+            if (respAddress == NULL) return false;
             readerAddress = respAddress;
             readerPosition = regionStartPosition;
         }
@@ -119,19 +186,25 @@ public class AsyncAtomicExchangeRegion implements AsyncRegion {
 
     @Override
     public boolean process() {
-        final long reqPosition = requestPosition.get();
-        if (writerPosition != reqPosition) {
-            if (writerAddress != NULL) {
-                ioUnMapper.unmap(fileChannelSupplier.get(), writerAddress, length);
-                writerAddress = NULL;
-            }
-            if (reqPosition != NULL) {
-                if (fileSizeEnsurer.ensureSize(reqPosition + length)) {
-                    writerAddress = ioMapper.map(fileChannelSupplier.get(), mapMode, reqPosition, length);
+        final long reqSequence = requestSequence.get();
+        if (writerSequence != reqSequence) {
+            //read after the sequence, hence the requested position or a later one
+            final long reqPosition = requestPosition.get();
+            if (writerPosition != reqPosition) {
+                if (writerAddress != NULL) {
+                    ioUnMapper.unmap(fileChannelSupplier.get(), writerAddress, length);
+                    writerAddress = NULL;
+                }
+                if (reqPosition != NULL) {
+                    if (fileSizeEnsurer.ensureSize(reqPosition + length)) {
+                        writerAddress = ioMapper.map(fileChannelSupplier.get(), mapMode, reqPosition, length);
+                    }
                 }
+                writerPosition = reqPosition;
             }
-            writerPosition = reqPosition;
+            writerSequence = reqSequence;
             responseAddress.set(writerAddress); //can be lazy
+            responseSequence.set(reqSequence);
             return true;
         }
         return false;
@@ -27,6 +27,8 @@ import org.agrona.DirectBuffer;
 import org.dev4fx.raft.mmap.api.AsyncRegion;
 import org.dev4fx.raft.mmap.api.AsyncRegionState;
 import org.dev4fx.raft.mmap.api.FileSizeEnsurer;
+import org.dev4fx.raft.mmap.api.MapWaitCounters;
+import org.dev4fx.raft.mmap.api.MapWaitStrategy;
 import org.dev4fx.raft.mmap.api.Region;
 
 import java.nio.channels.FileChannel;
@@ -45,6 +47,9 @@ public class AsyncAtomicStateMachineRegion implements AsyncRegion {
     private final FileChannel.MapMode mapMode;
     private final int length;
     private final long timeoutNanos;
+    private final Runnable requestSignal;
+    private final MapWaitStrategy mapWaitStrategy;
+    private final MapWaitCounters mapWaitCounters;
 
     private final UnmappedRegionState unmapped;
     private final MapRequestedRegionState mapRequested;
@@ -65,6 +70,37 @@ public class AsyncAtomicStateMachineRegion implements AsyncRegion {
                                          final int length,
                                          final long timeout,
                                          final TimeUnit timeUnits) {
+        this(fileChannelSupplier, ioMapper, ioUnMapper, fileSizeEnsurer, mapMode, length, timeout, timeUnits, () -> {});
+    }
+
+    public AsyncAtomicStateMachineRegion(final Supplier<FileChannel> fileChannelSupplier,
+                                         final IoMapper ioMapper,
+                                         final IoUnMapper ioUnMapper,
+                                         final FileSizeEnsurer fileSizeEnsurer,
+                                         final FileChannel.MapMode mapMode,
+                                         final int length,
+                                         final long timeout,
+                                         final TimeUnit timeUnits,
+                                         final Runnable requestSignal) {
+        this(fileChannelSupplier, ioMapper, ioUnMapper, fileSizeEnsurer, mapMode, length, timeout, timeUnits, requestSignal,
+                MapWaitStrategy.SPIN, MapWaitCounters.NO_OP);
+    }
+
+    /**
+     * Creates the region with the given strategy of the accessing thread waiting for the region to be mapped,
+     * and counters recording the waits and timeouts.
+     */
+    public AsyncAtomicStateMachineRegion(final Supplier<FileChannel> fileChannelSupplier,
+                                         final IoMapper ioMapper,
+                                         final IoUnMapper ioUnMapper,
+                                         final FileSizeEnsurer fileSizeEnsurer,
+                                         final FileChannel.MapMode mapMode,
+                                         final int length,
+                                         final long timeout,
+                                         final TimeUnit timeUnits,
+                                         final Runnable requestSignal,
+                                         final MapWaitStrategy mapWaitStrategy,
+                                         final MapWaitCounters mapWaitCounters) {
         this.fileChannelSupplier = Objects.requireNonNull(fileChannelSupplier);
         this.ioMapper = Objects.requireNonNull(ioMapper);
         this.ioUnMapper = Objects.requireNonNull(ioUnMapper);
@@ -72,6 +108,9 @@ public class AsyncAtomicStateMachineRegion implements AsyncRegion {
         this.mapMode = Objects.requireNonNull(mapMode);
         this.length = length;
         this.timeoutNanos = timeUnits.toNanos(timeout);
+        this.requestSignal = Objects.requireNonNull(requestSignal);
+        this.mapWaitStrategy = Objects.requireNonNull(mapWaitStrategy);
+        this.mapWaitCounters = Objects.requireNonNull(mapWaitCounters);
 
         this.unmapped = new UnmappedRegionState();
         this.mapRequested = new MapRequestedRegionState();
@@ -92,11 +131,19 @@ public class AsyncAtomicStateMachineRegion implements AsyncRegion {
     }
 
     private boolean awaitMapped(final long position) {
-        if (this.position != position) {
-            final long timeOutTimeNanos = System.nanoTime() + timeoutNanos;
-            while (!map(position)) {
-                if (timeOutTimeNanos <= System.nanoTime()) return false;
-            }
+        if (this.position != position && !map(position)) {
+            final long startTimeNanos = System.nanoTime();
+            final long timeOutTimeNanos = startTimeNanos + timeoutNanos;
+            int attempt = 0;
+            do {
+                final long timeNanos = System.nanoTime();
+                if (timeOutTimeNanos <= timeNanos) {
+                    mapWaitCounters.timedOut(timeNanos - startTimeNanos);
+                    return false;
+                }
+                mapWaitStrategy.idle(++attempt);
+            } while (!map(position));
+            mapWaitCounters.mapped(System.nanoTime() - startTimeNanos);
         }
         return true;
     }
@@ -125,14 +172,20 @@ public class AsyncAtomicStateMachineRegion implements AsyncRegion {
     public boolean map(final long position) {
         final AsyncRegionState readState = this.currentState.get();
         final AsyncRegionState nextState = readState.requestMap(position);
-        if (readState != nextState) this.currentState.set(nextState);
+        if (readState != nextState) {
+            this.currentState.set(nextState);
+            if (nextState == mapRequested) requestSignal.run();
+        }
         return nextState == mapped;
     }
 
     public boolean unmap() {
         final AsyncRegionState readState = this.currentState.get();
         final AsyncRegionState nextState = readState.requestUnmap();
-        if (readState != nextState) this.currentState.set(nextState);
+        if (readState != nextState) {
+            this.currentState.set(nextState);
+            if (nextState == unmapRequested) requestSignal.run();
+        }
         return nextState == unmapped;
     }
 
@@ -0,0 +1,79 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.dev4fx.raft.mmap.api.Flusher;
+import org.dev4fx.raft.mmap.api.Processor;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flusher performing flushes in {@link #process()}. Any number of threads may request flushes; the flush action
+ * makes all content written so far durable, for instance by forcing the file channel, hence the highest requested
+ * position is flushed once and adjacent requests share a single flush.
+ */
+public class AsyncFlusher implements Flusher, Processor {
+    private final Runnable flushAction;
+    private final Runnable requestSignal;
+
+    private final AtomicLong requestedPosition = new AtomicLong();
+    private final AtomicLong durablePosition = new AtomicLong();
+
+    public AsyncFlusher(final Runnable flushAction) {
+        this(flushAction, () -> {});
+    }
+
+    public AsyncFlusher(final Runnable flushAction, final Runnable requestSignal) {
+        this.flushAction = Objects.requireNonNull(flushAction);
+        this.requestSignal = Objects.requireNonNull(requestSignal);
+    }
+
+    @Override
+    public void requestFlush(final long position) {
+        long current;
+        while (position > (current = requestedPosition.get())) {
+            if (requestedPosition.compareAndSet(current, position)) {
+                requestSignal.run();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public long durablePosition() {
+        return durablePosition.get();
+    }
+
+    @Override
+    public boolean process() {
+        final long position = requestedPosition.get();
+        if (position > durablePosition.get()) {
+            flushAction.run();
+            durablePosition.lazySet(position);
+            return true;
+        }
+        return false;
+    }
+}
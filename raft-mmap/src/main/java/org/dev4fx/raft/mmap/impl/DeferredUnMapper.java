@@ -0,0 +1,109 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.dev4fx.raft.mmap.api.Processor;
+import org.dev4fx.raft.mmap.api.Region;
+
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Unmapper deferring unmap calls to {@link #process()}, so that regions mapping synchronously on a latency
+ * sensitive thread only pay for the map call while unmapping happens in batches on a background thread.
+ * <p>
+ * {@link #unmap(FileChannel, long, long)} may be invoked by any thread, {@link #process()} by a single
+ * thread only. Addresses passed for unmapping must no longer be accessed by the caller.
+ */
+public class DeferredUnMapper implements Region.IoUnMapper, Processor {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Region.IoUnMapper delegate;
+
+    private Batch pending = new Batch();
+    private Batch spare = new Batch();
+
+    public DeferredUnMapper() {
+        this(Region.IoUnMapper.DEFAULT);
+    }
+
+    public DeferredUnMapper(final Region.IoUnMapper delegate) {
+        this.delegate = Objects.requireNonNull(delegate);
+    }
+
+    @Override
+    public void unmap(final FileChannel fileChannel, final long address, final long length) {
+        synchronized (this) {
+            pending.add(fileChannel, address, length);
+        }
+    }
+
+    @Override
+    public boolean process() {
+        final Batch batch;
+        synchronized (this) {
+            if (pending.size == 0) {
+                return false;
+            }
+            batch = pending;
+            pending = spare;
+            spare = batch;
+        }
+        for (int i = 0; i < batch.size; i++) {
+            delegate.unmap(batch.fileChannels[i], batch.addresses[i], batch.lengths[i]);
+        }
+        batch.clear();
+        return true;
+    }
+
+    public synchronized int pendingUnmaps() {
+        return pending.size;
+    }
+
+    private static final class Batch {
+        private FileChannel[] fileChannels = new FileChannel[INITIAL_CAPACITY];
+        private long[] addresses = new long[INITIAL_CAPACITY];
+        private long[] lengths = new long[INITIAL_CAPACITY];
+        private int size;
+
+        private void add(final FileChannel fileChannel, final long address, final long length) {
+            if (size == addresses.length) {
+                final int capacity = size << 1;
+                fileChannels = Arrays.copyOf(fileChannels, capacity);
+                addresses = Arrays.copyOf(addresses, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            fileChannels[size] = fileChannel;
+            addresses[size] = address;
+            lengths[size] = length;
+            size++;
+        }
+
+        private void clear() {
+            Arrays.fill(fileChannels, 0, size, null);
+            size = 0;
+        }
+    }
+}
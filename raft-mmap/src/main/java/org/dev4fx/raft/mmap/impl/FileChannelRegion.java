@@ -0,0 +1,113 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.agrona.DirectBuffer;
+import org.dev4fx.raft.mmap.api.FileSizeEnsurer;
+import org.dev4fx.raft.mmap.api.Region;
+
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+
+/**
+ * Region serving wraps from off-heap buffers of a {@link FileChannelRegionCache} rather than from a mapping
+ * of the file, avoiding page faults and dirty page writeback of memory mapped files. Wraps through a region
+ * of {@link FileChannel.MapMode#READ_WRITE} mode mark the buffer to be written back to the file.
+ */
+public class FileChannelRegion implements Region {
+    private static final long NULL = -1;
+
+    private final FileChannelRegionCache cache;
+    private final FileSizeEnsurer fileSizeEnsurer;
+    private final boolean writable;
+    private final int length;
+
+    private long currentPosition = NULL;
+    private FileChannelRegionCache.Block currentBlock;
+    private boolean closed;
+
+    public FileChannelRegion(final FileChannelRegionCache cache,
+                             final FileSizeEnsurer fileSizeEnsurer,
+                             final FileChannel.MapMode mapMode) {
+        this.cache = Objects.requireNonNull(cache);
+        this.fileSizeEnsurer = Objects.requireNonNull(fileSizeEnsurer);
+        this.writable = Objects.requireNonNull(mapMode) == FileChannel.MapMode.READ_WRITE;
+        this.length = cache.regionSize();
+        cache.retain();
+    }
+
+    @Override
+    public boolean wrap(final long position, final DirectBuffer source) {
+        final int regionOffset = (int) (position & (this.length - 1));
+        final long regionStartPosition = position - regionOffset;
+        if (map(regionStartPosition)) {
+            if (writable) {
+                currentBlock.wrapped(regionOffset);
+            }
+            source.wrap(currentBlock.address + regionOffset, this.length - regionOffset);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean map(final long regionStartPosition) {
+        if (regionStartPosition < 0) throw new IllegalArgumentException("Invalid regionStartPosition " + regionStartPosition);
+
+        if (currentPosition == regionStartPosition) return true;
+
+        unmap();
+        if (fileSizeEnsurer.ensureSize(regionStartPosition + length)) {
+            currentBlock = cache.acquire(regionStartPosition);
+            currentPosition = regionStartPosition;
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean unmap() {
+        if (currentPosition != NULL) {
+            cache.release(currentBlock);
+            currentBlock = null;
+            currentPosition = NULL;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        unmap();
+        if (!closed) {
+            closed = true;
+            cache.close();
+        }
+    }
+
+    @Override
+    public int size() {
+        return length;
+    }
+}
@@ -0,0 +1,314 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.agrona.BufferUtil;
+import org.agrona.collections.Long2ObjectHashMap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Supplier;
+
+import static org.agrona.UnsafeAccess.UNSAFE;
+
+/**
+ * Off-heap region buffers of a single file, read with positional {@link FileChannel#read(ByteBuffer, long)}
+ * and written back with positional {@link FileChannel#write(ByteBuffer, long)} instead of memory mapping
+ * the file. Any number of {@link FileChannelRegion}s, possibly used by different accessors and threads,
+ * acquire the same buffer of a region, so writes through one region are visible through all others.
+ * <p>
+ * Buffers are reference counted. Released buffers stay cached until more than maxIdleRegions are idle, then
+ * the least recently released buffer is evicted, writing back its content if it has been wrapped by a
+ * writable region. As writes through wrapped buffers cannot be tracked, a buffer is written back from the
+ * lowest offset wrapped by a writable region since it has last been written back up to where both buffer and
+ * file content are zero; writers are therefore expected to write at or after the offset they have last
+ * wrapped, and there should be a single writer per file. Content is written to the file only on eviction,
+ * {@link #writeBack()} and when the last region using the cache is closed, hence {@link #writeBack()} has to
+ * be invoked before forcing the file channel. Finding the end of the content scans the buffer backwards, so
+ * frequent write backs favour small regions.
+ */
+public class FileChannelRegionCache {
+    private static final int ALIGNMENT = 4096;
+    private static final AtomicIntegerFieldUpdater<Block> DIRTY_FROM_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(Block.class, "dirtyFrom");
+
+    private final Supplier<FileChannel> fileChannelSupplier;
+    private final int regionSize;
+    private final int maxIdleRegions;
+    private final Long2ObjectHashMap<Block> blocks = new Long2ObjectHashMap<>();
+    private final ArrayDeque<ByteBuffer> freeBuffers = new ArrayDeque<>();
+
+    private Block idleHead;
+    private Block idleTail;
+    private int idleRegions;
+    private long regionReads;
+    private long regionWrites;
+    private int references;
+    private boolean closed;
+
+    public FileChannelRegionCache(final Supplier<FileChannel> fileChannelSupplier,
+                                  final int regionSize,
+                                  final int maxIdleRegions) {
+        if (Integer.bitCount(regionSize) != 1) throw new IllegalArgumentException("regionSize must be a power of two, but is " + regionSize);
+        if (maxIdleRegions < 0) throw new IllegalArgumentException("maxIdleRegions " + maxIdleRegions + " must not be negative");
+        this.fileChannelSupplier = Objects.requireNonNull(fileChannelSupplier);
+        this.regionSize = regionSize;
+        this.maxIdleRegions = maxIdleRegions;
+    }
+
+    /**
+     * Reads the region into a buffer if it is not cached yet and adds a reference to it.
+     *
+     * @param regionStartPosition - start position of the region, must be aligned with the region size
+     * @return buffer of the region
+     */
+    synchronized Block acquire(final long regionStartPosition) {
+        if (closed) throw new IllegalStateException("Region cache has been closed");
+        if (regionStartPosition < 0 || (regionStartPosition & (regionSize - 1)) != 0) {
+            throw new IllegalArgumentException("Invalid regionStartPosition " + regionStartPosition);
+        }
+        Block block = blocks.get(regionStartPosition);
+        if (block == null) {
+            final ByteBuffer buffer = freeBuffers.isEmpty() ? BufferUtil.allocateDirectAligned(regionSize, ALIGNMENT) : freeBuffers.pop();
+            block = new Block(buffer, regionStartPosition, regionSize);
+            read(block);
+            blocks.put(regionStartPosition, block);
+        } else if (block.references == 0) {
+            unlinkIdle(block);
+        }
+        block.references++;
+        return block;
+    }
+
+    /**
+     * Removes a reference to the region buffer and evicts the least recently released buffers if more than
+     * maxIdleRegions are idle.
+     *
+     * @param block - previously acquired buffer
+     */
+    synchronized void release(final Block block) {
+        if (block.references <= 0 || blocks.get(block.position) != block) {
+            throw new IllegalStateException("Region at position " + block.position + " has not been acquired");
+        }
+        if (--block.references == 0) {
+            linkIdle(block);
+            while (idleRegions > maxIdleRegions) {
+                evict(idleHead);
+            }
+        }
+    }
+
+    /**
+     * Writes back content of all buffers wrapped by writable regions since they have last been written back.
+     * Buffers which are still acquired remain to be written back again from the offset they have last been
+     * wrapped at, as they may still be written to.
+     */
+    public synchronized void writeBack() {
+        for (final Block block : blocks.values()) {
+            if (block.dirtyFrom < regionSize) {
+                final int dirtyFrom = DIRTY_FROM_UPDATER.getAndSet(block, regionSize);
+                //read after dirtyFrom has been reset so that writes before a later wrap are written now
+                final int lastWrapOffset = block.lastWrapOffset;
+                write(block, dirtyFrom);
+                if (block.references > 0) {
+                    DIRTY_FROM_UPDATER.accumulateAndGet(block, lastWrapOffset, Math::min);
+                }
+            }
+        }
+    }
+
+    public int regionSize() {
+        return regionSize;
+    }
+
+    public synchronized int cachedRegions() {
+        return blocks.size();
+    }
+
+    /**
+     * @return number of regions read from the file
+     */
+    public synchronized long regionReads() {
+        return regionReads;
+    }
+
+    /**
+     * @return number of region writes to the file
+     */
+    public synchronized long regionWrites() {
+        return regionWrites;
+    }
+
+    synchronized void retain() {
+        if (closed) throw new IllegalStateException("Region cache has been closed");
+        references++;
+    }
+
+    /**
+     * Removes a reference to the cache; the last one writes back all buffers and drops them.
+     */
+    synchronized void close() {
+        if (--references == 0) {
+            writeBack();
+            blocks.clear();
+            freeBuffers.clear();
+            idleHead = null;
+            idleTail = null;
+            idleRegions = 0;
+            closed = true;
+        }
+    }
+
+    private void evict(final Block block) {
+        unlinkIdle(block);
+        if (block.dirtyFrom < regionSize) {
+            write(block, block.dirtyFrom);
+        }
+        blocks.remove(block.position);
+        freeBuffers.push(block.buffer);
+    }
+
+    private void read(final Block block) {
+        final ByteBuffer buffer = block.buffer;
+        buffer.clear();
+        try {
+            final FileChannel fileChannel = fileChannelSupplier.get();
+            while (buffer.hasRemaining()) {
+                if (fileChannel.read(buffer, block.position + buffer.position()) < 0) {
+                    break;
+                }
+            }
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+        //beyond the end of the file
+        if (buffer.hasRemaining()) {
+            UNSAFE.setMemory(block.address + buffer.position(), buffer.remaining(), (byte) 0);
+        }
+        block.fileZeroFrom = zeroFrom(block.address, 0, buffer.position());
+        regionReads++;
+    }
+
+    /**
+     * Writes the buffer from the given offset up to where both the buffer and the file content are zero.
+     */
+    private void write(final Block block, final int dirtyFrom) {
+        final int writeTo = Integer.max(block.fileZeroFrom,
+                zeroFrom(block.address, Integer.max(dirtyFrom, block.fileZeroFrom), regionSize));
+        if (writeTo <= dirtyFrom) {
+            return;
+        }
+        final ByteBuffer buffer = block.buffer;
+        buffer.limit(writeTo).position(dirtyFrom);
+        try {
+            final FileChannel fileChannel = fileChannelSupplier.get();
+            while (buffer.hasRemaining()) {
+                fileChannel.write(buffer, block.position + buffer.position());
+            }
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+        block.fileZeroFrom = writeTo;
+        regionWrites++;
+    }
+
+    /**
+     * @return offset in [from, to) after which the memory is zero, scanning backwards in words from to
+     */
+    private static int zeroFrom(final long address, final int from, final int to) {
+        int offset = to;
+        while (offset - Long.BYTES >= from && UNSAFE.getLong(address + offset - Long.BYTES) == 0) {
+            offset -= Long.BYTES;
+        }
+        while (offset > from && UNSAFE.getByte(address + offset - 1) == 0) {
+            offset--;
+        }
+        return offset;
+    }
+
+    private void linkIdle(final Block block) {
+        block.previousIdle = idleTail;
+        block.nextIdle = null;
+        if (idleTail != null) {
+            idleTail.nextIdle = block;
+        } else {
+            idleHead = block;
+        }
+        idleTail = block;
+        idleRegions++;
+    }
+
+    private void unlinkIdle(final Block block) {
+        if (block.previousIdle != null) {
+            block.previousIdle.nextIdle = block.nextIdle;
+        } else {
+            idleHead = block.nextIdle;
+        }
+        if (block.nextIdle != null) {
+            block.nextIdle.previousIdle = block.previousIdle;
+        } else {
+            idleTail = block.previousIdle;
+        }
+        block.previousIdle = null;
+        block.nextIdle = null;
+        idleRegions--;
+    }
+
+    static final class Block {
+        private final ByteBuffer buffer;
+        private final long position;
+        final long address;
+
+        private int references;
+        private int fileZeroFrom;
+        volatile int dirtyFrom;
+        private volatile int lastWrapOffset;
+        private Block previousIdle;
+        private Block nextIdle;
+
+        private Block(final ByteBuffer buffer, final long position, final int regionSize) {
+            this.buffer = buffer;
+            this.address = BufferUtil.address(buffer);
+            this.position = position;
+            this.dirtyFrom = regionSize;
+        }
+
+        /**
+         * Marks the buffer to be written back from the given offset, invoked whenever a writable region
+         * wraps the buffer. The writer is expected to write at or after the offset it has last wrapped.
+         */
+        void wrapped(final int offset) {
+            if (lastWrapOffset != offset) {
+                lastWrapOffset = offset;
+            }
+            if (offset < dirtyFrom) {
+                DIRTY_FROM_UPDATER.accumulateAndGet(this, offset, Math::min);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.dev4fx.raft.mmap.api.MapWaitCounters;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Map wait counters of a single region, with wait times recorded in a histogram of power-of-two nanosecond
+ * buckets: bucket i counts waits in [2^(i-1), 2^i) nanos, bucket 0 waits of 0 nanos. Values are recorded
+ * by the accessing thread and may be read from any other thread.
+ */
+public class MapWaitStatistics implements MapWaitCounters {
+    public static final int BUCKETS = 64;
+
+    private static final int WAITS = BUCKETS;
+    private static final int TIMEOUTS = BUCKETS + 1;
+    private static final int TOTAL_WAIT_NANOS = BUCKETS + 2;
+    private static final int MAX_WAIT_NANOS = BUCKETS + 3;
+
+    private final AtomicLongArray values = new AtomicLongArray(BUCKETS + 4);
+
+    @Override
+    public void mapped(final long waitNanos) {
+        record(waitNanos);
+    }
+
+    @Override
+    public void timedOut(final long waitNanos) {
+        values.lazySet(TIMEOUTS, values.get(TIMEOUTS) + 1);
+        record(waitNanos);
+    }
+
+    private void record(final long waitNanos) {
+        final long nanos = Long.max(0, waitNanos);
+        final int bucket = BUCKETS - Long.numberOfLeadingZeros(nanos);
+        values.lazySet(bucket, values.get(bucket) + 1);
+        values.lazySet(WAITS, values.get(WAITS) + 1);
+        values.lazySet(TOTAL_WAIT_NANOS, values.get(TOTAL_WAIT_NANOS) + nanos);
+        if (nanos > values.get(MAX_WAIT_NANOS)) {
+            values.lazySet(MAX_WAIT_NANOS, nanos);
+        }
+    }
+
+    /**
+     * @return number of accesses which had to wait, including those which timed out
+     */
+    public long waits() {
+        return values.get(WAITS);
+    }
+
+    public long timeouts() {
+        return values.get(TIMEOUTS);
+    }
+
+    public long totalWaitNanos() {
+        return values.get(TOTAL_WAIT_NANOS);
+    }
+
+    public long maxWaitNanos() {
+        return values.get(MAX_WAIT_NANOS);
+    }
+
+    public long bucketCount(final int bucket) {
+        if (bucket < 0 || bucket >= BUCKETS) throw new IllegalArgumentException("Invalid bucket " + bucket);
+        return values.get(bucket);
+    }
+
+    /**
+     * @param percentile - percentile in range [0..100]
+     * @return upper bound of the histogram bucket containing the given percentile of waits, 0 if no waits
+     */
+    public long waitNanosAtPercentile(final double percentile) {
+        if (percentile < 0 || percentile > 100) throw new IllegalArgumentException("Invalid percentile " + percentile);
+        final long waits = waits();
+        final long threshold = (long) Math.ceil(waits * percentile / 100);
+        long count = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            count += values.get(bucket);
+            if (count >= threshold && count > 0) {
+                return bucket == 0 ? 0 : (1L << bucket) - 1;
+            }
+        }
+        return 0;
+    }
+}
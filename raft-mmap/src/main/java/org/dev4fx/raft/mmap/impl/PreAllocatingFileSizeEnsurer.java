@@ -0,0 +1,142 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.dev4fx.raft.mmap.api.FileSizeEnsurer;
+import org.dev4fx.raft.mmap.api.Processor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * File size ensurer growing the file ahead of need in {@link #process()}. Whenever the headroom beyond the
+ * largest requested size drops below half of the current chunk, the file is extended by the chunk and the chunk
+ * is doubled up to the max chunk size. Optionally the new part of the file is filled with zeros so that the
+ * file system allocates the blocks up front rather than on first page fault.
+ * <p>
+ * Sizes already allocated are ensured without a syscall; if pre-allocation falls behind, the file is grown by the
+ * caller of {@link #ensureSize(long)}. Growing the file is delegated to the given ensurer, which is only ever
+ * invoked under the lock of this instance.
+ */
+public class PreAllocatingFileSizeEnsurer implements FileSizeEnsurer, Processor {
+    private static final int ZERO_FILL_BUFFER_SIZE = 64 * 1024;
+
+    private final FileSizeEnsurer delegate;
+    private final Supplier<FileChannel> fileChannelSupplier;
+    private final long maxChunkSize;
+    private final ByteBuffer zeros;
+
+    private final AtomicLong requestedSize = new AtomicLong();
+    private volatile long allocatedSize;
+    private long chunkSize;
+
+    public PreAllocatingFileSizeEnsurer(final FileSizeEnsurer delegate,
+                                        final Supplier<FileChannel> fileChannelSupplier,
+                                        final long initialChunkSize,
+                                        final long maxChunkSize,
+                                        final boolean zeroFill) {
+        if (initialChunkSize <= 0 || maxChunkSize < initialChunkSize) {
+            throw new IllegalArgumentException("Invalid chunk size range [" + initialChunkSize + ".." + maxChunkSize + "]");
+        }
+        this.delegate = Objects.requireNonNull(delegate);
+        this.fileChannelSupplier = Objects.requireNonNull(fileChannelSupplier);
+        this.chunkSize = initialChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.zeros = zeroFill ? ByteBuffer.allocateDirect(ZERO_FILL_BUFFER_SIZE) : null;
+    }
+
+    @Override
+    public boolean ensureSize(final long minSize) {
+        long current;
+        while (minSize > (current = requestedSize.get())) {
+            if (requestedSize.compareAndSet(current, minSize)) break;
+        }
+        if (minSize <= allocatedSize) return true;
+
+        synchronized (this) {
+            return allocate(minSize);
+        }
+    }
+
+    @Override
+    public long maxSize() {
+        return delegate.maxSize();
+    }
+
+    @Override
+    public boolean process() {
+        final long requested = requestedSize.get();
+        final long allocated = allocatedSize;
+        if (requested == 0 || allocated >= delegate.maxSize() || allocated - requested >= chunkSize >> 1) {
+            return false;
+        }
+        synchronized (this) {
+            final long target = Long.min(delegate.maxSize(), Long.max(allocatedSize, requested) + chunkSize);
+            if (allocate(target)) {
+                chunkSize = Long.min(chunkSize << 1, maxChunkSize);
+            }
+        }
+        return true;
+    }
+
+    public long allocatedSize() {
+        return allocatedSize;
+    }
+
+    private boolean allocate(final long size) {
+        if (size <= allocatedSize) return true;
+        final FileChannel fileChannel = fileChannelSupplier.get();
+        final long initialSize = zeros != null ? size(fileChannel) : size;
+        if (!delegate.ensureSize(size)) return false;
+        if (initialSize < size) {
+            zeroFill(fileChannel, initialSize, Long.min(size, size(fileChannel)));
+        }
+        allocatedSize = size;
+        return true;
+    }
+
+    private void zeroFill(final FileChannel fileChannel, final long from, final long to) {
+        try {
+            long position = from;
+            while (position < to) {
+                zeros.clear().limit((int) Long.min(zeros.capacity(), to - position));
+                position += fileChannel.write(zeros, position);
+            }
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static long size(final FileChannel fileChannel) {
+        try {
+            return fileChannel.size();
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
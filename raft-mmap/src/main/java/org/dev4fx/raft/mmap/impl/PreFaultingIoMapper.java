@@ -0,0 +1,76 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.dev4fx.raft.mmap.api.Region;
+
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+
+import static org.agrona.UnsafeAccess.UNSAFE;
+
+/**
+ * Maps through the delegate mapper and then touches every page of the new mapping, so that page faults are
+ * taken by the mapping thread rather than by the first thread accessing the region.
+ * <p>
+ * Read-write mappings are touched with a compare-and-set of the current value to itself which faults the
+ * page in writable without changing its content, even if another mapping of the same file is written to
+ * concurrently. Read-only and private mappings are touched with a read only; the bytes read are summed up
+ * and stored in a field so that the loads cannot be eliminated as dead code.
+ */
+public final class PreFaultingIoMapper implements Region.IoMapper {
+    private final Region.IoMapper delegate;
+    private final int pageSize;
+    //sum of the bytes read when touching read-only pages, only written to keep the loads alive
+    private int touchedBytesSum;
+
+    public PreFaultingIoMapper(final Region.IoMapper delegate) {
+        this(delegate, UNSAFE.pageSize());
+    }
+
+    public PreFaultingIoMapper(final Region.IoMapper delegate, final int pageSize) {
+        if (Integer.bitCount(pageSize) != 1) throw new IllegalArgumentException("pageSize must be power of two");
+        this.delegate = Objects.requireNonNull(delegate);
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public long map(final FileChannel fileChannel, final FileChannel.MapMode mapMode, final long offset, final long length) {
+        final long address = delegate.map(fileChannel, mapMode, offset, length);
+        final long endAddress = address + length;
+        if (mapMode == FileChannel.MapMode.READ_WRITE) {
+            for (long pageAddress = address; pageAddress < endAddress; pageAddress += pageSize) {
+                final int value = UNSAFE.getIntVolatile(null, pageAddress);
+                UNSAFE.compareAndSwapInt(null, pageAddress, value, value);
+            }
+        } else {
+            int sum = 0;
+            for (long pageAddress = address; pageAddress < endAddress; pageAddress += pageSize) {
+                sum += UNSAFE.getByte(pageAddress);
+            }
+            touchedBytesSum = sum;
+        }
+        return address;
+    }
+}
@@ -24,6 +24,7 @@
 package org.dev4fx.raft.mmap.impl;
 
 import org.agrona.DirectBuffer;
+import org.dev4fx.raft.mmap.api.LookAheadPolicy;
 import org.dev4fx.raft.mmap.api.Region;
 import org.dev4fx.raft.mmap.api.RegionAccessor;
 
@@ -33,20 +34,28 @@ import java.util.function.LongFunction;
 public class RegionRingAccessor implements RegionAccessor {
     private final Region[] regions;
     private final int regionsLength;
-    private final int regionsToMapAhead;
+    private final LookAheadPolicy lookAheadPolicy;
     private final int regionSize;
     private final Runnable onClose;
     private final int regionsLengthMask;
 
     private long currentAbsoluteIndex = -1;
+    private int regionsToMapAhead;
 
     public RegionRingAccessor(final Region[] regions, final int regionSize, final int regionsToMapAhead, final Runnable onClose) {
+        this(regions, regionSize, LookAheadPolicy.fixed(regionsToMapAhead), onClose);
+        if (regionsToMapAhead >= regions.length) throw new IllegalArgumentException("regionsToMapAhead " + regionsToMapAhead + " must be less that regions.length " + regions.length);
+    }
+
+    /**
+     * Creates an accessor asking the look-ahead policy for the number of regions to map ahead whenever it moves
+     * to a different region; the policy result is capped at regions.length - 1.
+     */
+    public RegionRingAccessor(final Region[] regions, final int regionSize, final LookAheadPolicy lookAheadPolicy, final Runnable onClose) {
         this.regions = Objects.requireNonNull(regions);
         this.onClose = Objects.requireNonNull(onClose);
-        if (regionsToMapAhead >= regions.length) throw new IllegalArgumentException("regionsToMapAhead " + regionsToMapAhead + " must be less that regions.length " + regions.length);
-        if (regionsToMapAhead < 0) throw new IllegalArgumentException("regionsToMapAhead " + regionsToMapAhead + " must positive");
+        this.lookAheadPolicy = Objects.requireNonNull(lookAheadPolicy);
         this.regionSize = regionSize;
-        this.regionsToMapAhead = regionsToMapAhead;
         this.regionsLength = regions.length;
         assertPowerOfTwo(regionsLength, v -> "regionsLength must be a power of two, but is " + v);
         assertPowerOfTwo(regionSize, v -> "regionSize must be a power of two, but is " + v);
@@ -61,18 +70,32 @@ public class RegionRingAccessor implements RegionAccessor {
     public boolean wrap(final long position, final DirectBuffer buffer) {
         final long absoluteIndex = position / regionSize;
 
+        if (currentAbsoluteIndex == absoluteIndex) {
+            return regions[(int) (absoluteIndex & regionsLengthMask)].wrap(position, buffer);
+        }
+
+        final long wrapStartNanos = System.nanoTime();
         final boolean wrapped = regions[(int) (absoluteIndex & regionsLengthMask)].wrap(position, buffer);
+        //the previous region is only unmapped if its slot has not just been remapped to the new or a look-ahead region
         if (wrapped) {
+            final long crossingTimeNanos = System.nanoTime();
+            regionsToMapAhead = Integer.min(regionsLengthMask,
+                    lookAheadPolicy.onRegionCrossing(absoluteIndex, crossingTimeNanos, crossingTimeNanos - wrapStartNanos));
             if (currentAbsoluteIndex < absoluteIndex) { // moving forward
                 for (long mapIndex = absoluteIndex + 1; mapIndex <= absoluteIndex + regionsToMapAhead; mapIndex++) {
                     regions[(int) (mapIndex & regionsLengthMask)].map(mapIndex * regionSize);
                 }
-                if (currentAbsoluteIndex >= 0) regions[(int) (currentAbsoluteIndex & regionsLengthMask)].unmap();
+                if (currentAbsoluteIndex >= 0 && ((currentAbsoluteIndex - absoluteIndex) & regionsLengthMask) > regionsToMapAhead) {
+                    regions[(int) (currentAbsoluteIndex & regionsLengthMask)].unmap();
+                }
             } else if (currentAbsoluteIndex > absoluteIndex) { // moving backward
                 for (long mapIndex = absoluteIndex - 1; mapIndex >= 0 && mapIndex >= absoluteIndex - regionsToMapAhead; mapIndex--) {
                     regions[(int) (mapIndex & regionsLengthMask)].map(mapIndex * regionSize);
                 }
-                if (currentAbsoluteIndex >= 0) regions[(int) (currentAbsoluteIndex & regionsLengthMask)].unmap();
+                final long reusedDistance = (absoluteIndex - currentAbsoluteIndex) & regionsLengthMask;
+                if (reusedDistance > regionsToMapAhead || reusedDistance > absoluteIndex) {
+                    regions[(int) (currentAbsoluteIndex & regionsLengthMask)].unmap();
+                }
             }
         }
         currentAbsoluteIndex = absoluteIndex;
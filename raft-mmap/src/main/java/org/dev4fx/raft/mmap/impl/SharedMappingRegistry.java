@@ -0,0 +1,116 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.agrona.collections.Long2ObjectHashMap;
+import org.dev4fx.raft.mmap.api.Region;
+
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Registry of reference counted region mappings of a single file and map mode. Any number of
+ * {@link SharedRegion}s, possibly used by different accessors and threads, acquire the same mapping of a
+ * region; the region is unmapped when the last of them releases it.
+ */
+public class SharedMappingRegistry {
+    private final Supplier<FileChannel> fileChannelSupplier;
+    private final Region.IoMapper ioMapper;
+    private final Region.IoUnMapper ioUnMapper;
+    private final FileChannel.MapMode mapMode;
+    private final int regionSize;
+    private final Long2ObjectHashMap<Mapping> mappings = new Long2ObjectHashMap<>();
+
+    public SharedMappingRegistry(final Supplier<FileChannel> fileChannelSupplier,
+                                 final FileChannel.MapMode mapMode,
+                                 final int regionSize) {
+        this(fileChannelSupplier, Region.IoMapper.DEFAULT, Region.IoUnMapper.DEFAULT, mapMode, regionSize);
+    }
+
+    public SharedMappingRegistry(final Supplier<FileChannel> fileChannelSupplier,
+                                 final Region.IoMapper ioMapper,
+                                 final Region.IoUnMapper ioUnMapper,
+                                 final FileChannel.MapMode mapMode,
+                                 final int regionSize) {
+        if (Integer.bitCount(regionSize) != 1) throw new IllegalArgumentException("regionSize must be a power of two, but is " + regionSize);
+        this.fileChannelSupplier = Objects.requireNonNull(fileChannelSupplier);
+        this.ioMapper = Objects.requireNonNull(ioMapper);
+        this.ioUnMapper = Objects.requireNonNull(ioUnMapper);
+        this.mapMode = Objects.requireNonNull(mapMode);
+        this.regionSize = regionSize;
+    }
+
+    /**
+     * Maps the region if it is not mapped yet and adds a reference to it.
+     *
+     * @param regionStartPosition - start position of the region, must be aligned with the region size
+     * @return address of the mapped region
+     */
+    public synchronized long acquire(final long regionStartPosition) {
+        if (regionStartPosition < 0 || (regionStartPosition & (regionSize - 1)) != 0) {
+            throw new IllegalArgumentException("Invalid regionStartPosition " + regionStartPosition);
+        }
+        Mapping mapping = mappings.get(regionStartPosition);
+        if (mapping == null) {
+            mapping = new Mapping(ioMapper.map(fileChannelSupplier.get(), mapMode, regionStartPosition, regionSize));
+            mappings.put(regionStartPosition, mapping);
+        }
+        mapping.references++;
+        return mapping.address;
+    }
+
+    /**
+     * Removes a reference to the region and unmaps it if it was the last one.
+     *
+     * @param regionStartPosition - start position of a previously acquired region
+     */
+    public synchronized void release(final long regionStartPosition) {
+        final Mapping mapping = mappings.get(regionStartPosition);
+        if (mapping == null) {
+            throw new IllegalStateException("Region at position " + regionStartPosition + " has not been acquired");
+        }
+        if (--mapping.references == 0) {
+            mappings.remove(regionStartPosition);
+            ioUnMapper.unmap(fileChannelSupplier.get(), mapping.address, regionSize);
+        }
+    }
+
+    public synchronized int mappedRegions() {
+        return mappings.size();
+    }
+
+    public int regionSize() {
+        return regionSize;
+    }
+
+    private static final class Mapping {
+        private final long address;
+        private int references;
+
+        private Mapping(final long address) {
+            this.address = address;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.agrona.DirectBuffer;
+import org.dev4fx.raft.mmap.api.FileSizeEnsurer;
+import org.dev4fx.raft.mmap.api.Region;
+import org.dev4fx.raft.mmap.api.RegionAccessor;
+
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Region accessor mapping the file in large chunks which stay mapped until the accessor is closed.
+ * A chunk is mapped the first time a position within it is wrapped, so mappings only grow with the file;
+ * once mapped, wrap is pure arithmetic. Intended for 64-bit hosts with enough virtual address space to map
+ * the whole file up to its max size.
+ */
+public class WholeFileRegionAccessor implements RegionAccessor {
+    private static final long NULL = 0;
+
+    private final Supplier<FileChannel> fileChannelSupplier;
+    private final Region.IoMapper ioMapper;
+    private final Region.IoUnMapper ioUnMapper;
+    private final FileSizeEnsurer fileSizeEnsurer;
+    private final FileChannel.MapMode mapMode;
+    private final int chunkSize;
+    private final int chunkSizeMask;
+    private final int chunkSizeShift;
+    private final long[] chunkAddresses;
+    private final Runnable onClose;
+
+    public WholeFileRegionAccessor(final Supplier<FileChannel> fileChannelSupplier,
+                                   final FileSizeEnsurer fileSizeEnsurer,
+                                   final FileChannel.MapMode mapMode,
+                                   final int chunkSize,
+                                   final long maxFileSize,
+                                   final Runnable onClose) {
+        this(fileChannelSupplier, Region.IoMapper.DEFAULT, Region.IoUnMapper.DEFAULT, fileSizeEnsurer, mapMode,
+                chunkSize, maxFileSize, onClose);
+    }
+
+    public WholeFileRegionAccessor(final Supplier<FileChannel> fileChannelSupplier,
+                                   final Region.IoMapper ioMapper,
+                                   final Region.IoUnMapper ioUnMapper,
+                                   final FileSizeEnsurer fileSizeEnsurer,
+                                   final FileChannel.MapMode mapMode,
+                                   final int chunkSize,
+                                   final long maxFileSize,
+                                   final Runnable onClose) {
+        if (Integer.bitCount(chunkSize) != 1) throw new IllegalArgumentException("chunkSize must be a power of two, but is " + chunkSize);
+        if (maxFileSize <= 0) throw new IllegalArgumentException("maxFileSize " + maxFileSize + " must be positive");
+        final long chunks = (maxFileSize + chunkSize - 1) / chunkSize;
+        if (chunks > Integer.MAX_VALUE) throw new IllegalArgumentException("maxFileSize " + maxFileSize + " requires too many chunks of size " + chunkSize);
+        this.fileChannelSupplier = Objects.requireNonNull(fileChannelSupplier);
+        this.ioMapper = Objects.requireNonNull(ioMapper);
+        this.ioUnMapper = Objects.requireNonNull(ioUnMapper);
+        this.fileSizeEnsurer = Objects.requireNonNull(fileSizeEnsurer);
+        this.mapMode = Objects.requireNonNull(mapMode);
+        this.onClose = Objects.requireNonNull(onClose);
+        this.chunkSize = chunkSize;
+        this.chunkSizeMask = chunkSize - 1;
+        this.chunkSizeShift = Integer.numberOfTrailingZeros(chunkSize);
+        this.chunkAddresses = new long[(int) chunks];
+    }
+
+    @Override
+    public boolean wrap(final long position, final DirectBuffer buffer) {
+        if (position < 0) throw new IllegalArgumentException("Invalid position " + position);
+        final long chunkIndex = position >>> chunkSizeShift;
+        if (chunkIndex >= chunkAddresses.length) {
+            return false;
+        }
+        final int index = (int) chunkIndex;
+        long address = chunkAddresses[index];
+        if (address == NULL) {
+            address = mapChunk(index);
+            if (address == NULL) {
+                return false;
+            }
+        }
+        final int chunkOffset = (int) (position & chunkSizeMask);
+        buffer.wrap(address + chunkOffset, chunkSize - chunkOffset);
+        return true;
+    }
+
+    private long mapChunk(final int index) {
+        final long chunkStartPosition = ((long) index) << chunkSizeShift;
+        if (fileSizeEnsurer.ensureSize(chunkStartPosition + chunkSize)) {
+            final long address = ioMapper.map(fileChannelSupplier.get(), mapMode, chunkStartPosition, chunkSize);
+            chunkAddresses[index] = address;
+            return address;
+        }
+        return NULL;
+    }
+
+    @Override
+    public int size() {
+        return chunkSize;
+    }
+
+    @Override
+    public void close() {
+        for (int index = 0; index < chunkAddresses.length; index++) {
+            if (chunkAddresses[index] != NULL) {
+                ioUnMapper.unmap(fileChannelSupplier.get(), chunkAddresses[index], chunkSize);
+                chunkAddresses[index] = NULL;
+            }
+        }
+        onClose.run();
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveLookAheadPolicyTest {
+    private static final long HORIZON = 1000;
+    private static final long STALL_THRESHOLD = 50;
+
+    private final AdaptiveLookAheadPolicy policy = new AdaptiveLookAheadPolicy(1, 8, HORIZON, STALL_THRESHOLD);
+
+    @Test
+    public void first_crossing_maps_min_regions_ahead() throws Exception {
+        assertThat(policy.onRegionCrossing(0, 10_000, 0)).isEqualTo(1);
+        assertThat(policy.averageCrossingIntervalNanos()).isEqualTo(0);
+    }
+
+    @Test
+    public void faster_crossings_map_more_regions_ahead() throws Exception {
+        //given
+        long time = 10_000;
+        policy.onRegionCrossing(0, time, 0);
+
+        //when slow crossings
+        for (int i = 1; i <= 10; i++) {
+            time += 1000;
+            policy.onRegionCrossing(i, time, 0);
+        }
+
+        //then
+        assertThat(policy.averageCrossingIntervalNanos()).isEqualTo(1000);
+        assertThat(policy.regionsToMapAhead()).isEqualTo(1);
+
+        //when fast crossings
+        for (int i = 11; i <= 100; i++) {
+            time += 250;
+            policy.onRegionCrossing(i, time, 0);
+        }
+
+        //then
+        assertThat(policy.averageCrossingIntervalNanos()).isBetween(250L, 260L);
+        assertThat(policy.regionsToMapAhead()).isEqualTo(4);
+    }
+
+    @Test
+    public void regions_to_map_ahead_capped_by_max() throws Exception {
+        long time = 10_000;
+        for (int i = 0; i < 10; i++) {
+            time += 1;
+            policy.onRegionCrossing(i, time, 0);
+        }
+        assertThat(policy.regionsToMapAhead()).isEqualTo(8);
+    }
+
+    @Test
+    public void stall_doubles_horizon_and_is_counted() throws Exception {
+        //given
+        long time = 10_000;
+        for (int i = 0; i < 10; i++) {
+            time += 500;
+            policy.onRegionCrossing(i, time, 0);
+        }
+        assertThat(policy.regionsToMapAhead()).isEqualTo(2);
+
+        //when
+        time += 500;
+        final int regionsToMapAhead = policy.onRegionCrossing(10, time, STALL_THRESHOLD);
+
+        //then
+        assertThat(regionsToMapAhead).isEqualTo(4);
+        assertThat(policy.stalls()).isEqualTo(1);
+
+        //when no more stalls
+        for (int i = 11; i < 200; i++) {
+            time += 500;
+            policy.onRegionCrossing(i, time, 0);
+        }
+
+        //then horizon decayed back
+        assertThat(policy.regionsToMapAhead()).isEqualTo(2);
+        assertThat(policy.stalls()).isEqualTo(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void max_must_not_be_less_than_min() throws Exception {
+        new AdaptiveLookAheadPolicy(4, 2, HORIZON, STALL_THRESHOLD);
+    }
+}
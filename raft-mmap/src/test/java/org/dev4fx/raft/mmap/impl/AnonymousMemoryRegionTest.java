@@ -0,0 +1,103 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.dev4fx.raft.mmap.api.FileSizeEnsurer;
+import org.dev4fx.raft.mmap.api.Region;
+import org.dev4fx.raft.mmap.api.RegionRingFactory;
+import org.junit.Test;
+
+import java.nio.channels.FileChannel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AnonymousMemoryRegionTest {
+    private static final int REGION_SIZE = 1024;
+
+    private final AnonymousMemory memory = new AnonymousMemory(REGION_SIZE, 8 * REGION_SIZE);
+
+    @Test
+    public void regions_share_memory_which_is_allocated_lazily() throws Exception {
+        //given
+        final Region writer = new AnonymousMemoryRegion(memory);
+        final Region reader = new AnonymousMemoryRegion(memory);
+        final UnsafeBuffer writeBuffer = new UnsafeBuffer(0, 0);
+        final UnsafeBuffer readBuffer = new UnsafeBuffer(0, 0);
+
+        //when
+        assertThat(writer.wrap(3 * REGION_SIZE + 16, writeBuffer)).isTrue();
+        writeBuffer.putLong(0, 42);
+
+        //then
+        assertThat(writeBuffer.capacity()).isEqualTo(REGION_SIZE - 16);
+        assertThat(memory.allocatedSize()).isEqualTo(REGION_SIZE);
+
+        //when
+        assertThat(writer.wrap(REGION_SIZE, writeBuffer)).isTrue();
+        assertThat(writer.unmap()).isTrue();
+        assertThat(reader.wrap(3 * REGION_SIZE + 8, readBuffer)).isTrue();
+
+        //then
+        assertThat(readBuffer.getLong(0)).isEqualTo(0);
+        assertThat(readBuffer.getLong(8)).isEqualTo(42);
+        assertThat(memory.allocatedSize()).isEqualTo(2 * REGION_SIZE);
+
+        writer.close();
+        reader.close();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void map_beyond_max_size_fails() throws Exception {
+        new AnonymousMemoryRegion(memory).map(8 * REGION_SIZE);
+    }
+
+    @Test
+    public void memory_freed_when_last_region_closed() throws Exception {
+        //given
+        final Region[] regions = RegionRingFactory.forAnonymousMemory(memory)
+                .create(2, REGION_SIZE, () -> null, FileSizeEnsurer.NO_OP, FileChannel.MapMode.READ_WRITE);
+        regions[0].map(0);
+        regions[1].map(REGION_SIZE);
+
+        //when
+        regions[0].close();
+        regions[0].close();
+
+        //then
+        assertThat(memory.allocatedSize()).isEqualTo(2 * REGION_SIZE);
+
+        //when
+        regions[1].close();
+
+        //then
+        assertThat(memory.allocatedSize()).isEqualTo(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void region_size_must_match_memory() throws Exception {
+        RegionRingFactory.forAnonymousMemory(memory)
+                .create(2, 2 * REGION_SIZE, () -> null, FileSizeEnsurer.NO_OP, FileChannel.MapMode.READ_WRITE);
+    }
+}
@@ -26,6 +26,8 @@ package org.dev4fx.raft.mmap.impl;
 import org.agrona.DirectBuffer;
 import org.dev4fx.raft.mmap.api.AsyncRegion;
 import org.dev4fx.raft.mmap.api.FileSizeEnsurer;
+import org.dev4fx.raft.mmap.api.MapWaitCounters;
+import org.dev4fx.raft.mmap.api.MapWaitStrategy;
 import org.dev4fx.raft.mmap.api.Region;
 import org.junit.Before;
 import org.junit.Test;
@@ -69,15 +71,47 @@ public class AsyncRegionTest {
                       final TimeUnit timeUnits);
     }
 
+    interface SignallingAsyncRegionFactory {
+        AsyncRegion create(final Supplier<FileChannel> fileChannelSupplier,
+                      final Region.IoMapper ioMapper,
+                      final Region.IoUnMapper ioUnMapper,
+                      final FileSizeEnsurer fileSizeEnsurer,
+                      final FileChannel.MapMode mapMode,
+                      final int length,
+                      final long timeout,
+                      final TimeUnit timeUnits,
+                      final Runnable requestSignal);
+    }
+
+    interface WaitingAsyncRegionFactory {
+        AsyncRegion create(final Supplier<FileChannel> fileChannelSupplier,
+                      final Region.IoMapper ioMapper,
+                      final Region.IoUnMapper ioUnMapper,
+                      final FileSizeEnsurer fileSizeEnsurer,
+                      final FileChannel.MapMode mapMode,
+                      final int length,
+                      final long timeout,
+                      final TimeUnit timeUnits,
+                      final Runnable requestSignal,
+                      final MapWaitStrategy mapWaitStrategy,
+                      final MapWaitCounters mapWaitCounters);
+    }
+
     enum TestFactory {
-        VOLATILE_STATEMENT_MACHINE_REGION(AsyncVolatileStateMachineRegion::new),
-        ATOMIC_STATEMENT_MACHINE_REGION(AsyncAtomicStateMachineRegion::new),
-        ATOMIC_EXCHANGE_REGION(AsyncAtomicExchangeRegion::new);
+        VOLATILE_STATEMENT_MACHINE_REGION(AsyncVolatileStateMachineRegion::new, AsyncVolatileStateMachineRegion::new, AsyncVolatileStateMachineRegion::new),
+        ATOMIC_STATEMENT_MACHINE_REGION(AsyncAtomicStateMachineRegion::new, AsyncAtomicStateMachineRegion::new, AsyncAtomicStateMachineRegion::new),
+        ATOMIC_EXCHANGE_REGION(AsyncAtomicExchangeRegion::new, AsyncAtomicExchangeRegion::new, AsyncAtomicExchangeRegion::new);
 
         private AsyncRegionFactory factory;
+        private SignallingAsyncRegionFactory signallingFactory;
+        private WaitingAsyncRegionFactory waitingFactory;
 
-        TestFactory(final AsyncRegionFactory factory) {
+        TestFactory(final AsyncRegionFactory factory,
+                    final SignallingAsyncRegionFactory signallingFactory,
+                    final WaitingAsyncRegionFactory waitingFactory) {
             this.factory = Objects.requireNonNull(factory);
+            this.signallingFactory = Objects.requireNonNull(signallingFactory);
+            this.waitingFactory = Objects.requireNonNull(waitingFactory);
         }
     }
 
@@ -113,6 +147,114 @@ public class AsyncRegionTest {
         inOrder = inOrder(directBuffer, fileChannel, ioMapper, ioUnMapper, fileSizeEnsurer);
     }
 
+    @Test
+    public void request_signal_invoked_for_map_and_unmap_requests() throws Exception {
+        final Runnable requestSignal = mock(Runnable.class);
+        final AsyncRegion signallingRegion = testFactory.signallingFactory.create(() -> fileChannel,
+                ioMapper, ioUnMapper, fileSizeEnsurer,
+                mapMode, length, timeoutMillis, TimeUnit.MILLISECONDS, requestSignal);
+        when(fileSizeEnsurer.ensureSize(length)).thenReturn(true);
+
+        assertThat(signallingRegion.map(0)).isFalse();
+        verify(requestSignal, times(1)).run();
+
+        assertThat(signallingRegion.process()).isTrue();
+        assertThat(signallingRegion.wrap(0, directBuffer)).isTrue();
+        verify(requestSignal, times(1)).run();
+
+        signallingRegion.unmap();
+        verify(requestSignal, times(2)).run();
+    }
+
+    @Test
+    public void wait_strategy_invoked_and_wait_recorded_until_mapped() throws Exception {
+        //given
+        final MapWaitStatistics mapWaitStatistics = new MapWaitStatistics();
+        final AsyncRegion[] waitingRegion = new AsyncRegion[1];
+        final int[] attempts = new int[1];
+        final MapWaitStrategy mapWaitStrategy = attempt -> {
+            attempts[0] = attempt;
+            if (attempt == 3) waitingRegion[0].process();
+        };
+        waitingRegion[0] = testFactory.waitingFactory.create(() -> fileChannel,
+                ioMapper, ioUnMapper, fileSizeEnsurer,
+                mapMode, length, timeoutMillis, TimeUnit.MILLISECONDS, () -> {}, mapWaitStrategy, mapWaitStatistics);
+        when(fileSizeEnsurer.ensureSize(length)).thenReturn(true);
+        when(ioMapper.map(fileChannel, mapMode, 0, length)).thenReturn(1024L);
+
+        //when
+        final boolean wrapped = waitingRegion[0].wrap(10, directBuffer);
+
+        //then
+        assertThat(wrapped).isTrue();
+        assertThat(attempts[0]).isEqualTo(3);
+        assertThat(mapWaitStatistics.waits()).isEqualTo(1);
+        assertThat(mapWaitStatistics.timeouts()).isEqualTo(0);
+
+        //when already mapped
+        assertThat(waitingRegion[0].wrap(20, directBuffer)).isTrue();
+
+        //then
+        assertThat(mapWaitStatistics.waits()).isEqualTo(1);
+    }
+
+    @Test
+    public void timeout_recorded_when_not_mapped() throws Exception {
+        //given
+        final MapWaitStatistics mapWaitStatistics = new MapWaitStatistics();
+        final AsyncRegion waitingRegion = testFactory.waitingFactory.create(() -> fileChannel,
+                ioMapper, ioUnMapper, fileSizeEnsurer,
+                mapMode, length, 10, TimeUnit.MILLISECONDS, () -> {}, MapWaitStrategy.park(100_000), mapWaitStatistics);
+
+        //when
+        final boolean wrapped = waitingRegion.wrap(10, directBuffer);
+
+        //then
+        assertThat(wrapped).isFalse();
+        assertThat(mapWaitStatistics.waits()).isEqualTo(1);
+        assertThat(mapWaitStatistics.timeouts()).isEqualTo(1);
+        assertThat(mapWaitStatistics.maxWaitNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    @Test
+    public void wrap_false_when_map_requested_after_unmap_but_not_processed() throws Exception {
+        //given
+        when(fileSizeEnsurer.ensureSize(anyLong())).thenReturn(true);
+        when(ioMapper.map(fileChannel, mapMode, 0, length)).thenReturn(1024L);
+        region.map(0);
+        region.process();
+        assertThat(region.wrap(0, directBuffer)).isTrue();
+        region.unmap();
+        region.process();
+
+        //when
+        region.map(length);
+        final boolean wrapped = region.wrap(length, directBuffer);
+
+        //then
+        assertThat(wrapped).isFalse();
+        inOrder.verify(directBuffer, times(1)).wrap(anyLong(), anyInt());
+    }
+
+    @Test
+    public void wrap_false_when_same_region_requested_after_unmap_but_not_processed() throws Exception {
+        //given
+        when(fileSizeEnsurer.ensureSize(anyLong())).thenReturn(true);
+        when(ioMapper.map(fileChannel, mapMode, 0, length)).thenReturn(1024L);
+        region.map(0);
+        region.process();
+        assertThat(region.wrap(0, directBuffer)).isTrue();
+        region.unmap();
+
+        //when
+        region.map(0);
+        final boolean wrapped = region.wrap(0, directBuffer);
+
+        //then
+        assertThat(wrapped).isFalse();
+        inOrder.verify(directBuffer, times(1)).wrap(anyLong(), anyInt());
+    }
+
     @Test
     public void wrap_false_when_no_async_mapping() throws Exception {
 
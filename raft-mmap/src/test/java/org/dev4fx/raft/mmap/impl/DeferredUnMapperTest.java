@@ -0,0 +1,101 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.agrona.DirectBuffer;
+import org.dev4fx.raft.mmap.api.FileSizeEnsurer;
+import org.dev4fx.raft.mmap.api.Region;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.nio.channels.FileChannel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DeferredUnMapperTest {
+    @Mock
+    private DirectBuffer directBuffer;
+    @Mock
+    private FileChannel fileChannel;
+    @Mock
+    private Region.IoMapper ioMapper;
+    @Mock
+    private Region.IoUnMapper ioUnMapper;
+
+    private final int length = 128;
+    private final FileChannel.MapMode mapMode = FileChannel.MapMode.READ_WRITE;
+
+    private DeferredUnMapper deferredUnMapper;
+    private Region region;
+
+    @Before
+    public void setUp() throws Exception {
+        deferredUnMapper = new DeferredUnMapper(ioUnMapper);
+        region = new SyncRegion(() -> fileChannel, ioMapper, deferredUnMapper, FileSizeEnsurer.NO_OP, mapMode, length);
+    }
+
+    @Test
+    public void region_maps_inline_and_unmaps_in_batches_on_process() throws Exception {
+        //given
+        for (int i = 0; i < 40; i++) {
+            when(ioMapper.map(fileChannel, mapMode, i * length, length)).thenReturn(1000L * (i + 1));
+        }
+
+        //when
+        for (int i = 0; i < 40; i++) {
+            assertThat(region.wrap(i * length + 1, directBuffer)).isTrue();
+            verify(directBuffer).wrap(1000L * (i + 1) + 1, length - 1);
+        }
+
+        //then
+        verify(ioMapper, times(40)).map(any(FileChannel.class), any(FileChannel.MapMode.class), anyLong(), anyLong());
+        verifyZeroInteractions(ioUnMapper);
+        assertThat(deferredUnMapper.pendingUnmaps()).isEqualTo(39);
+
+        //when
+        assertThat(deferredUnMapper.process()).isTrue();
+
+        //then
+        final InOrder inOrder = inOrder(ioUnMapper);
+        for (int i = 0; i < 39; i++) {
+            inOrder.verify(ioUnMapper).unmap(fileChannel, 1000L * (i + 1), length);
+        }
+        assertThat(deferredUnMapper.pendingUnmaps()).isEqualTo(0);
+        assertThat(deferredUnMapper.process()).isFalse();
+
+        //when
+        region.close();
+        assertThat(deferredUnMapper.process()).isTrue();
+
+        //then
+        verify(ioUnMapper).unmap(fileChannel, 40000L, length);
+        verifyNoMoreInteractions(ioUnMapper);
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.dev4fx.raft.mmap.api.FileSizeEnsurer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FileChannelRegionTest {
+    private static final int REGION_SIZE = 4096;
+    private static final long MAX_SIZE = 16 * REGION_SIZE;
+
+    private File file;
+    private RandomAccessFile randomAccessFile;
+    private FileSizeEnsurer fileSizeEnsurer;
+    private final UnsafeBuffer buffer = new UnsafeBuffer();
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("filechannel", ".dat");
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        fileSizeEnsurer = FileSizeEnsurer.forWritableFile(this::fileLength, this::fileLength, MAX_SIZE);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        randomAccessFile.close();
+        file.delete();
+    }
+
+    @Test
+    public void wrap_reads_region_from_file_and_zeroes_content_beyond_end_of_file() throws Exception {
+        //given
+        writeLongToFile(8, 42);
+        final FileChannelRegionCache cache = new FileChannelRegionCache(randomAccessFile::getChannel, REGION_SIZE, 1);
+        final FileChannelRegion region = new FileChannelRegion(cache, FileSizeEnsurer.NO_OP, FileChannel.MapMode.READ_ONLY);
+
+        //when
+        assertThat(region.wrap(8, buffer)).isTrue();
+
+        //then
+        assertThat(buffer.capacity()).isEqualTo(REGION_SIZE - 8);
+        assertThat(buffer.getLong(0)).isEqualTo(42);
+        assertThat(buffer.getLong(REGION_SIZE - 16)).isEqualTo(0);
+        assertThat(cache.regionReads()).isEqualTo(1);
+
+        region.close();
+    }
+
+    @Test
+    public void writes_are_written_back_on_eviction_from_wrapped_offset_only() throws Exception {
+        //given
+        writeLongToFile(0, 7);
+        final FileChannelRegionCache cache = new FileChannelRegionCache(randomAccessFile::getChannel, REGION_SIZE, 0);
+        final FileChannelRegion region = new FileChannelRegion(cache, fileSizeEnsurer, FileChannel.MapMode.READ_WRITE);
+
+        //when
+        assertThat(region.wrap(REGION_SIZE + 64, buffer)).isTrue();
+        buffer.putLong(0, 11);
+        assertThat(region.wrap(64, buffer)).isTrue();
+        buffer.putLong(0, 22);
+
+        //then first region evicted and written back
+        assertThat(cache.regionWrites()).isEqualTo(1);
+        assertThat(readLongFromFile(REGION_SIZE + 64)).isEqualTo(11);
+        assertThat(readLongFromFile(64)).isEqualTo(0);
+
+        //when
+        region.close();
+
+        //then
+        assertThat(cache.regionWrites()).isEqualTo(2);
+        assertThat(readLongFromFile(64)).isEqualTo(22);
+        assertThat(readLongFromFile(0)).isEqualTo(7);
+    }
+
+    @Test
+    public void writeBack_writes_acquired_regions_which_remain_dirty() throws Exception {
+        //given
+        final FileChannelRegionCache cache = new FileChannelRegionCache(randomAccessFile::getChannel, REGION_SIZE, 4);
+        final FileChannelRegion region = new FileChannelRegion(cache, fileSizeEnsurer, FileChannel.MapMode.READ_WRITE);
+        assertThat(region.wrap(0, buffer)).isTrue();
+
+        //when
+        buffer.putLong(0, 1);
+        cache.writeBack();
+        buffer.putLong(8, 2);
+        cache.writeBack();
+
+        //then
+        assertThat(cache.regionWrites()).isEqualTo(2);
+        assertThat(readLongFromFile(0)).isEqualTo(1);
+        assertThat(readLongFromFile(8)).isEqualTo(2);
+
+        //when released and written back
+        region.unmap();
+        cache.writeBack();
+        cache.writeBack();
+
+        //then clean
+        assertThat(cache.regionWrites()).isEqualTo(3);
+
+        region.close();
+    }
+
+    @Test
+    public void regions_share_buffers_and_cache_released_regions() throws Exception {
+        //given
+        final FileChannelRegionCache cache = new FileChannelRegionCache(randomAccessFile::getChannel, REGION_SIZE, 2);
+        final FileChannelRegion writer = new FileChannelRegion(cache, fileSizeEnsurer, FileChannel.MapMode.READ_WRITE);
+        final FileChannelRegion reader = new FileChannelRegion(cache, FileSizeEnsurer.NO_OP, FileChannel.MapMode.READ_ONLY);
+        final UnsafeBuffer readerBuffer = new UnsafeBuffer();
+
+        //when
+        assertThat(writer.wrap(0, buffer)).isTrue();
+        assertThat(reader.wrap(0, readerBuffer)).isTrue();
+        buffer.putLong(0, 5);
+
+        //then
+        assertThat(readerBuffer.getLong(0)).isEqualTo(5);
+        assertThat(cache.regionReads()).isEqualTo(1);
+
+        //when moving away and back
+        assertThat(writer.wrap(REGION_SIZE, buffer)).isTrue();
+        assertThat(reader.wrap(REGION_SIZE, readerBuffer)).isTrue();
+        assertThat(writer.wrap(0, buffer)).isTrue();
+
+        //then served from cache
+        assertThat(buffer.getLong(0)).isEqualTo(5);
+        assertThat(cache.regionReads()).isEqualTo(2);
+        assertThat(cache.cachedRegions()).isEqualTo(2);
+        assertThat(cache.regionWrites()).isEqualTo(0);
+
+        //when
+        writer.close();
+        reader.close();
+
+        //then written back once the last region is closed
+        assertThat(readLongFromFile(0)).isEqualTo(5);
+        assertThat(cache.cachedRegions()).isEqualTo(0);
+    }
+
+    @Test
+    public void wrap_grows_file_up_to_max_size() throws Exception {
+        //given
+        final FileChannelRegionCache cache = new FileChannelRegionCache(randomAccessFile::getChannel, REGION_SIZE, 1);
+        final FileChannelRegion region = new FileChannelRegion(cache, fileSizeEnsurer, FileChannel.MapMode.READ_WRITE);
+
+        //when/then
+        assertThat(region.wrap(MAX_SIZE - 8, buffer)).isTrue();
+        assertThat(fileLength()).isEqualTo(MAX_SIZE);
+        assertThatThrownBy(() -> region.wrap(MAX_SIZE, buffer)).isInstanceOf(IllegalStateException.class);
+
+        region.close();
+    }
+
+    private long fileLength() {
+        try {
+            return randomAccessFile.length();
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void fileLength(final long length) {
+        try {
+            randomAccessFile.setLength(length);
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void writeLongToFile(final long position, final long value) throws Exception {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(8).order(ByteOrder.nativeOrder());
+        byteBuffer.putLong(0, value);
+        randomAccessFile.getChannel().write(byteBuffer, position);
+    }
+
+    private long readLongFromFile(final long position) throws Exception {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(8).order(ByteOrder.nativeOrder());
+        randomAccessFile.getChannel().read(byteBuffer, position);
+        return byteBuffer.getLong(0);
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.dev4fx.raft.mmap.api.Flusher;
+import org.dev4fx.raft.mmap.api.Processor;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FlusherTest {
+    @Mock
+    private FileChannel fileChannel;
+
+    @Test
+    public void sync_flusher_forces_on_request_beyond_durable_position() throws Exception {
+        //given
+        final Flusher flusher = Flusher.forSync(() -> fileChannel);
+
+        //when
+        flusher.requestFlush(4096);
+
+        //then
+        verify(fileChannel, times(1)).force(false);
+        assertThat(flusher.durablePosition()).isEqualTo(4096);
+
+        //when
+        flusher.requestFlush(1024);
+
+        //then
+        verify(fileChannel, times(1)).force(false);
+        assertThat(flusher.durablePosition()).isEqualTo(4096);
+    }
+
+    @Test
+    public void async_flusher_coalesces_requests_into_single_force() throws Exception {
+        //given
+        final List<Processor> processors = new ArrayList<>();
+        final AtomicInteger signals = new AtomicInteger();
+        final Flusher flusher = Flusher.forAsync(() -> fileChannel, processors::add, signals::incrementAndGet);
+
+        //when
+        flusher.requestFlush(1024);
+        flusher.requestFlush(8192);
+        flusher.requestFlush(4096);
+
+        //then
+        assertThat(processors).hasSize(1);
+        assertThat(signals.get()).isEqualTo(2);
+        assertThat(flusher.durablePosition()).isEqualTo(0);
+        verify(fileChannel, never()).force(anyBoolean());
+
+        //when
+        assertThat(processors.get(0).process()).isTrue();
+
+        //then
+        verify(fileChannel, times(1)).force(false);
+        assertThat(flusher.durablePosition()).isEqualTo(8192);
+
+        //when - nothing new requested
+        assertThat(processors.get(0).process()).isFalse();
+
+        //then
+        verify(fileChannel, times(1)).force(false);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void async_flusher_rethrows_io_exception() throws Exception {
+        //given
+        final AsyncFlusher flusher = new AsyncFlusher(Flusher.forceAction(() -> fileChannel));
+        doThrow(new IOException("test")).when(fileChannel).force(false);
+        flusher.requestFlush(1024);
+
+        //when
+        flusher.process();
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MapWaitStatisticsTest {
+    private final MapWaitStatistics statistics = new MapWaitStatistics();
+
+    @Test
+    public void records_waits_in_power_of_two_buckets() throws Exception {
+        //when
+        statistics.mapped(0);
+        statistics.mapped(1);
+        statistics.mapped(1000);
+        statistics.mapped(1023);
+        statistics.timedOut(5000);
+
+        //then
+        assertThat(statistics.waits()).isEqualTo(5);
+        assertThat(statistics.timeouts()).isEqualTo(1);
+        assertThat(statistics.totalWaitNanos()).isEqualTo(7024);
+        assertThat(statistics.maxWaitNanos()).isEqualTo(5000);
+        assertThat(statistics.bucketCount(0)).isEqualTo(1);
+        assertThat(statistics.bucketCount(1)).isEqualTo(1);
+        assertThat(statistics.bucketCount(10)).isEqualTo(2);
+        assertThat(statistics.bucketCount(13)).isEqualTo(1);
+    }
+
+    @Test
+    public void wait_nanos_at_percentile_is_bucket_upper_bound() throws Exception {
+        //given
+        assertThat(statistics.waitNanosAtPercentile(99)).isEqualTo(0);
+        for (int i = 0; i < 99; i++) {
+            statistics.mapped(100);
+        }
+        statistics.mapped(1_000_000);
+
+        //then
+        assertThat(statistics.waitNanosAtPercentile(50)).isEqualTo(127);
+        assertThat(statistics.waitNanosAtPercentile(99)).isEqualTo(127);
+        assertThat(statistics.waitNanosAtPercentile(100)).isEqualTo((1L << 20) - 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void percentile_must_be_in_range() throws Exception {
+        statistics.waitNanosAtPercentile(101);
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.dev4fx.raft.mmap.api.FileSizeEnsurer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PreAllocatingFileSizeEnsurerTest {
+    private static final int CHUNK_SIZE = 4096;
+    private static final long MAX_SIZE = 64 * CHUNK_SIZE;
+
+    private File file;
+    private RandomAccessFile randomAccessFile;
+    private FileSizeEnsurer delegate;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("preallocating", ".dat");
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        delegate = FileSizeEnsurer.forWritableFile(this::fileLength, this::fileLength, MAX_SIZE);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        randomAccessFile.close();
+        file.delete();
+    }
+
+    @Test
+    public void process_grows_file_ahead_in_geometric_chunks() throws Exception {
+        //given
+        final PreAllocatingFileSizeEnsurer ensurer = new PreAllocatingFileSizeEnsurer(delegate, randomAccessFile::getChannel,
+                CHUNK_SIZE, 4 * CHUNK_SIZE, false);
+
+        //when nothing requested
+        assertThat(ensurer.process()).isFalse();
+        assertThat(fileLength()).isEqualTo(0);
+
+        //when
+        assertThat(ensurer.ensureSize(1024)).isTrue();
+
+        //then grown by caller as nothing pre-allocated yet
+        assertThat(fileLength()).isEqualTo(1024);
+
+        //when
+        assertThat(ensurer.process()).isTrue();
+        assertThat(ensurer.process()).isFalse();
+
+        //then
+        assertThat(ensurer.allocatedSize()).isEqualTo(1024 + CHUNK_SIZE);
+        assertThat(fileLength()).isEqualTo(1024 + CHUNK_SIZE);
+
+        //when requested within pre-allocated size
+        assertThat(ensurer.ensureSize(4096)).isTrue();
+        assertThat(ensurer.process()).isTrue();
+
+        //then extended by doubled chunk
+        assertThat(fileLength()).isEqualTo(1024 + CHUNK_SIZE + 2 * CHUNK_SIZE);
+
+        //when
+        assertThat(ensurer.ensureSize(3 * CHUNK_SIZE)).isTrue();
+        assertThat(ensurer.process()).isTrue();
+        assertThat(ensurer.ensureSize(7 * CHUNK_SIZE)).isTrue();
+        assertThat(ensurer.process()).isTrue();
+
+        //then chunk capped by max chunk size
+        assertThat(fileLength()).isEqualTo(1024 + CHUNK_SIZE + 2 * CHUNK_SIZE + 4 * CHUNK_SIZE + 4 * CHUNK_SIZE);
+    }
+
+    @Test
+    public void process_does_not_grow_beyond_max_size() throws Exception {
+        //given
+        final PreAllocatingFileSizeEnsurer ensurer = new PreAllocatingFileSizeEnsurer(delegate, randomAccessFile::getChannel,
+                MAX_SIZE, MAX_SIZE, false);
+
+        //when
+        ensurer.ensureSize(MAX_SIZE - 1024);
+        ensurer.process();
+
+        //then
+        assertThat(fileLength()).isEqualTo(MAX_SIZE);
+        assertThat(ensurer.process()).isFalse();
+        assertThat(ensurer.maxSize()).isEqualTo(MAX_SIZE);
+    }
+
+    @Test
+    public void zero_fill_writes_only_new_part_of_file() throws Exception {
+        //given
+        final FileChannel fileChannel = randomAccessFile.getChannel();
+        fileChannel.write(ByteBuffer.wrap(new byte[] {1, 2, 3, 4}), 0);
+        final PreAllocatingFileSizeEnsurer ensurer = new PreAllocatingFileSizeEnsurer(delegate, randomAccessFile::getChannel,
+                CHUNK_SIZE, CHUNK_SIZE, true);
+
+        //when
+        ensurer.ensureSize(4);
+        ensurer.process();
+
+        //then
+        assertThat(fileLength()).isEqualTo(4 + CHUNK_SIZE);
+        final ByteBuffer content = ByteBuffer.allocate(4 + CHUNK_SIZE);
+        fileChannel.read(content, 0);
+        assertThat(content.get(0)).isEqualTo((byte) 1);
+        assertThat(content.get(3)).isEqualTo((byte) 4);
+        for (int i = 4; i < content.capacity(); i++) {
+            assertThat(content.get(i)).isEqualTo((byte) 0);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void ensure_size_beyond_max_size_fails() throws Exception {
+        new PreAllocatingFileSizeEnsurer(delegate, randomAccessFile::getChannel, CHUNK_SIZE, CHUNK_SIZE, false)
+                .ensureSize(MAX_SIZE + 1);
+    }
+
+    private long fileLength() {
+        try {
+            return randomAccessFile.length();
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void fileLength(final long length) {
+        try {
+            randomAccessFile.setLength(length);
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.dev4fx.raft.mmap.api.Region;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PreFaultingIoMapperTest {
+    private static final int PAGE_SIZE = 4096;
+    private static final int LENGTH = 16 * PAGE_SIZE;
+
+    private File file;
+    private RandomAccessFile randomAccessFile;
+    private FileChannel fileChannel;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("preFaulting", ".map");
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        randomAccessFile.setLength(LENGTH);
+        fileChannel = randomAccessFile.getChannel();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        randomAccessFile.close();
+        IoUtil.delete(file, true);
+    }
+
+    @Test
+    public void map_returns_delegate_address_and_preserves_content() throws Exception {
+        //given
+        final long writeAddress = IoUtil.map(fileChannel, FileChannel.MapMode.READ_WRITE, 0, LENGTH);
+        final UnsafeBuffer writeBuffer = new UnsafeBuffer(writeAddress, LENGTH);
+        for (int i = 0; i < LENGTH; i += 4) {
+            writeBuffer.putInt(i, i);
+        }
+        final AtomicLong delegateAddress = new AtomicLong();
+        final Region.IoMapper ioMapper = new PreFaultingIoMapper((channel, mode, offset, length) -> {
+            delegateAddress.set(Region.IoMapper.DEFAULT.map(channel, mode, offset, length));
+            return delegateAddress.get();
+        }, PAGE_SIZE);
+
+        //when
+        final long address = ioMapper.map(fileChannel, FileChannel.MapMode.READ_WRITE, 0, LENGTH);
+
+        //then
+        assertThat(address).isEqualTo(delegateAddress.get());
+        final UnsafeBuffer readBuffer = new UnsafeBuffer(address, LENGTH);
+        for (int i = 0; i < LENGTH; i += 4) {
+            assertThat(readBuffer.getInt(i)).isEqualTo(i);
+        }
+
+        IoUtil.unmap(fileChannel, address, LENGTH);
+        IoUtil.unmap(fileChannel, writeAddress, LENGTH);
+    }
+
+    @Test
+    public void map_read_only_region() throws Exception {
+        //when
+        final long address = new PreFaultingIoMapper(Region.IoMapper.DEFAULT).map(fileChannel, FileChannel.MapMode.READ_ONLY, 0, LENGTH);
+
+        //then
+        assertThat(new UnsafeBuffer(address, LENGTH).getLong(LENGTH - 8)).isEqualTo(0);
+        IoUtil.unmap(fileChannel, address, LENGTH);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void page_size_must_be_power_of_two() throws Exception {
+        new PreFaultingIoMapper(Region.IoMapper.DEFAULT, 3000);
+    }
+}
@@ -150,6 +150,76 @@ public class RegionRingAccessorTest {
         inOrder.verify(region2).unmap();
     }
 
+    @Test
+    public void wrap_uses_look_ahead_policy_on_region_crossing_capped_by_ring_length() throws Exception {
+        //given
+        final int[] crossings = new int[1];
+        final Region[] regions = new Region[] {region1, region2, region3, region4};
+        regionRingAccessor = new RegionRingAccessor(regions, regionSize,
+                (regionIndex, crossingTimeNanos, wrapNanos) -> ++crossings[0] == 1 ? 1 : 10, onClose);
+
+        when(region1.wrap(45, directBuffer)).thenReturn(true);
+        when(region1.wrap(60, directBuffer)).thenReturn(true);
+        when(region2.wrap(regionSize + 45, directBuffer)).thenReturn(true);
+
+        //when
+        regionRingAccessor.wrap(45, directBuffer);
+        regionRingAccessor.wrap(60, directBuffer);
+
+        //then
+        inOrder.verify(region1).wrap(45, directBuffer);
+        inOrder.verify(region2).map(regionSize);
+        inOrder.verify(region1).wrap(60, directBuffer);
+        assertThat(crossings[0]).isEqualTo(1);
+
+        //when
+        regionRingAccessor.wrap(regionSize + 45, directBuffer);
+
+        //then
+        inOrder.verify(region2).wrap(regionSize + 45, directBuffer);
+        inOrder.verify(region3).map(2 * regionSize);
+        inOrder.verify(region4).map(3 * regionSize);
+        inOrder.verify(region1).map(4 * regionSize);
+        inOrder.verify(region2, never()).map(anyLong());
+        inOrder.verify(region1, never()).unmap();
+        assertThat(crossings[0]).isEqualTo(2);
+    }
+
+    @Test
+    public void wrap_does_not_unmap_previous_region_slot_remapped_by_jump() throws Exception {
+        //given
+        final Region[] regions = new Region[] {region1, region2, region3, region4};
+        regionRingAccessor = new RegionRingAccessor(regions, regionSize, 1, onClose);
+        when(region3.wrap(2 * regionSize, directBuffer)).thenReturn(true);
+        when(region3.wrap(6 * regionSize, directBuffer)).thenReturn(true);
+        when(region2.wrap(5 * regionSize, directBuffer)).thenReturn(true);
+        when(region1.wrap(4 * regionSize, directBuffer)).thenReturn(true);
+        regionRingAccessor.wrap(2 * regionSize, directBuffer);
+
+        //when - same slot
+        regionRingAccessor.wrap(6 * regionSize, directBuffer);
+
+        //then
+        inOrder.verify(region3).wrap(6 * regionSize, directBuffer);
+        inOrder.verify(region4).map(7 * regionSize);
+        inOrder.verify(region3, never()).unmap();
+
+        //when - backwards
+        regionRingAccessor.wrap(5 * regionSize, directBuffer);
+
+        //then
+        inOrder.verify(region2).wrap(5 * regionSize, directBuffer);
+        inOrder.verify(region1).map(4 * regionSize);
+        inOrder.verify(region3).unmap();
+
+        //when - backwards again
+        regionRingAccessor.wrap(4 * regionSize, directBuffer);
+
+        //then
+        inOrder.verify(region1).wrap(4 * regionSize, directBuffer);
+        inOrder.verify(region4).map(3 * regionSize);
+        inOrder.verify(region2).unmap();
+    }
 
     @Test
     public void size() throws Exception {
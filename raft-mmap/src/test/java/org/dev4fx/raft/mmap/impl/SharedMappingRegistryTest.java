@@ -0,0 +1,133 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.dev4fx.raft.mmap.api.FileSizeEnsurer;
+import org.dev4fx.raft.mmap.api.Region;
+import org.dev4fx.raft.mmap.api.RegionAccessor;
+import org.dev4fx.raft.mmap.api.RegionRingFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.nio.channels.FileChannel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SharedMappingRegistryTest {
+    @Mock
+    private FileChannel fileChannel;
+    @Mock
+    private Region.IoMapper ioMapper;
+    @Mock
+    private Region.IoUnMapper ioUnMapper;
+
+    private final int regionSize = 1024;
+    private final FileChannel.MapMode mapMode = FileChannel.MapMode.READ_WRITE;
+
+    private SharedMappingRegistry registry;
+
+    @Before
+    public void setUp() throws Exception {
+        registry = new SharedMappingRegistry(() -> fileChannel, ioMapper, ioUnMapper, mapMode, regionSize);
+        when(ioMapper.map(fileChannel, mapMode, 0, regionSize)).thenReturn(10000L);
+        when(ioMapper.map(fileChannel, mapMode, regionSize, regionSize)).thenReturn(20000L);
+    }
+
+    @Test
+    public void acquire_maps_once_and_release_unmaps_with_last_reference() throws Exception {
+        //when
+        assertThat(registry.acquire(0)).isEqualTo(10000L);
+        assertThat(registry.acquire(0)).isEqualTo(10000L);
+
+        //then
+        verify(ioMapper, times(1)).map(fileChannel, mapMode, 0, regionSize);
+        assertThat(registry.mappedRegions()).isEqualTo(1);
+
+        //when
+        registry.release(0);
+
+        //then
+        verifyZeroInteractions(ioUnMapper);
+
+        //when
+        registry.release(0);
+
+        //then
+        verify(ioUnMapper).unmap(fileChannel, 10000L, regionSize);
+        assertThat(registry.mappedRegions()).isEqualTo(0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void release_fails_for_region_not_acquired() throws Exception {
+        registry.release(regionSize);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void acquire_fails_for_unaligned_position() throws Exception {
+        registry.acquire(100);
+    }
+
+    @Test
+    public void accessors_share_mappings_of_the_same_regions() throws Exception {
+        //given
+        final RegionRingFactory factory = RegionRingFactory.forShared(registry);
+        final RegionAccessor writer = new RegionRingAccessor(
+                factory.create(4, regionSize, () -> fileChannel, FileSizeEnsurer.NO_OP, mapMode), regionSize, 1, () -> {});
+        final RegionAccessor reader = new RegionRingAccessor(
+                factory.create(4, regionSize, () -> fileChannel, FileSizeEnsurer.NO_OP, mapMode), regionSize, 1, () -> {});
+        final DirectBuffer buffer = new UnsafeBuffer(0, 0);
+
+        //when
+        assertThat(writer.wrap(10, buffer)).isTrue();
+        assertThat(buffer.addressOffset()).isEqualTo(10010L);
+        assertThat(reader.wrap(20, buffer)).isTrue();
+        assertThat(buffer.addressOffset()).isEqualTo(10020L);
+
+        //then - region 0 and mapped ahead region 1 are mapped once only
+        verify(ioMapper, times(1)).map(fileChannel, mapMode, 0, regionSize);
+        verify(ioMapper, times(1)).map(fileChannel, mapMode, regionSize, regionSize);
+        assertThat(registry.mappedRegions()).isEqualTo(2);
+
+        //when
+        writer.close();
+
+        //then
+        verifyZeroInteractions(ioUnMapper);
+
+        //when
+        reader.close();
+
+        //then
+        verify(ioUnMapper).unmap(fileChannel, 10000L, regionSize);
+        verify(ioUnMapper).unmap(fileChannel, 20000L, regionSize);
+        assertThat(registry.mappedRegions()).isEqualTo(0);
+    }
+}
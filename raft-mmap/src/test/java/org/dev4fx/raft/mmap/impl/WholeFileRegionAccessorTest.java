@@ -0,0 +1,130 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.mmap.impl;
+
+import org.agrona.DirectBuffer;
+import org.dev4fx.raft.mmap.api.FileSizeEnsurer;
+import org.dev4fx.raft.mmap.api.Region;
+import org.dev4fx.raft.mmap.api.RegionAccessor;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WholeFileRegionAccessorTest {
+    @Mock
+    private DirectBuffer directBuffer;
+    @Mock
+    private FileChannel fileChannel;
+    @Mock
+    private Region.IoMapper ioMapper;
+    @Mock
+    private Region.IoUnMapper ioUnMapper;
+    @Mock
+    private FileSizeEnsurer fileSizeEnsurer;
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final int chunkSize = 1024;
+    private final long maxFileSize = 4 * chunkSize;
+    private final FileChannel.MapMode mapMode = FileChannel.MapMode.READ_WRITE;
+
+    private InOrder inOrder;
+    private RegionAccessor accessor;
+
+    @Before
+    public void setUp() throws Exception {
+        accessor = new WholeFileRegionAccessor(() -> fileChannel, ioMapper, ioUnMapper, fileSizeEnsurer,
+                mapMode, chunkSize, maxFileSize, () -> closed.set(true));
+        inOrder = inOrder(directBuffer, ioMapper, ioUnMapper, fileSizeEnsurer);
+    }
+
+    @Test
+    public void wrap_maps_each_chunk_once_and_close_unmaps_all() throws Exception {
+        //given
+        when(fileSizeEnsurer.ensureSize(anyLong())).thenReturn(true);
+        when(ioMapper.map(fileChannel, mapMode, 0, chunkSize)).thenReturn(10000L);
+        when(ioMapper.map(fileChannel, mapMode, 2 * chunkSize, chunkSize)).thenReturn(50000L);
+
+        //when
+        assertThat(accessor.wrap(100, directBuffer)).isTrue();
+
+        //then
+        inOrder.verify(fileSizeEnsurer).ensureSize(chunkSize);
+        inOrder.verify(ioMapper).map(fileChannel, mapMode, 0, chunkSize);
+        inOrder.verify(directBuffer).wrap(10000L + 100, chunkSize - 100);
+
+        //when - jump forward and back
+        assertThat(accessor.wrap(2 * chunkSize + 8, directBuffer)).isTrue();
+        assertThat(accessor.wrap(200, directBuffer)).isTrue();
+
+        //then
+        inOrder.verify(fileSizeEnsurer).ensureSize(3 * chunkSize);
+        inOrder.verify(ioMapper).map(fileChannel, mapMode, 2 * chunkSize, chunkSize);
+        inOrder.verify(directBuffer).wrap(50000L + 8, chunkSize - 8);
+        inOrder.verify(directBuffer).wrap(10000L + 200, chunkSize - 200);
+        verify(ioMapper, times(2)).map(any(FileChannel.class), any(FileChannel.MapMode.class), anyLong(), anyLong());
+        verify(ioUnMapper, never()).unmap(any(FileChannel.class), anyLong(), anyLong());
+        assertThat(accessor.size()).isEqualTo(chunkSize);
+
+        //when
+        accessor.close();
+
+        //then
+        verify(ioUnMapper).unmap(fileChannel, 10000L, chunkSize);
+        verify(ioUnMapper).unmap(fileChannel, 50000L, chunkSize);
+        verifyNoMoreInteractions(ioUnMapper);
+        assertThat(closed.get()).isTrue();
+    }
+
+    @Test
+    public void wrap_fails_beyond_max_file_size() throws Exception {
+        //when and then
+        assertThat(accessor.wrap(maxFileSize, directBuffer)).isFalse();
+        verifyZeroInteractions(ioMapper, fileSizeEnsurer, directBuffer);
+    }
+
+    @Test
+    public void wrap_fails_when_file_size_cannot_be_ensured() throws Exception {
+        //given
+        when(fileSizeEnsurer.ensureSize(chunkSize)).thenReturn(false);
+
+        //when and then
+        assertThat(accessor.wrap(10, directBuffer)).isFalse();
+        verifyZeroInteractions(ioMapper, directBuffer);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void chunk_size_must_be_power_of_two() throws Exception {
+        new WholeFileRegionAccessor(() -> fileChannel, fileSizeEnsurer, mapMode, 1000, maxFileSize, () -> {});
+    }
+}
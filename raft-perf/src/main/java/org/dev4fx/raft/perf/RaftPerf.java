@@ -1,13 +1,18 @@
 package org.dev4fx.raft.perf;
 
 import io.aeron.Aeron;
-import io.aeron.shadow.org.HdrHistogram.Histogram;
+import org.HdrHistogram.Histogram;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.BusySpinIdleStrategy;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.dev4fx.raft.config.RaftServerBuilder;
+import org.dev4fx.raft.mmap.api.AsyncRegion;
+import org.dev4fx.raft.mmap.api.Processor;
+import org.dev4fx.raft.mmap.api.Region;
 import org.dev4fx.raft.mmap.api.RegionFactory;
 import org.dev4fx.raft.mmap.api.RegionRingFactory;
+import org.dev4fx.raft.mmap.impl.PreFaultingIoMapper;
+import org.dev4fx.raft.process.CpuAffinity;
 import org.dev4fx.raft.process.MutableProcessStepChain;
 import org.dev4fx.raft.process.Process;
 import org.dev4fx.raft.process.Service;
@@ -23,28 +28,38 @@ import org.slf4j.LoggerFactory;
 import java.nio.ByteBuffer;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.function.IntConsumer;
 import java.util.function.Supplier;
 
 public class RaftPerf {
     private final static Logger LOGGER = LoggerFactory.getLogger(RaftPerf.class);
 
-    private static final Supplier<RegionRingFactory> ASYNC = () -> {
+    private static final long PRE_ALLOCATION_MAX_CHUNK_SIZE = 256 * 1024 * 1024;
+    private static final int FILE_CHANNEL_MAX_IDLE_REGIONS = 4;
+    //optional CPU sets in taskset format to pin the server and region mapper threads to, e.g. isolated cores
+    private static final String SERVER_CPU_SET = System.getProperty("raft.perf.serverCpuSet");
+    private static final String REGION_MAPPER_CPU_SET = System.getProperty("raft.perf.regionMapperCpuSet");
+
+    private static final Supplier<RegionRingFactory> ASYNC = async(RegionFactory.ASYNC_VOLATILE_STATE_MACHINE);
+    private static final Supplier<RegionRingFactory> ASYNC_PRE_FAULTING = async(
+            RegionFactory.asyncVolatileStateMachine(new PreFaultingIoMapper(Region.IoMapper.DEFAULT), () -> {}));
+    private static final Supplier<RegionRingFactory> SYNC = () -> RegionRingFactory.forSync(RegionFactory.SYNC);
+    private static final Supplier<RegionRingFactory> SYNC_DEFERRED_UNMAPPING = () -> {
         final MutableProcessStepChain processStepChain = new MutableProcessStepChain();
-        return RegionRingFactory.forAsync(RegionFactory.ASYNC_VOLATILE_STATE_MACHINE,
+        return RegionRingFactory.forSyncDeferredUnmapping(
                 processor -> processStepChain.thenStep(processor::process),
-                () -> {
-                    final Process regionMapper = new Process("RegionMapper",
-                            () -> {}, () -> {},
-                            new BusySpinIdleStrategy()::idle,
-                            (s, e) -> LOGGER.error("{} {}", s, e, e),
-                            10, TimeUnit.SECONDS,
-                            processStepChain.getOrNoop()
-                    );
-                    regionMapper.start();
-                });
+                () -> startRegionMapper(processStepChain));
     };
-    private static final Supplier<RegionRingFactory> SYNC = () -> RegionRingFactory.forSync(RegionFactory.SYNC);
+    private static final Supplier<RegionRingFactory> ASYNC_PRE_ALLOCATING = () -> {
+        final MutableProcessStepChain processStepChain = new MutableProcessStepChain();
+        final Consumer<Processor> processorConsumer = processor -> processStepChain.thenStep(processor::process);
+        return RegionRingFactory.withPreAllocation(
+                RegionRingFactory.forAsync(RegionFactory.ASYNC_VOLATILE_STATE_MACHINE, processorConsumer,
+                        () -> startRegionMapper(processStepChain)),
+                processorConsumer, PRE_ALLOCATION_MAX_CHUNK_SIZE, true);
+    };
+    private static final Supplier<RegionRingFactory> FILE_CHANNEL = () -> RegionRingFactory.forFileChannel(FILE_CHANNEL_MAX_IDLE_REGIONS);
 
 
     public static void main(final String[] args) throws Exception {
@@ -119,6 +134,9 @@ public class RaftPerf {
                 .idleStrategyFactory(serverId -> new BusySpinIdleStrategy()::idle)
                 .stateMachineFactory(serverId -> stateMachine)
                 .onLeaderTransitionHandler(commandInjectionKickOff);
+        if (SERVER_CPU_SET != null) {
+            builder.cpuAffinity(serverId -> SERVER_CPU_SET);
+        }
 
         final Service.Start process = builder.build(raftDirectory, server, clusterSize);
 
@@ -133,6 +151,29 @@ public class RaftPerf {
         }
     }
 
+    private static Supplier<RegionRingFactory> async(final RegionFactory<AsyncRegion> regionFactory) {
+        return () -> {
+            final MutableProcessStepChain processStepChain = new MutableProcessStepChain();
+            return RegionRingFactory.forAsync(regionFactory,
+                    processor -> processStepChain.thenStep(processor::process),
+                    () -> startRegionMapper(processStepChain));
+        };
+    }
+
+    private static void startRegionMapper(final MutableProcessStepChain processStepChain) {
+        final Runnable onStart = REGION_MAPPER_CPU_SET != null
+                ? CpuAffinity.of(REGION_MAPPER_CPU_SET).bindOnStart("RegionMapper", () -> {})
+                : () -> {};
+        final Process regionMapper = new Process("RegionMapper",
+                onStart, () -> {},
+                new BusySpinIdleStrategy()::idle,
+                (s, e) -> LOGGER.error("{} {}", s, e, e),
+                10, TimeUnit.SECONDS,
+                processStepChain.getOrNoop()
+        );
+        regionMapper.start();
+    }
+
     private enum RegionMappingConfig implements Supplier<RegionRingFactory> {
         SYNC {
             @Override
@@ -145,6 +186,30 @@ public class RaftPerf {
             public RegionRingFactory get() {
                 return RaftPerf.ASYNC.get();
             }
+        },
+        SYNC_DEFERRED_UNMAPPING {
+            @Override
+            public RegionRingFactory get() {
+                return RaftPerf.SYNC_DEFERRED_UNMAPPING.get();
+            }
+        },
+        ASYNC_PRE_FAULTING {
+            @Override
+            public RegionRingFactory get() {
+                return RaftPerf.ASYNC_PRE_FAULTING.get();
+            }
+        },
+        ASYNC_PRE_ALLOCATING {
+            @Override
+            public RegionRingFactory get() {
+                return RaftPerf.ASYNC_PRE_ALLOCATING.get();
+            }
+        },
+        FILE_CHANNEL {
+            @Override
+            public RegionRingFactory get() {
+                return RaftPerf.FILE_CHANNEL.get();
+            }
         }
     }
 }
\ No newline at end of file
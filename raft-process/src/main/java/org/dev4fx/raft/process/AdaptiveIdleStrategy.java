@@ -0,0 +1,118 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.process;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Idle strategy spinning while work has been done recently, then yielding and finally parking with an
+ * exponentially growing park period while the process stays quiet.
+ * <p>
+ * {@link #reset()} may be invoked by any thread, for instance by a producer after enqueuing work for the
+ * process; it returns the strategy to spinning and unparks the process thread if it is currently parked.
+ */
+public final class AdaptiveIdleStrategy implements IdleStrategy {
+    private final int maxSpins;
+    private final int maxYields;
+    private final long minParkPeriodNanos;
+    private final long maxParkPeriodNanos;
+
+    private volatile Thread idleThread;
+    private volatile boolean parked;
+    private volatile boolean signalled;
+
+    private int spins;
+    private int yields;
+    private long parkPeriodNanos;
+
+    public AdaptiveIdleStrategy(final int maxSpins,
+                                final int maxYields,
+                                final long minParkPeriodNanos,
+                                final long maxParkPeriodNanos) {
+        if (minParkPeriodNanos <= 0 || maxParkPeriodNanos < minParkPeriodNanos) {
+            throw new IllegalArgumentException("Invalid park periods: min=" + minParkPeriodNanos + ", max=" + maxParkPeriodNanos);
+        }
+        this.maxSpins = maxSpins;
+        this.maxYields = maxYields;
+        this.minParkPeriodNanos = minParkPeriodNanos;
+        this.maxParkPeriodNanos = maxParkPeriodNanos;
+        this.parkPeriodNanos = minParkPeriodNanos;
+    }
+
+    @Override
+    public void idle(final int workDone) {
+        if (workDone > 0) {
+            resetBackoff();
+        } else if (signalled) {
+            signalled = false;
+            resetBackoff();
+        } else if (spins < maxSpins) {
+            spins++;
+        } else if (yields < maxYields) {
+            yields++;
+            Thread.yield();
+        } else {
+            park();
+        }
+    }
+
+    @Override
+    public void reset() {
+        signalled = true;
+        if (parked) {
+            LockSupport.unpark(idleThread);
+        }
+    }
+
+    //backoff state of the idle thread, exposed for tests
+    int spins() {
+        return spins;
+    }
+
+    int yields() {
+        return yields;
+    }
+
+    long parkPeriodNanos() {
+        return parkPeriodNanos;
+    }
+
+    private void park() {
+        if (idleThread == null) {
+            idleThread = Thread.currentThread();
+        }
+        parked = true;
+        if (!signalled) {
+            LockSupport.parkNanos(this, parkPeriodNanos);
+        }
+        parked = false;
+        parkPeriodNanos = Long.min(parkPeriodNanos << 1, maxParkPeriodNanos);
+    }
+
+    private void resetBackoff() {
+        spins = 0;
+        yields = 0;
+        parkPeriodNanos = minParkPeriodNanos;
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.process;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.Scanner;
+import java.util.regex.Pattern;
+
+/**
+ * CPU set a process thread is bound to when started. Binding is supported on Linux only; it resolves the native
+ * id of the current thread through {@code /proc/thread-self} and applies the CPU set with {@code taskset}.
+ * Isolation of the cores themselves, e.g. through the {@code isolcpus} kernel parameter, is left to the host
+ * configuration.
+ * <p>
+ * Binding is fail-fast: if the thread cannot be bound, the exception propagates from the start handler and
+ * ends the process thread before any step is run. Use {@link #isSupported()} to check up front.
+ */
+public final class CpuAffinity {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CpuAffinity.class);
+    private static final Pattern CPU_SET_PATTERN = Pattern.compile("\\d+(-\\d+)?(,\\d+(-\\d+)?)*");
+    private static final Path THREAD_SELF = Paths.get("/proc/thread-self");
+    private static final String CPUS_ALLOWED_LIST = "Cpus_allowed_list:";
+
+    private final String cpuSet;
+
+    private CpuAffinity(final String cpuSet) {
+        this.cpuSet = Objects.requireNonNull(cpuSet);
+    }
+
+    /**
+     * @param cpuSet CPU list in taskset format, for instance "3" or "2,4-5"
+     */
+    public static CpuAffinity of(final String cpuSet) {
+        if (!CPU_SET_PATTERN.matcher(cpuSet).matches()) {
+            throw new IllegalArgumentException("Invalid CPU set: " + cpuSet);
+        }
+        return new CpuAffinity(cpuSet);
+    }
+
+    public String cpuSet() {
+        return cpuSet;
+    }
+
+    /**
+     * @return true if {@code /proc/thread-self} exists and {@code taskset} can be executed
+     */
+    public static boolean isSupported() {
+        if (!Files.exists(THREAD_SELF)) {
+            return false;
+        }
+        try {
+            final java.lang.Process taskset = new ProcessBuilder("taskset", "-V")
+                    .redirectErrorStream(true)
+                    .start();
+            read(taskset.getInputStream());
+            return taskset.waitFor() == 0;
+        } catch (final IOException e) {
+            return false;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Binds the current thread to the CPU set.
+     * @return the CPUs the thread is allowed to run on after binding, as reported by the kernel
+     */
+    public String bindCurrentThread() {
+        if (!Files.exists(THREAD_SELF)) {
+            throw new IllegalStateException("CPU affinity is not supported on this platform");
+        }
+        try {
+            final String threadId = THREAD_SELF.toRealPath().getFileName().toString();
+            final java.lang.Process taskset = new ProcessBuilder("taskset", "-p", "-c", cpuSet, threadId)
+                    .redirectErrorStream(true)
+                    .start();
+            final String output = read(taskset.getInputStream());
+            if (taskset.waitFor() != 0) {
+                throw new IllegalStateException("Failed to bind thread " + threadId + " to CPU set " + cpuSet + ": " + output);
+            }
+            return cpusAllowed();
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to bind current thread to CPU set " + cpuSet, e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while binding current thread to CPU set " + cpuSet, e);
+        }
+    }
+
+    /**
+     * Returns a start handler binding the process thread to the CPU set and logging the applied placement
+     * before invoking the given start handler.
+     */
+    public Runnable bindOnStart(final String processName, final Runnable onStartHandler) {
+        Objects.requireNonNull(processName);
+        Objects.requireNonNull(onStartHandler);
+        return () -> {
+            final String cpusAllowed = bindCurrentThread();
+            LOGGER.info("Bound {} process thread {} to CPU set {}, allowed CPUs: {}", processName,
+                    Thread.currentThread().getName(), cpuSet, cpusAllowed);
+            onStartHandler.run();
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "CpuAffinity{" + cpuSet + "}";
+    }
+
+    private static String cpusAllowed() throws IOException {
+        for (final String line : Files.readAllLines(THREAD_SELF.resolve("status"), StandardCharsets.US_ASCII)) {
+            if (line.startsWith(CPUS_ALLOWED_LIST)) {
+                return line.substring(CPUS_ALLOWED_LIST.length()).trim();
+            }
+        }
+        throw new IllegalStateException("No " + CPUS_ALLOWED_LIST + " entry in " + THREAD_SELF.resolve("status"));
+    }
+
+    private static String read(final InputStream inputStream) {
+        try (final Scanner scanner = new Scanner(inputStream, StandardCharsets.US_ASCII.name())) {
+            return scanner.useDelimiter("\\A").hasNext() ? scanner.next().trim() : "";
+        }
+    }
+}
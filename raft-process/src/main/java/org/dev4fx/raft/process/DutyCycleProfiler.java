@@ -0,0 +1,206 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.process;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records duty cycle durations, per step execution times and work done ratios of a {@link ProcessLoop} into
+ * histograms preallocated on construction, and counts stalls when a duty cycle exceeds the stall threshold.
+ * Stalls are not logged when they occur to keep allocation and I/O out of the slowest cycles; instead the
+ * slowest step of every stalled cycle is counted and the worst stall is kept for {@link #logSummary()}.
+ * <p>
+ * All methods except for {@link #logSummary()} are invoked by the process loop thread only.
+ */
+public final class DutyCycleProfiler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DutyCycleProfiler.class);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final double NANOS_PER_MICRO = 1000.0;
+
+    private final String name;
+    private final String[] stepNames;
+    private final long stallThresholdNanos;
+    private final Histogram dutyCycleHistogram;
+    private final Histogram[] stepHistograms;
+    private final long[] stepNanos;
+    private final long[] stepWorkDoneCounts;
+    private final long[] stepStallCounts;
+    private long cycleCount;
+    private long cycleWorkDoneCount;
+    private long stallCount;
+    private long worstStallNanos;
+    private int worstStallStep;
+    private long worstStallStepNanos;
+
+    /**
+     * Creates a profiler reporting steps by their index.
+     */
+    public DutyCycleProfiler(final String name, final int stepCount, final long stallThreshold, final TimeUnit timeUnit) {
+        this(name, stepIndexNames(stepCount), stallThreshold, timeUnit);
+    }
+
+    /**
+     * Creates a profiler reporting steps by the given names, one per step in execution order.
+     */
+    public DutyCycleProfiler(final String name, final List<String> stepNames, final long stallThreshold, final TimeUnit timeUnit) {
+        final int stepCount = stepNames.size();
+        this.name = Objects.requireNonNull(name);
+        this.stepNames = stepNames.toArray(new String[stepCount]);
+        for (final String stepName : this.stepNames) {
+            Objects.requireNonNull(stepName);
+        }
+        this.stallThresholdNanos = timeUnit.toNanos(stallThreshold);
+        this.dutyCycleHistogram = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        this.stepHistograms = new Histogram[stepCount];
+        this.stepNanos = new long[stepCount];
+        this.stepWorkDoneCounts = new long[stepCount];
+        this.stepStallCounts = new long[stepCount];
+        for (int i = 0; i < stepCount; i++) {
+            stepHistograms[i] = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        }
+    }
+
+    public void onStepExecuted(final int stepIndex, final long nanos, final boolean workDone) {
+        stepNanos[stepIndex] = nanos;
+        record(stepHistograms[stepIndex], nanos);
+        if (workDone) {
+            stepWorkDoneCounts[stepIndex]++;
+        }
+    }
+
+    public void onCycleExecuted(final long nanos, final boolean workDone) {
+        cycleCount++;
+        record(dutyCycleHistogram, nanos);
+        if (workDone) {
+            cycleWorkDoneCount++;
+        }
+        if (nanos > stallThresholdNanos) {
+            final int slowestStep = slowestStep();
+            stallCount++;
+            stepStallCounts[slowestStep]++;
+            if (nanos > worstStallNanos) {
+                worstStallNanos = nanos;
+                worstStallStep = slowestStep;
+                worstStallStepNanos = stepNanos[slowestStep];
+            }
+        }
+    }
+
+    public int stepCount() {
+        return stepHistograms.length;
+    }
+
+    public String stepName(final int stepIndex) {
+        return stepNames[stepIndex];
+    }
+
+    public Histogram dutyCycleHistogram() {
+        return dutyCycleHistogram;
+    }
+
+    public Histogram stepHistogram(final int stepIndex) {
+        return stepHistograms[stepIndex];
+    }
+
+    public double stepWorkDoneRatio(final int stepIndex) {
+        return cycleCount == 0 ? 0 : stepWorkDoneCounts[stepIndex] / (double) cycleCount;
+    }
+
+    public double cycleWorkDoneRatio() {
+        return cycleCount == 0 ? 0 : cycleWorkDoneCount / (double) cycleCount;
+    }
+
+    public long stallCount() {
+        return stallCount;
+    }
+
+    /**
+     * @return the number of stalled duty cycles in which the given step was the slowest step
+     */
+    public long stepStallCount(final int stepIndex) {
+        return stepStallCounts[stepIndex];
+    }
+
+    public long worstStallNanos() {
+        return worstStallNanos;
+    }
+
+    public String worstStallStepName() {
+        return stallCount == 0 ? null : stepNames[worstStallStep];
+    }
+
+    public long worstStallStepNanos() {
+        return worstStallStepNanos;
+    }
+
+    public void logSummary() {
+        LOGGER.info("{} duty cycles={} stalls={} workDoneRatio={} {}", name, cycleCount, stallCount,
+                cycleWorkDoneRatio(), percentiles(dutyCycleHistogram));
+        if (stallCount > 0) {
+            LOGGER.warn("{} worst stall {}us, slowest step {} took {}us", name, worstStallNanos / NANOS_PER_MICRO,
+                    stepNames[worstStallStep], worstStallStepNanos / NANOS_PER_MICRO);
+        }
+        for (int i = 0; i < stepHistograms.length; i++) {
+            LOGGER.info("{} step {} workDoneRatio={} stalls={} {}", name, stepNames[i], stepWorkDoneRatio(i),
+                    stepStallCounts[i], percentiles(stepHistograms[i]));
+        }
+    }
+
+    private int slowestStep() {
+        int slowestStep = 0;
+        for (int i = 1; i < stepNanos.length; i++) {
+            if (stepNanos[i] > stepNanos[slowestStep]) {
+                slowestStep = i;
+            }
+        }
+        return slowestStep;
+    }
+
+    private static List<String> stepIndexNames(final int stepCount) {
+        final List<String> stepNames = new ArrayList<>(stepCount);
+        for (int i = 0; i < stepCount; i++) {
+            stepNames.add(String.valueOf(i));
+        }
+        return stepNames;
+    }
+
+    private static void record(final Histogram histogram, final long nanos) {
+        histogram.recordValue(Long.min(Long.max(nanos, 0), HIGHEST_TRACKABLE_NANOS));
+    }
+
+    private static String percentiles(final Histogram histogram) {
+        return "p50=" + histogram.getValueAtPercentile(50) / NANOS_PER_MICRO +
+                "us p99=" + histogram.getValueAtPercentile(99) / NANOS_PER_MICRO +
+                "us p99.9=" + histogram.getValueAtPercentile(99.9) / NANOS_PER_MICRO +
+                "us max=" + histogram.getMaxValue() / NANOS_PER_MICRO + "us";
+    }
+}
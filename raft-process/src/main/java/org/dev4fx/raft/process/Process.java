@@ -34,6 +34,7 @@ public class Process implements Service.Start {
     private final ProcessLoop processLoop;
     private final String name;
     private final Thread thread;
+    private final ProcessScheduler scheduler;
     private final AtomicBoolean stopping = new AtomicBoolean(false);
     private final long gracefulShutdownTimeout;
     private final TimeUnit gracefulShutdownTimeunit;
@@ -48,6 +49,36 @@ public class Process implements Service.Start {
                    final long gracefulShutdownTimeout,
                    final TimeUnit gracefulShutdownTimeunit,
                    final ProcessStep... steps) {
+        this(name, onStartHandler, onStopHandler, idleStrategy, exceptionHandler, gracefulShutdownTimeout,
+                gracefulShutdownTimeunit, null, steps);
+    }
+
+    public Process(final String name,
+                   final Runnable onStartHandler,
+                   final Runnable onStopHandler,
+                   final IdleStrategy idleStrategy,
+                   final BiConsumer<? super String, ? super Exception> exceptionHandler,
+                   final long gracefulShutdownTimeout,
+                   final TimeUnit gracefulShutdownTimeunit,
+                   final DutyCycleProfiler profiler,
+                   final ProcessStep... steps) {
+        this(name, onStartHandler, onStopHandler, idleStrategy, exceptionHandler, gracefulShutdownTimeout,
+                gracefulShutdownTimeunit, profiler, null, steps);
+    }
+
+    /**
+     * Creates a process executed by the given scheduler, or by a dedicated thread if the scheduler is null.
+     */
+    public Process(final String name,
+                   final Runnable onStartHandler,
+                   final Runnable onStopHandler,
+                   final IdleStrategy idleStrategy,
+                   final BiConsumer<? super String, ? super Exception> exceptionHandler,
+                   final long gracefulShutdownTimeout,
+                   final TimeUnit gracefulShutdownTimeunit,
+                   final DutyCycleProfiler profiler,
+                   final ProcessScheduler scheduler,
+                   final ProcessStep... steps) {
         this.gracefulShutdownTimeunit = Objects.requireNonNull(gracefulShutdownTimeunit);
         this.gracefulShutdownTimeout = gracefulShutdownTimeout;
 
@@ -58,13 +89,18 @@ public class Process implements Service.Start {
                 () -> System.currentTimeMillis() > gracefulShutdownMaxTime.get(),
                 idleStrategy,
                 exceptionHandler,
+                profiler,
                 steps);
-        this.thread = new Thread(processLoop, name);
+        this.scheduler = scheduler;
+        this.thread = scheduler == null ? new Thread(processLoop, name) : null;
         this.name = name;
     }
 
     @Override
     public Service.Stop start() {
+        if (scheduler != null) {
+            return startScheduled();
+        }
         thread.start();
 
         return new Service.Stop() {
@@ -93,4 +129,33 @@ public class Process implements Service.Start {
             }
         };
     }
+
+    private Service.Stop startScheduled() {
+        final ProcessScheduler.Termination termination = scheduler.schedule(processLoop);
+
+        return new Service.Stop() {
+            @Override
+            public void stop() {
+                final long gracefulShutdownTimeoutMillis = gracefulShutdownTimeunit.toMillis(gracefulShutdownTimeout);
+                gracefulShutdownMaxTime.set(System.currentTimeMillis() + gracefulShutdownTimeoutMillis);
+                stopping.set(true);
+                try {
+                    termination.await(gracefulShutdownTimeoutMillis, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for scheduled process " + name + " to stop", e);
+                }
+            }
+
+            @Override
+            public void awaitShutdown() {
+                try {
+                    termination.await(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for scheduled process " + name + " to shutdown", e);
+                }
+            }
+        };
+    }
 }
@@ -41,6 +41,8 @@ public class ProcessLoop implements Runnable {
     private final IdleStrategy idleStrategy;
     private final BiConsumer<? super String, ? super Exception> exceptionHandler;
     private final ProcessStep[] steps;
+    private final DutyCycleProfiler profiler;
+    private boolean shuttingDown;
 
     public ProcessLoop(final String name,
                        final Runnable onStartHandler,
@@ -50,6 +52,22 @@ public class ProcessLoop implements Runnable {
                        final IdleStrategy idleStrategy,
                        final BiConsumer<? super String, ? super Exception> exceptionHandler,
                        final ProcessStep... steps) {
+        this(name, onStartHandler, onStopHandler, shutdownCondition, shutdownAbortCondition, idleStrategy,
+                exceptionHandler, null, steps);
+    }
+
+    /**
+     * Creates a process loop instrumented by the given profiler, or a plain loop if the profiler is null.
+     */
+    public ProcessLoop(final String name,
+                       final Runnable onStartHandler,
+                       final Runnable onStopHandler,
+                       final BooleanSupplier shutdownCondition,
+                       final BooleanSupplier shutdownAbortCondition,
+                       final IdleStrategy idleStrategy,
+                       final BiConsumer<? super String, ? super Exception> exceptionHandler,
+                       final DutyCycleProfiler profiler,
+                       final ProcessStep... steps) {
         this.name = Objects.requireNonNull(name);
         this.onStartHandler = Objects.requireNonNull(onStartHandler);
         this.onStopHandler = Objects.requireNonNull(onStopHandler);
@@ -58,29 +76,68 @@ public class ProcessLoop implements Runnable {
         this.idleStrategy = Objects.requireNonNull(idleStrategy);
         this.exceptionHandler = Objects.requireNonNull(exceptionHandler);
         this.steps = Objects.requireNonNull(steps);
+        if (profiler != null && profiler.stepCount() != steps.length) {
+            throw new IllegalArgumentException("Profiler step count " + profiler.stepCount() +
+                    " does not match number of steps " + steps.length);
+        }
+        this.profiler = profiler;
     }
 
     @Override
     public void run() {
-        onStartHandler.run();
-        executeLoop();
-        onStopHandler.run();
+        start();
+        while (!shutdownRequested()) {
+            idleStrategy.idle(executeCycle() ? 1 : 0);
+        }
+        while (!finaliseCycle()) {
+            //continue finalising until finalised or aborted
+        }
+        stop();
     }
 
-    private boolean executeLoop() {
+    /**
+     * Invokes the start handler. The following methods allow a {@link ProcessScheduler} to drive the loop one
+     * duty cycle at a time instead of running it on a dedicated thread; they must not be called concurrently.
+     */
+    public void start() {
+        onStartHandler.run();
         LOGGER.info("Started {} process loop", name);
-        while (!shutdownCondition.getAsBoolean()) {
-            idleStrategy.idle(executeSteps() ? 1 : 0);
+    }
+
+    public boolean shutdownRequested() {
+        return shutdownCondition.getAsBoolean();
+    }
+
+    public boolean executeCycle() {
+        return profiler == null ? executeSteps() : executeProfiledSteps();
+    }
+
+    /**
+     * Performs one finalisation cycle after shutdown has been requested.
+     * @return true if the loop has finished finalising, either because all steps are finalised or
+     *         because finalisation has been aborted
+     */
+    public boolean finaliseCycle() {
+        if (!shuttingDown) {
+            shuttingDown = true;
+            LOGGER.info("Shutting down {} process loop", name);
         }
-        LOGGER.info("Shutting down {} process loop", name);
-        boolean aborted = shutdownAbortCondition.getAsBoolean();
-        boolean finalised = false;
-        while(!finalised && !aborted) {
-            finalised = finaliseSteps();
-            aborted = shutdownAbortCondition.getAsBoolean() && !finalised;
+        if (shutdownAbortCondition.getAsBoolean()) {
+            LOGGER.info("Finished {} process loop, finalised={}, aborted={}", name, false, true);
+            return true;
         }
-        LOGGER.info("Finished {} process loop, finalised={}, aborted={}", name, finalised, aborted);
-        return finalised;
+        if (finaliseSteps()) {
+            LOGGER.info("Finished {} process loop, finalised={}, aborted={}", name, true, false);
+            return true;
+        }
+        return false;
+    }
+
+    public void stop() {
+        if (profiler != null) {
+            profiler.logSummary();
+        }
+        onStopHandler.run();
     }
 
     private boolean executeSteps() {
@@ -96,6 +153,26 @@ public class ProcessLoop implements Runnable {
         return workDone;
     }
 
+    private boolean executeProfiledSteps() {
+        boolean workDone = false;
+        final long cycleStartNanos = System.nanoTime();
+        long stepStartNanos = cycleStartNanos;
+        for (int i = 0; i < steps.length; i++) {
+            boolean stepWorkDone = false;
+            try {
+                stepWorkDone = steps[i].execute();
+            } catch (final Exception ex) {
+                exceptionHandler.accept(name, ex);
+            }
+            final long stepEndNanos = System.nanoTime();
+            profiler.onStepExecuted(i, stepEndNanos - stepStartNanos, stepWorkDone);
+            stepStartNanos = stepEndNanos;
+            workDone |= stepWorkDone;
+        }
+        profiler.onCycleExecuted(stepStartNanos - cycleStartNanos, workDone);
+        return workDone;
+    }
+
     private boolean finaliseSteps() {
         boolean finalised = true;
         for (final ProcessStep step : steps) {
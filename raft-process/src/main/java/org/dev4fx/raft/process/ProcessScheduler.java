@@ -0,0 +1,275 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.process;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Multiplexes many {@link ProcessLoop}s over a fixed number of worker threads.
+ * <p>
+ * Every worker owns a deque of scheduled loops. A worker takes the loop at the head of its deque, executes up to
+ * {@code maxCyclesPerTurn} duty cycles while the loop does work and then appends it to the tail again, so that
+ * all loops of a worker get a fair share. A worker with an empty deque steals from the tail of the other workers'
+ * deques. A loop is always held by exactly one deque or one worker, hence it is never executed concurrently and
+ * the hand-over through the deque guarantees visibility of its state to the next worker; steps relying on thread
+ * confinement such as thread locals must not be scheduled though.
+ * <p>
+ * The idle strategies of scheduled loops are not used; workers idle with their own strategy after a full turn
+ * over all loops without any work done.
+ * <p>
+ * Loops still scheduled when the scheduler is stopped are drained by the workers before they exit: each loop is
+ * finalised subject to its own shutdown abort condition and then stopped, so that its termination completes.
+ */
+public final class ProcessScheduler implements Service.Start {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessScheduler.class);
+
+    private final String name;
+    private final int maxCyclesPerTurn;
+    private final BiConsumer<? super String, ? super Exception> exceptionHandler;
+    private final ConcurrentLinkedDeque<ScheduledLoop>[] deques;
+    private final Thread[] workers;
+    private final CpuAffinity[] workerAffinities;
+    private final AtomicInteger nextDeque = new AtomicInteger();
+    private final AtomicInteger scheduledLoops = new AtomicInteger();
+    private volatile boolean running;
+
+    public ProcessScheduler(final String name,
+                            final int workerCount,
+                            final int maxCyclesPerTurn,
+                            final IntFunction<? extends IdleStrategy> idleStrategyFactory,
+                            final BiConsumer<? super String, ? super Exception> exceptionHandler) {
+        this(name, workerCount, maxCyclesPerTurn, idleStrategyFactory, exceptionHandler, workerIndex -> null);
+    }
+
+    /**
+     * Creates a scheduler binding each worker thread to the CPU affinity returned for its index, or leaving the
+     * worker unbound if null is returned.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ProcessScheduler(final String name,
+                            final int workerCount,
+                            final int maxCyclesPerTurn,
+                            final IntFunction<? extends IdleStrategy> idleStrategyFactory,
+                            final BiConsumer<? super String, ? super Exception> exceptionHandler,
+                            final IntFunction<? extends CpuAffinity> workerToCpuAffinity) {
+        if (workerCount <= 0) throw new IllegalArgumentException("workerCount must be positive: " + workerCount);
+        if (maxCyclesPerTurn <= 0) throw new IllegalArgumentException("maxCyclesPerTurn must be positive: " + maxCyclesPerTurn);
+        Objects.requireNonNull(idleStrategyFactory);
+        Objects.requireNonNull(workerToCpuAffinity);
+        this.name = Objects.requireNonNull(name);
+        this.maxCyclesPerTurn = maxCyclesPerTurn;
+        this.exceptionHandler = Objects.requireNonNull(exceptionHandler);
+        this.deques = new ConcurrentLinkedDeque[workerCount];
+        this.workers = new Thread[workerCount];
+        this.workerAffinities = new CpuAffinity[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            final int workerIndex = i;
+            final IdleStrategy idleStrategy = Objects.requireNonNull(idleStrategyFactory.apply(workerIndex));
+            workerAffinities[i] = workerToCpuAffinity.apply(workerIndex);
+            deques[i] = new ConcurrentLinkedDeque<>();
+            workers[i] = new Thread(() -> runWorker(workerIndex, idleStrategy), name + "-" + workerIndex);
+        }
+    }
+
+    /**
+     * Schedules the given loop for execution by the workers of this scheduler.
+     * @param processLoop the loop, not to be run or scheduled elsewhere
+     * @return the termination of the loop, completed once the loop has been finalised and stopped
+     */
+    public Termination schedule(final ProcessLoop processLoop) {
+        final ScheduledLoop scheduledLoop = new ScheduledLoop(processLoop);
+        scheduledLoops.incrementAndGet();
+        deques[(nextDeque.getAndIncrement() & Integer.MAX_VALUE) % deques.length].addLast(scheduledLoop);
+        return scheduledLoop;
+    }
+
+    public int workerCount() {
+        return workers.length;
+    }
+
+    @Override
+    public Service.Stop start() {
+        running = true;
+        for (final Thread worker : workers) {
+            worker.start();
+        }
+        LOGGER.info("Started {} scheduler with {} workers", name, workers.length);
+
+        return new Service.Stop() {
+            @Override
+            public void stop() {
+                running = false;
+                awaitShutdown();
+            }
+
+            @Override
+            public void awaitShutdown() {
+                try {
+                    for (final Thread worker : workers) {
+                        worker.join();
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for scheduler " + name + " to shutdown", e);
+                }
+            }
+        };
+    }
+
+    private void runWorker(final int workerIndex, final IdleStrategy idleStrategy) {
+        final ConcurrentLinkedDeque<ScheduledLoop> deque = deques[workerIndex];
+        final CpuAffinity cpuAffinity = workerAffinities[workerIndex];
+        if (cpuAffinity != null) {
+            LOGGER.info("Bound {} worker {} to CPU set {}, allowed CPUs: {}", name, workerIndex,
+                    cpuAffinity.cpuSet(), cpuAffinity.bindCurrentThread());
+        }
+        int turnsWithoutWork = 0;
+        while (running) {
+            final ScheduledLoop scheduledLoop = pollOrSteal(deque, workerIndex);
+            boolean workDone = false;
+            if (scheduledLoop != null) {
+                workDone = scheduledLoop.executeTurn();
+                if (scheduledLoop.isTerminated()) {
+                    scheduledLoops.decrementAndGet();
+                } else {
+                    deque.addLast(scheduledLoop);
+                }
+            }
+            if (workDone) {
+                turnsWithoutWork = 0;
+                idleStrategy.idle(1);
+            } else if (scheduledLoop == null || ++turnsWithoutWork >= scheduledLoops.get()) {
+                turnsWithoutWork = 0;
+                idleStrategy.idle(0);
+            }
+        }
+        ScheduledLoop remainingLoop;
+        while ((remainingLoop = pollOrSteal(deque, workerIndex)) != null) {
+            remainingLoop.finalise();
+            scheduledLoops.decrementAndGet();
+        }
+        LOGGER.info("Stopped {} worker {}", name, workerIndex);
+    }
+
+    private ScheduledLoop pollOrSteal(final ConcurrentLinkedDeque<ScheduledLoop> deque, final int workerIndex) {
+        final ScheduledLoop scheduledLoop = deque.pollFirst();
+        return scheduledLoop != null ? scheduledLoop : steal(workerIndex);
+    }
+
+    private ScheduledLoop steal(final int workerIndex) {
+        for (int i = 1; i < deques.length; i++) {
+            final ScheduledLoop stolen = deques[(workerIndex + i) % deques.length].pollLast();
+            if (stolen != null) {
+                return stolen;
+            }
+        }
+        return null;
+    }
+
+    public interface Termination {
+        boolean isTerminated();
+        boolean await(long timeout, TimeUnit timeUnit) throws InterruptedException;
+    }
+
+    private final class ScheduledLoop implements Termination {
+        private final ProcessLoop processLoop;
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        private boolean started;
+        private boolean finalising;
+
+        ScheduledLoop(final ProcessLoop processLoop) {
+            this.processLoop = Objects.requireNonNull(processLoop);
+        }
+
+        boolean executeTurn() {
+            try {
+                if (!started) {
+                    started = true;
+                    processLoop.start();
+                }
+                if (!finalising) {
+                    for (int cycle = 0; cycle < maxCyclesPerTurn; cycle++) {
+                        if (processLoop.shutdownRequested()) {
+                            finalising = true;
+                            break;
+                        }
+                        if (!processLoop.executeCycle()) {
+                            return cycle > 0;
+                        }
+                    }
+                    if (!finalising) {
+                        return true;
+                    }
+                }
+                if (processLoop.finaliseCycle()) {
+                    processLoop.stop();
+                    terminated.countDown();
+                }
+                return true;
+            } catch (final Exception ex) {
+                exceptionHandler.accept(processLoop.name(), ex);
+                terminated.countDown();
+                return true;
+            }
+        }
+
+        /**
+         * Finalises and stops the loop regardless of whether shutdown has been requested for it.
+         */
+        void finalise() {
+            try {
+                if (!started) {
+                    started = true;
+                    processLoop.start();
+                }
+                while (!processLoop.finaliseCycle()) {
+                    //continue finalising until finalised or aborted
+                }
+                processLoop.stop();
+            } catch (final Exception ex) {
+                exceptionHandler.accept(processLoop.name(), ex);
+            }
+            terminated.countDown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return terminated.getCount() == 0;
+        }
+
+        @Override
+        public boolean await(final long timeout, final TimeUnit timeUnit) throws InterruptedException {
+            return terminated.await(timeout, timeUnit);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.process;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiConsumer;
+
+/**
+ * Process step executing a set of steps that can be added and removed by any thread while the process is
+ * running. Changes are queued lock-free and applied by the process thread at the start of the next duty cycle,
+ * so that the steps are never modified while executing. The step array is copied on change only, executing the
+ * steps neither locks nor allocates.
+ */
+public final class ProcessStepSet implements ProcessStep {
+    private static final ProcessStep[] EMPTY = new ProcessStep[0];
+    private static final Runnable NO_CALLBACK = () -> {};
+
+    private final String name;
+    private final BiConsumer<? super String, ? super Exception> exceptionHandler;
+    private final Queue<Change> changes = new ConcurrentLinkedQueue<>();
+    private ProcessStep[] steps = EMPTY;
+
+    public ProcessStepSet(final String name, final BiConsumer<? super String, ? super Exception> exceptionHandler) {
+        this.name = Objects.requireNonNull(name);
+        this.exceptionHandler = Objects.requireNonNull(exceptionHandler);
+    }
+
+    public void add(final ProcessStep step) {
+        add(step, NO_CALLBACK);
+    }
+
+    /**
+     * Adds the step before the next duty cycle.
+     * @param onAdded invoked by the process thread once the step has been added
+     */
+    public void add(final ProcessStep step, final Runnable onAdded) {
+        changes.add(new Change(Objects.requireNonNull(step), true, Objects.requireNonNull(onAdded)));
+    }
+
+    public void remove(final ProcessStep step) {
+        remove(step, NO_CALLBACK);
+    }
+
+    /**
+     * Removes the step before the next duty cycle; removing a step that is not in the set has no effect.
+     * @param onRemoved invoked by the process thread once the step has been removed and will no longer be executed,
+     *                  for instance to release resources used by the step; not invoked if the step was not in the set
+     */
+    public void remove(final ProcessStep step, final Runnable onRemoved) {
+        changes.add(new Change(Objects.requireNonNull(step), false, Objects.requireNonNull(onRemoved)));
+    }
+
+    /**
+     * @return number of steps currently executed, only accurate if invoked by the process thread
+     */
+    public int size() {
+        return steps.length;
+    }
+
+    @Override
+    public boolean execute() {
+        if (!changes.isEmpty()) {
+            applyChanges();
+        }
+        boolean workDone = false;
+        for (final ProcessStep step : steps) {
+            try {
+                workDone |= step.execute();
+            } catch (final Exception ex) {
+                exceptionHandler.accept(name, ex);
+            }
+        }
+        return workDone;
+    }
+
+    @Override
+    public boolean finalise() {
+        if (!changes.isEmpty()) {
+            applyChanges();
+        }
+        boolean finalised = true;
+        for (final ProcessStep step : steps) {
+            try {
+                finalised &= step.finalise();
+            } catch (final Exception ex) {
+                exceptionHandler.accept(name, ex);
+            }
+        }
+        return finalised;
+    }
+
+    private void applyChanges() {
+        Change change;
+        while ((change = changes.poll()) != null) {
+            if (change.add) {
+                final ProcessStep[] newSteps = Arrays.copyOf(steps, steps.length + 1);
+                newSteps[steps.length] = change.step;
+                steps = newSteps;
+                change.callback.run();
+            } else {
+                final int index = indexOf(change.step);
+                if (index >= 0) {
+                    final ProcessStep[] newSteps = new ProcessStep[steps.length - 1];
+                    System.arraycopy(steps, 0, newSteps, 0, index);
+                    System.arraycopy(steps, index + 1, newSteps, index, newSteps.length - index);
+                    steps = newSteps;
+                    change.callback.run();
+                }
+            }
+        }
+    }
+
+    private int indexOf(final ProcessStep step) {
+        for (int i = 0; i < steps.length; i++) {
+            if (steps[i] == step) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Change {
+        final ProcessStep step;
+        final boolean add;
+        final Runnable callback;
+
+        Change(final ProcessStep step, final boolean add, final Runnable callback) {
+            this.step = step;
+            this.add = add;
+            this.callback = callback;
+        }
+    }
+}
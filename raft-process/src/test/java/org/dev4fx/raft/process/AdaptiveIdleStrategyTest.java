@@ -0,0 +1,157 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.process;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AdaptiveIdleStrategyTest {
+    private static final long TIMEOUT_MILLIS = 5000;
+    private static final long MIN_PARK_NANOS = 1000;
+    private static final long MAX_PARK_NANOS = 4000;
+
+    @Test
+    public void idle_spins_then_yields_then_parks_with_growing_park_period() throws Exception {
+        //given
+        final AdaptiveIdleStrategy idleStrategy = new AdaptiveIdleStrategy(3, 2, MIN_PARK_NANOS, MAX_PARK_NANOS);
+
+        //when - spinning
+        for (int i = 1; i <= 3; i++) {
+            idleStrategy.idle(0);
+
+            //then
+            assertThat(idleStrategy.spins()).isEqualTo(i);
+            assertThat(idleStrategy.yields()).isEqualTo(0);
+        }
+
+        //when - yielding
+        for (int i = 1; i <= 2; i++) {
+            idleStrategy.idle(0);
+
+            //then
+            assertThat(idleStrategy.spins()).isEqualTo(3);
+            assertThat(idleStrategy.yields()).isEqualTo(i);
+            assertThat(idleStrategy.parkPeriodNanos()).isEqualTo(MIN_PARK_NANOS);
+        }
+
+        //when - parking
+        idleStrategy.idle(0);
+
+        //then
+        assertThat(idleStrategy.parkPeriodNanos()).isEqualTo(2 * MIN_PARK_NANOS);
+
+        //when
+        idleStrategy.idle(0);
+        idleStrategy.idle(0);
+
+        //then - capped
+        assertThat(idleStrategy.parkPeriodNanos()).isEqualTo(MAX_PARK_NANOS);
+    }
+
+    @Test
+    public void work_done_returns_to_spinning() throws Exception {
+        //given
+        final AdaptiveIdleStrategy idleStrategy = new AdaptiveIdleStrategy(1, 1, MIN_PARK_NANOS, MAX_PARK_NANOS);
+        for (int i = 0; i < 4; i++) {
+            idleStrategy.idle(0);
+        }
+        assertThat(idleStrategy.parkPeriodNanos()).isEqualTo(MAX_PARK_NANOS);
+
+        //when
+        idleStrategy.idle(1);
+
+        //then
+        assertThat(idleStrategy.spins()).isEqualTo(0);
+        assertThat(idleStrategy.yields()).isEqualTo(0);
+        assertThat(idleStrategy.parkPeriodNanos()).isEqualTo(MIN_PARK_NANOS);
+    }
+
+    @Test
+    public void reset_signalled_before_idle_returns_to_spinning_without_parking() throws Exception {
+        //given
+        final long parkNanos = TimeUnit.SECONDS.toNanos(30);
+        final AdaptiveIdleStrategy idleStrategy = new AdaptiveIdleStrategy(0, 0, parkNanos, parkNanos);
+        final Thread resetThread = new Thread(idleStrategy::reset);
+        resetThread.start();
+        resetThread.join();
+
+        //when
+        final long startNanos = System.nanoTime();
+        idleStrategy.idle(0);
+
+        //then
+        assertThat(System.nanoTime() - startNanos).isLessThan(TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS));
+        assertThat(idleStrategy.spins()).isEqualTo(0);
+        assertThat(idleStrategy.parkPeriodNanos()).isEqualTo(parkNanos);
+    }
+
+    @Test
+    public void reset_from_other_thread_unparks_parked_thread() throws Exception {
+        //given
+        final long parkNanos = TimeUnit.SECONDS.toNanos(30);
+        final AdaptiveIdleStrategy idleStrategy = new AdaptiveIdleStrategy(0, 0, parkNanos, parkNanos);
+        final CountDownLatch idled = new CountDownLatch(1);
+        final Thread idleThread = new Thread(() -> {
+            idleStrategy.idle(0);
+            idled.countDown();
+        });
+        idleThread.start();
+        awaitParked(idleThread);
+
+        //when
+        idleStrategy.reset();
+
+        //then
+        assertThat(idled.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+        idleThread.join();
+
+        //when - signal consumed by next idle
+        idleStrategy.idle(0);
+
+        //then
+        assertThat(idleStrategy.spins()).isEqualTo(0);
+        assertThat(idleStrategy.yields()).isEqualTo(0);
+    }
+
+    @Test
+    public void invalid_park_periods_are_rejected() throws Exception {
+        assertThatThrownBy(() -> new AdaptiveIdleStrategy(1, 1, 0, MAX_PARK_NANOS))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveIdleStrategy(1, 1, MAX_PARK_NANOS, MIN_PARK_NANOS))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void awaitParked(final Thread thread) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (thread.getState() != Thread.State.TIMED_WAITING) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.process;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assume.assumeTrue;
+
+public class CpuAffinityTest {
+
+    @Test
+    public void of_accepts_cpu_lists_in_taskset_format() throws Exception {
+        for (final String cpuSet : new String[] {"3", "0-3", "2,4-5", "0-1,4,6-7"}) {
+            assertThat(CpuAffinity.of(cpuSet).cpuSet()).isEqualTo(cpuSet);
+        }
+    }
+
+    @Test
+    public void of_rejects_invalid_cpu_lists() throws Exception {
+        for (final String cpuSet : new String[] {"", "a", "1-", "-1", ",1", "1,", "1,,2", "1 2", "0x3"}) {
+            assertThatThrownBy(() -> CpuAffinity.of(cpuSet)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void bindOnStart_requires_start_handler() throws Exception {
+        CpuAffinity.of("0").bindOnStart("test", null);
+    }
+
+    @Test
+    public void bindOnStart_binds_thread_before_delegating_to_start_handler() throws Exception {
+        assumeTrue(CpuAffinity.isSupported());
+
+        //given
+        final String cpuSet = cpusAllowed();
+        final AtomicReference<String> cpusAllowedOnStart = new AtomicReference<>();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final Runnable onStart = CpuAffinity.of(cpuSet).bindOnStart("test", () -> cpusAllowedOnStart.set(cpusAllowed()));
+
+        //when
+        runOnNewThread(onStart, error);
+
+        //then
+        assertThat(error.get()).isNull();
+        assertThat(cpusAllowedOnStart.get()).isEqualTo(cpuSet);
+    }
+
+    @Test
+    public void bindOnStart_does_not_delegate_to_start_handler_if_binding_fails() throws Exception {
+        assumeTrue(CpuAffinity.isSupported());
+
+        //given
+        final AtomicReference<String> cpusAllowedOnStart = new AtomicReference<>();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final Runnable onStart = CpuAffinity.of("99999").bindOnStart("test", () -> cpusAllowedOnStart.set(cpusAllowed()));
+
+        //when
+        runOnNewThread(onStart, error);
+
+        //then
+        assertThat(error.get()).isInstanceOf(IllegalStateException.class);
+        assertThat(cpusAllowedOnStart.get()).isNull();
+    }
+
+    private static void runOnNewThread(final Runnable runnable, final AtomicReference<Throwable> error) throws InterruptedException {
+        final Thread thread = new Thread(runnable);
+        thread.setUncaughtExceptionHandler((t, e) -> error.set(e));
+        thread.start();
+        thread.join();
+    }
+
+    private static String cpusAllowed() {
+        try {
+            return Files.readAllLines(Paths.get("/proc/thread-self/status"), StandardCharsets.US_ASCII).stream()
+                    .filter(line -> line.startsWith("Cpus_allowed_list:"))
+                    .map(line -> line.substring("Cpus_allowed_list:".length()).trim())
+                    .findFirst()
+                    .orElseThrow(IllegalStateException::new);
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.process;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DutyCycleProfilerTest {
+    private final DutyCycleProfiler profiler = new DutyCycleProfiler("test", Arrays.asList("poller", "handler"),
+            500, TimeUnit.NANOSECONDS);
+
+    @Test
+    public void steps_are_named_by_index_if_no_names_are_given() throws Exception {
+        //when
+        final DutyCycleProfiler indexed = new DutyCycleProfiler("test", 3, 1, TimeUnit.MILLISECONDS);
+
+        //then
+        assertThat(indexed.stepCount()).isEqualTo(3);
+        assertThat(indexed.stepName(0)).isEqualTo("0");
+        assertThat(indexed.stepName(2)).isEqualTo("2");
+    }
+
+    @Test
+    public void steps_are_named_by_given_names() throws Exception {
+        assertThat(profiler.stepCount()).isEqualTo(2);
+        assertThat(profiler.stepName(0)).isEqualTo("poller");
+        assertThat(profiler.stepName(1)).isEqualTo("handler");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void step_names_must_not_be_null() throws Exception {
+        new DutyCycleProfiler("test", Arrays.asList("poller", null), 1, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void records_step_and_cycle_histograms() throws Exception {
+        //when
+        profiler.onStepExecuted(0, 100, true);
+        profiler.onStepExecuted(1, 200, false);
+        profiler.onCycleExecuted(300, true);
+        profiler.onStepExecuted(0, 150, false);
+        profiler.onStepExecuted(1, 250, false);
+        profiler.onCycleExecuted(400, false);
+
+        //then
+        assertThat(profiler.dutyCycleHistogram().getTotalCount()).isEqualTo(2);
+        assertThat(profiler.dutyCycleHistogram().getMinValue()).isEqualTo(300);
+        assertThat(profiler.dutyCycleHistogram().getMaxValue()).isEqualTo(400);
+        assertThat(profiler.stepHistogram(0).getTotalCount()).isEqualTo(2);
+        assertThat(profiler.stepHistogram(0).getMaxValue()).isEqualTo(150);
+        assertThat(profiler.stepHistogram(1).getTotalCount()).isEqualTo(2);
+        assertThat(profiler.stepHistogram(1).getMaxValue()).isEqualTo(250);
+    }
+
+    @Test
+    public void work_done_ratios_are_relative_to_cycle_count() throws Exception {
+        //given
+        assertThat(profiler.cycleWorkDoneRatio()).isEqualTo(0);
+        assertThat(profiler.stepWorkDoneRatio(0)).isEqualTo(0);
+
+        //when
+        for (int i = 0; i < 4; i++) {
+            profiler.onStepExecuted(0, 100, i == 0);
+            profiler.onStepExecuted(1, 100, i < 2);
+            profiler.onCycleExecuted(200, i < 2);
+        }
+
+        //then
+        assertThat(profiler.stepWorkDoneRatio(0)).isEqualTo(0.25);
+        assertThat(profiler.stepWorkDoneRatio(1)).isEqualTo(0.5);
+        assertThat(profiler.cycleWorkDoneRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    public void counts_stalls_and_keeps_worst_stall() throws Exception {
+        //when
+        profiler.onStepExecuted(0, 100, true);
+        profiler.onStepExecuted(1, 300, true);
+        profiler.onCycleExecuted(400, true);
+
+        //then
+        assertThat(profiler.stallCount()).isEqualTo(0);
+        assertThat(profiler.worstStallStepName()).isNull();
+
+        //when
+        profiler.onStepExecuted(0, 100, true);
+        profiler.onStepExecuted(1, 600, true);
+        profiler.onCycleExecuted(700, true);
+        profiler.onStepExecuted(0, 900, true);
+        profiler.onStepExecuted(1, 100, true);
+        profiler.onCycleExecuted(1000, true);
+        profiler.onStepExecuted(0, 50, true);
+        profiler.onStepExecuted(1, 550, true);
+        profiler.onCycleExecuted(600, true);
+
+        //then
+        assertThat(profiler.stallCount()).isEqualTo(3);
+        assertThat(profiler.stepStallCount(0)).isEqualTo(1);
+        assertThat(profiler.stepStallCount(1)).isEqualTo(2);
+        assertThat(profiler.worstStallNanos()).isEqualTo(1000);
+        assertThat(profiler.worstStallStepName()).isEqualTo("poller");
+        assertThat(profiler.worstStallStepNanos()).isEqualTo(900);
+        profiler.logSummary();
+    }
+}
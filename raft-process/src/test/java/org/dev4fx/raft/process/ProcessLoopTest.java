@@ -0,0 +1,128 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.process;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProcessLoopTest {
+    private final List<Exception> exceptions = new ArrayList<>();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_throws_exception_when_profiler_step_count_does_not_match() throws Exception {
+        final DutyCycleProfiler profiler = new DutyCycleProfiler("test", 1, 1, TimeUnit.MILLISECONDS);
+        processLoop(() -> false, profiler, () -> true, () -> true);
+    }
+
+    @Test
+    public void executeCycle_records_steps_with_profiler() throws Exception {
+        //given
+        final DutyCycleProfiler profiler = new DutyCycleProfiler("test", Arrays.asList("working", "idle", "failing"),
+                10, TimeUnit.SECONDS);
+        final IllegalStateException failure = new IllegalStateException("step failed");
+        final ProcessLoop processLoop = processLoop(() -> false, profiler,
+                () -> true,
+                () -> false,
+                () -> {
+                    throw failure;
+                });
+
+        //when
+        final boolean workDone1 = processLoop.executeCycle();
+        final boolean workDone2 = processLoop.executeCycle();
+
+        //then
+        assertThat(workDone1).isTrue();
+        assertThat(workDone2).isTrue();
+        assertThat(exceptions).containsExactly(failure, failure);
+        assertThat(profiler.dutyCycleHistogram().getTotalCount()).isEqualTo(2);
+        for (int i = 0; i < profiler.stepCount(); i++) {
+            assertThat(profiler.stepHistogram(i).getTotalCount()).isEqualTo(2);
+        }
+        assertThat(profiler.cycleWorkDoneRatio()).isEqualTo(1);
+        assertThat(profiler.stepWorkDoneRatio(0)).isEqualTo(1);
+        assertThat(profiler.stepWorkDoneRatio(1)).isEqualTo(0);
+        assertThat(profiler.stepWorkDoneRatio(2)).isEqualTo(0);
+        assertThat(profiler.stallCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void executeCycle_reports_slowest_step_of_stalled_cycle() throws Exception {
+        //given
+        final DutyCycleProfiler profiler = new DutyCycleProfiler("test", Arrays.asList("fast", "slow"),
+                1, TimeUnit.MILLISECONDS);
+        final ProcessLoop processLoop = processLoop(() -> false, profiler,
+                () -> false,
+                () -> {
+                    final long start = System.nanoTime();
+                    while (System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(5)) {
+                        //busy spin to simulate a slow step
+                    }
+                    return true;
+                });
+
+        //when
+        processLoop.executeCycle();
+
+        //then
+        assertThat(profiler.stallCount()).isEqualTo(1);
+        assertThat(profiler.stepStallCount(1)).isEqualTo(1);
+        assertThat(profiler.worstStallStepName()).isEqualTo("slow");
+        assertThat(profiler.worstStallStepNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(profiler.worstStallNanos()).isGreaterThanOrEqualTo(profiler.worstStallStepNanos());
+    }
+
+    @Test
+    public void run_profiles_every_cycle_until_shutdown() throws Exception {
+        //given
+        final AtomicInteger cycles = new AtomicInteger();
+        final DutyCycleProfiler profiler = new DutyCycleProfiler("test", 1, 10, TimeUnit.SECONDS);
+        final ProcessLoop processLoop = processLoop(() -> cycles.get() >= 3, profiler,
+                () -> cycles.incrementAndGet() <= 3);
+
+        //when
+        processLoop.run();
+
+        //then
+        assertThat(cycles.get()).isEqualTo(4);
+        assertThat(profiler.dutyCycleHistogram().getTotalCount()).isEqualTo(3);
+        assertThat(profiler.stepWorkDoneRatio(0)).isEqualTo(1);
+        assertThat(exceptions).isEmpty();
+    }
+
+    private ProcessLoop processLoop(final BooleanSupplier shutdownCondition,
+                                    final DutyCycleProfiler profiler,
+                                    final ProcessStep... steps) {
+        return new ProcessLoop("test", () -> {}, () -> {}, shutdownCondition, () -> false,
+                workCount -> {}, (name, ex) -> exceptions.add(ex), profiler, steps);
+    }
+}
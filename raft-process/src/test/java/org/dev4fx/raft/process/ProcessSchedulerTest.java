@@ -0,0 +1,234 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.process;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProcessSchedulerTest {
+    private static final long TIMEOUT_MILLIS = 5000;
+    private static final IdleStrategy YIELDING = workDone -> {
+        if (workDone == 0) {
+            Thread.yield();
+        }
+    };
+
+    private final Queue<Exception> exceptions = new ConcurrentLinkedQueue<>();
+
+    private Service.Stop schedulerStop;
+
+    @After
+    public void tearDown() throws Exception {
+        if (schedulerStop != null) {
+            schedulerStop.stop();
+        }
+        assertThat(exceptions).isEmpty();
+    }
+
+    @Test
+    public void scheduled_loops_are_executed_by_workers_until_shutdown_requested() throws Exception {
+        //given
+        final ProcessScheduler scheduler = scheduler(2, 4);
+        final TestLoop[] loops = {new TestLoop("loop0"), new TestLoop("loop1"), new TestLoop("loop2")};
+        final ProcessScheduler.Termination[] terminations = new ProcessScheduler.Termination[loops.length];
+        for (int i = 0; i < loops.length; i++) {
+            terminations[i] = scheduler.schedule(loops[i].processLoop);
+        }
+
+        //when
+        schedulerStop = scheduler.start();
+
+        //then
+        for (final TestLoop loop : loops) {
+            awaitTrue(() -> loop.cycles.get() > 10);
+            assertThat(loop.started.get()).isEqualTo(1);
+        }
+
+        //when
+        for (final TestLoop loop : loops) {
+            loop.shutdown.set(true);
+        }
+
+        //then
+        for (int i = 0; i < loops.length; i++) {
+            assertThat(terminations[i].await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+            assertThat(loops[i].finalised.get()).isEqualTo(1);
+            assertThat(loops[i].stopped.get()).isEqualTo(1);
+            assertThat(loops[i].threads).allMatch(thread -> thread.startsWith("test-"));
+        }
+    }
+
+    @Test
+    public void idle_worker_steals_loop_from_busy_worker() throws Exception {
+        //given
+        final ProcessScheduler scheduler = scheduler(2, 1);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch unblock = new CountDownLatch(1);
+        final TestLoop blocking = new TestLoop("blocking", () -> {
+            blocked.countDown();
+            await(unblock);
+        });
+        final TestLoop terminating = new TestLoop("terminating");
+        final TestLoop stolen = new TestLoop("stolen");
+        terminating.shutdown.set(true);
+
+        //round robin: blocking and stolen to worker 0, terminating to worker 1
+        final ProcessScheduler.Termination blockingTermination = scheduler.schedule(blocking.processLoop);
+        final ProcessScheduler.Termination terminatingTermination = scheduler.schedule(terminating.processLoop);
+        final ProcessScheduler.Termination stolenTermination = scheduler.schedule(stolen.processLoop);
+
+        //when
+        schedulerStop = scheduler.start();
+
+        //then
+        assertThat(blocked.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(terminatingTermination.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+        awaitTrue(() -> stolen.cycles.get() > 10);
+        assertThat(blocking.threads).containsExactly("test-0");
+        assertThat(stolen.threads).containsExactly("test-1");
+
+        //when
+        unblock.countDown();
+        blocking.shutdown.set(true);
+        stolen.shutdown.set(true);
+
+        //then
+        assertThat(blockingTermination.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(stolenTermination.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+    }
+
+    @Test
+    public void stop_finalises_loops_without_shutdown_request() throws Exception {
+        //given
+        final ProcessScheduler scheduler = scheduler(2, 4);
+        final TestLoop running = new TestLoop("running");
+        final TestLoop other = new TestLoop("other");
+        final ProcessScheduler.Termination runningTermination = scheduler.schedule(running.processLoop);
+        final ProcessScheduler.Termination otherTermination = scheduler.schedule(other.processLoop);
+        final Service.Stop stop = scheduler.start();
+        awaitTrue(() -> running.cycles.get() > 0 && other.cycles.get() > 0);
+
+        //when
+        stop.stop();
+
+        //then
+        assertThat(runningTermination.isTerminated()).isTrue();
+        assertThat(otherTermination.isTerminated()).isTrue();
+        for (final TestLoop loop : new TestLoop[] {running, other}) {
+            assertThat(loop.finalised.get()).isEqualTo(1);
+            assertThat(loop.stopped.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void scheduled_process_stop_does_not_wait_for_timeout_once_scheduler_stopped() throws Exception {
+        //given
+        final ProcessScheduler scheduler = scheduler(1, 4);
+        final AtomicInteger stopped = new AtomicInteger();
+        final AtomicInteger cycles = new AtomicInteger();
+        final Process process = new Process("process", () -> {}, stopped::incrementAndGet, YIELDING,
+                (name, ex) -> exceptions.add(ex), 30, TimeUnit.SECONDS, null, scheduler,
+                () -> cycles.incrementAndGet() > 0);
+        final Service.Stop stop = scheduler.start();
+        final Service.Stop processStop = process.start();
+        awaitTrue(() -> cycles.get() > 0);
+        stop.stop();
+
+        //when
+        final long startMillis = System.currentTimeMillis();
+        processStop.stop();
+
+        //then
+        assertThat(System.currentTimeMillis() - startMillis).isLessThan(TIMEOUT_MILLIS);
+        assertThat(stopped.get()).isEqualTo(1);
+    }
+
+    private ProcessScheduler scheduler(final int workerCount, final int maxCyclesPerTurn) {
+        return new ProcessScheduler("test", workerCount, maxCyclesPerTurn, workerIndex -> YIELDING,
+                (name, ex) -> exceptions.add(ex));
+    }
+
+    private static void awaitTrue(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private final class TestLoop {
+        final AtomicBoolean shutdown = new AtomicBoolean();
+        final AtomicInteger started = new AtomicInteger();
+        final AtomicInteger cycles = new AtomicInteger();
+        final AtomicInteger finalised = new AtomicInteger();
+        final AtomicInteger stopped = new AtomicInteger();
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        final ProcessLoop processLoop;
+
+        TestLoop(final String name) {
+            this(name, () -> {});
+        }
+
+        TestLoop(final String name, final Runnable onExecute) {
+            final ProcessStep step = new ProcessStep() {
+                @Override
+                public boolean execute() {
+                    threads.add(Thread.currentThread().getName());
+                    cycles.incrementAndGet();
+                    onExecute.run();
+                    return true;
+                }
+
+                @Override
+                public boolean finalise() {
+                    finalised.incrementAndGet();
+                    return true;
+                }
+            };
+            processLoop = new ProcessLoop(name, started::incrementAndGet, stopped::incrementAndGet, shutdown::get,
+                    () -> false, YIELDING, (loopName, ex) -> exceptions.add(ex), step);
+        }
+    }
+}
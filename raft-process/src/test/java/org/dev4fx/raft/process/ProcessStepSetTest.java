@@ -0,0 +1,145 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 hover-raft (tools4j), Anton Anufriev, Marco Terzer
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.dev4fx.raft.process;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProcessStepSetTest {
+    private static final String LOOP_THREAD = "loop";
+
+    private final List<Exception> exceptions = new ArrayList<>();
+    private final ProcessStepSet processStepSet = new ProcessStepSet("test", (name, ex) -> exceptions.add(ex));
+
+    private final List<String> events = new ArrayList<>();
+
+    @Test
+    public void add_is_applied_by_loop_thread_at_next_cycle() throws Exception {
+        //given
+        final AtomicReference<String> onAddedThread = new AtomicReference<>();
+        processStepSet.add(recordingStep("step"), () -> onAddedThread.set(Thread.currentThread().getName()));
+
+        //then
+        assertThat(processStepSet.size()).isEqualTo(0);
+        assertThat(onAddedThread.get()).isNull();
+
+        //when
+        final boolean workDone = executeOnLoopThread(processStepSet::execute);
+
+        //then
+        assertThat(workDone).isTrue();
+        assertThat(processStepSet.size()).isEqualTo(1);
+        assertThat(onAddedThread.get()).isEqualTo(LOOP_THREAD);
+        assertThat(events).containsExactly("step on " + LOOP_THREAD);
+        assertThat(exceptions).isEmpty();
+    }
+
+    @Test
+    public void remove_is_applied_by_loop_thread_before_step_is_executed_again() throws Exception {
+        //given
+        final ProcessStep first = recordingStep("first");
+        final ProcessStep second = recordingStep("second");
+        processStepSet.add(first);
+        processStepSet.add(second);
+        executeOnLoopThread(processStepSet::execute);
+        events.clear();
+
+        final AtomicReference<String> onRemovedThread = new AtomicReference<>();
+        processStepSet.remove(first, () -> {
+            onRemovedThread.set(Thread.currentThread().getName());
+            events.add("removed first");
+        });
+
+        //when
+        executeOnLoopThread(processStepSet::execute);
+
+        //then
+        assertThat(processStepSet.size()).isEqualTo(1);
+        assertThat(onRemovedThread.get()).isEqualTo(LOOP_THREAD);
+        assertThat(events).containsExactly("removed first", "second on " + LOOP_THREAD);
+        assertThat(exceptions).isEmpty();
+    }
+
+    @Test
+    public void remove_of_step_not_in_set_does_not_invoke_callback() throws Exception {
+        //given
+        final ProcessStep step = recordingStep("step");
+        final ProcessStep other = recordingStep("other");
+        final AtomicBoolean onRemovedInvoked = new AtomicBoolean();
+        processStepSet.add(step);
+        processStepSet.remove(other, () -> onRemovedInvoked.set(true));
+
+        //when
+        executeOnLoopThread(processStepSet::execute);
+
+        //then
+        assertThat(processStepSet.size()).isEqualTo(1);
+        assertThat(onRemovedInvoked.get()).isFalse();
+
+        //when - removed twice
+        processStepSet.remove(step);
+        processStepSet.remove(step, () -> onRemovedInvoked.set(true));
+        executeOnLoopThread(processStepSet::execute);
+
+        //then
+        assertThat(processStepSet.size()).isEqualTo(0);
+        assertThat(onRemovedInvoked.get()).isFalse();
+    }
+
+    @Test
+    public void finalise_applies_pending_changes() throws Exception {
+        //given
+        processStepSet.add(recordingStep("step"));
+
+        //when
+        final boolean finalised = executeOnLoopThread(processStepSet::finalise);
+
+        //then
+        assertThat(finalised).isFalse();
+        assertThat(processStepSet.size()).isEqualTo(1);
+        assertThat(events).containsExactly("step on " + LOOP_THREAD);
+    }
+
+    private ProcessStep recordingStep(final String name) {
+        return () -> {
+            events.add(name + " on " + Thread.currentThread().getName());
+            return true;
+        };
+    }
+
+    private static boolean executeOnLoopThread(final BooleanSupplier cycle) throws InterruptedException {
+        final AtomicBoolean result = new AtomicBoolean();
+        final Thread loopThread = new Thread(() -> result.set(cycle.getAsBoolean()), LOOP_THREAD);
+        loopThread.start();
+        loopThread.join();
+        return result.get();
+    }
+}
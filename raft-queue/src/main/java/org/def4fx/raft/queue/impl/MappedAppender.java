@@ -72,10 +72,10 @@ public class MappedAppender implements Appender {
             final int capacity = unsafeBuffer.capacity();
 
             if (capacity < paddedMessageLength) {
-                unsafeBuffer.setMemory(LENGTH_SIZE, length, (byte) 0);
+                unsafeBuffer.setMemory(LENGTH_SIZE, capacity - LENGTH_SIZE, (byte) 0);
                 unsafeBuffer.putIntOrdered(0, -(capacity - LENGTH_SIZE));
                 position += capacity;
-                append(buffer, offset, length);
+                return append(buffer, offset, length);
             }
 
             buffer.getBytes(offset, unsafeBuffer, LENGTH_SIZE, length);
@@ -28,12 +28,16 @@ import org.dev4fx.raft.mmap.api.RegionAccessor;
 import org.def4fx.raft.queue.api.Appender;
 import org.def4fx.raft.queue.api.Poller;
 import org.def4fx.raft.queue.api.Queue;
+import org.dev4fx.raft.mmap.impl.AnonymousMemory;
+import org.dev4fx.raft.mmap.impl.FileChannelRegionCache;
 import org.dev4fx.raft.mmap.impl.FileInitialiser;
 import org.dev4fx.raft.mmap.impl.MappedFile;
 import org.dev4fx.raft.mmap.impl.RegionRingAccessor;
+import org.dev4fx.raft.mmap.impl.SharedMappingRegistry;
 import org.dev4fx.raft.mmap.api.RegionRingFactory;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 
 public class MappedQueue implements Queue {
     private final RegionAccessor appenderRegionRingAccessor;
@@ -45,7 +49,24 @@ public class MappedQueue implements Queue {
                        final int ringSize,
                        final int regionsToMapAhead,
                        final long maxFileSize) throws IOException {
-        final MappedFile appenderFile = new MappedFile(fileName, MappedFile.Mode.READ_WRITE_CLEAR,
+        this(fileName, regionSize, factory, ringSize, regionsToMapAhead, maxFileSize, MappedFile.Mode.READ_WRITE_CLEAR);
+    }
+
+    /**
+     * Opens the queue with the given appender file mode. {@link MappedFile.Mode#READ_WRITE} keeps existing
+     * contents so that a queue can be shared with other processes or reopened for appending after a restart.
+     */
+    public MappedQueue(final String fileName,
+                       final int regionSize,
+                       final RegionRingFactory factory,
+                       final int ringSize,
+                       final int regionsToMapAhead,
+                       final long maxFileSize,
+                       final MappedFile.Mode appenderFileMode) throws IOException {
+        if (appenderFileMode == MappedFile.Mode.READ_ONLY) {
+            throw new IllegalArgumentException("Appender file mode must be writable: " + appenderFileMode);
+        }
+        final MappedFile appenderFile = new MappedFile(fileName, appenderFileMode,
                 regionSize, FileInitialiser::initFile);
         final MappedFile enumeratorFile = new MappedFile(fileName, MappedFile.Mode.READ_ONLY,
                 regionSize, FileInitialiser::initFile);
@@ -73,6 +94,126 @@ public class MappedQueue implements Queue {
                 enumeratorFile::close);
     }
 
+    private MappedQueue(final RegionAccessor appenderRegionRingAccessor,
+                        final RegionAccessor enumeratorRegionRingAccessor) {
+        this.appenderRegionRingAccessor = appenderRegionRingAccessor;
+        this.enumeratorRegionRingAccessor = enumeratorRegionRingAccessor;
+    }
+
+    /**
+     * Opens the queue file once and lets appender and pollers share reference counted region mappings, so
+     * that regions accessed by both are mapped only once. Pollers read through the writable mapping.
+     */
+    public static MappedQueue withSharedMappings(final String fileName,
+                                                 final int regionSize,
+                                                 final int ringSize,
+                                                 final int regionsToMapAhead,
+                                                 final long maxFileSize,
+                                                 final MappedFile.Mode appenderFileMode) throws IOException {
+        if (appenderFileMode == MappedFile.Mode.READ_ONLY) {
+            throw new IllegalArgumentException("Appender file mode must be writable: " + appenderFileMode);
+        }
+        final MappedFile file = new MappedFile(fileName, appenderFileMode,
+                regionSize, FileInitialiser::initFile);
+        final RegionRingFactory factory = RegionRingFactory.forShared(
+                new SharedMappingRegistry(file::getFileChannel, file.getMode().getMapMode(), regionSize));
+
+        final RegionAccessor appenderRegionRingAccessor = new RegionRingAccessor(
+                factory.create(
+                        ringSize,
+                        regionSize,
+                        file::getFileChannel,
+                        FileSizeEnsurer.forWritableFile(file::getFileLength, file::setFileLength, maxFileSize),
+                        file.getMode().getMapMode()),
+                regionSize,
+                regionsToMapAhead,
+                () -> {});
+
+        final RegionAccessor enumeratorRegionRingAccessor = new RegionRingAccessor(
+                factory.create(
+                        ringSize,
+                        regionSize,
+                        file::getFileChannel,
+                        FileSizeEnsurer.NO_OP,
+                        file.getMode().getMapMode()),
+                regionSize,
+                regionsToMapAhead,
+                file::close);
+
+        return new MappedQueue(appenderRegionRingAccessor, enumeratorRegionRingAccessor);
+    }
+
+    /**
+     * Opens the queue file once and lets appender and pollers share off-heap region buffers which are read and
+     * written back with positional file channel reads and writes instead of mapping the file, see
+     * {@link FileChannelRegionCache}. Up to ringSize released regions stay cached. Appended messages are visible
+     * to pollers of this queue immediately but reach the file only when their region is evicted from the cache
+     * or the queue is closed, so the file cannot be shared with other processes.
+     */
+    public static MappedQueue withFileChannel(final String fileName,
+                                              final int regionSize,
+                                              final int ringSize,
+                                              final int regionsToMapAhead,
+                                              final long maxFileSize,
+                                              final MappedFile.Mode appenderFileMode) throws IOException {
+        if (appenderFileMode == MappedFile.Mode.READ_ONLY) {
+            throw new IllegalArgumentException("Appender file mode must be writable: " + appenderFileMode);
+        }
+        final MappedFile file = new MappedFile(fileName, appenderFileMode,
+                regionSize, FileInitialiser::initFile);
+        final RegionRingFactory factory = RegionRingFactory.forFileChannel(
+                new FileChannelRegionCache(file::getFileChannel, regionSize, ringSize));
+
+        final RegionAccessor appenderRegionRingAccessor = new RegionRingAccessor(
+                factory.create(
+                        ringSize,
+                        regionSize,
+                        file::getFileChannel,
+                        FileSizeEnsurer.forWritableFile(file::getFileLength, file::setFileLength, maxFileSize),
+                        file.getMode().getMapMode()),
+                regionSize,
+                regionsToMapAhead,
+                () -> {});
+
+        final RegionAccessor enumeratorRegionRingAccessor = new RegionRingAccessor(
+                factory.create(
+                        ringSize,
+                        regionSize,
+                        file::getFileChannel,
+                        FileSizeEnsurer.NO_OP,
+                        FileChannel.MapMode.READ_ONLY),
+                regionSize,
+                regionsToMapAhead,
+                file::close);
+
+        return new MappedQueue(appenderRegionRingAccessor, enumeratorRegionRingAccessor);
+    }
+
+    /**
+     * Creates a queue kept in off-heap anonymous memory of up to maxSize bytes, without any file; the memory is
+     * freed when the queue is closed.
+     */
+    public static MappedQueue inMemory(final int regionSize,
+                                       final int ringSize,
+                                       final int regionsToMapAhead,
+                                       final long maxSize) {
+        final RegionRingFactory factory = RegionRingFactory.forAnonymousMemory(new AnonymousMemory(regionSize, maxSize));
+
+        final RegionAccessor appenderRegionRingAccessor = new RegionRingAccessor(
+                factory.create(ringSize, regionSize, () -> null, FileSizeEnsurer.NO_OP, FileChannel.MapMode.READ_WRITE),
+                regionSize,
+                regionsToMapAhead,
+                () -> {});
+
+        final RegionAccessor enumeratorRegionRingAccessor = new RegionRingAccessor(
+                factory.create(ringSize, regionSize, () -> null, FileSizeEnsurer.NO_OP, FileChannel.MapMode.READ_WRITE),
+                regionSize,
+                regionsToMapAhead,
+                () -> {});
+
+        return new MappedQueue(appenderRegionRingAccessor, enumeratorRegionRingAccessor);
+    }
+
     @Override
     public Appender appender() {
         return new MappedAppender(appenderRegionRingAccessor, 64);